@@ -0,0 +1,120 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package EDD;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+
+/**
+ * Memoria fuera del heap para los bloques de posiciones de un conjunto de datos.
+ *
+ * Reserva páginas de TAMAÑO_PAGINA bytes en un Arena compartido y las entrega
+ * por partes a las ListaPosiciones que la usan: cada bloque completo de una
+ * lista (ver ListaPosiciones.POSICIONES_POR_BLOQUE) se copia aquí y deja de
+ * ocupar el heap. Como el recolector de basura no recorre esta memoria, miles
+ * de millones de posiciones no alargan sus pausas.
+ *
+ * Todas las páginas se liberan juntas con liberar(), sin recorrer los
+ * patrones. Después de eso las listas que la usaban ya no se pueden leer, así
+ * que debe llamarse solo cuando el conjunto de datos se descarta (ver
+ * HashTable.liberar).
+ */
+public final class AlmacenPosiciones implements AutoCloseable {
+
+    /**
+     * Bits de la dirección que indican el desplazamiento dentro de la página.
+     */
+    private static final int BITS_PAGINA = 20;
+
+    /**
+     * Tamaño de cada página reservada, en bytes (1 MB).
+     */
+    public static final int TAMAÑO_PAGINA = 1 << BITS_PAGINA;
+
+    private final Arena arena = Arena.ofShared();
+    // Se reemplaza al crecer; volatile para que los lectores vean siempre un array completo
+    private volatile MemorySegment[] paginas = new MemorySegment[8];
+    private int cantidadPaginas;
+    private int usadoEnPagina = TAMAÑO_PAGINA;
+    private boolean liberado;
+
+    /**
+     * Copia bytes al almacén.
+     *
+     * Los bytes de una llamada quedan siempre en una misma página. Es seguro
+     * llamarlo desde varios hilos (la ingesta paralela llena sus tablas a la vez).
+     *
+     * @param origen El array con los bytes.
+     * @param largo Cantidad de bytes a copiar, como máximo TAMAÑO_PAGINA.
+     * @return La dirección donde quedaron, para leerlos con leer().
+     * @throws IllegalStateException Si el almacén ya fue liberado.
+     */
+    public synchronized long guardar(byte[] origen, int largo) {
+        if (liberado) {
+            throw new IllegalStateException("El almacén de posiciones ya fue liberado");
+        }
+        if (largo > TAMAÑO_PAGINA) {
+            throw new IllegalArgumentException("No cabe en una página: " + largo + " bytes");
+        }
+        if (usadoEnPagina + largo > TAMAÑO_PAGINA) {
+            MemorySegment[] actuales = paginas;
+            if (cantidadPaginas == actuales.length) {
+                actuales = Arrays.copyOf(actuales, actuales.length * 2);
+            }
+            actuales[cantidadPaginas++] = arena.allocate(TAMAÑO_PAGINA);
+            paginas = actuales;
+            usadoEnPagina = 0;
+        }
+        MemorySegment.copy(origen, 0, paginas[cantidadPaginas - 1], ValueLayout.JAVA_BYTE, usadoEnPagina, largo);
+        long direccion = ((long) (cantidadPaginas - 1) << BITS_PAGINA) | usadoEnPagina;
+        usadoEnPagina += largo;
+        return direccion;
+    }
+
+    /**
+     * Lee un byte guardado.
+     *
+     * @param direccion Una dirección devuelta por guardar() más un desplazamiento
+     *                  que no salga de los bytes guardados en esa llamada.
+     * @throws IllegalStateException Si el almacén ya fue liberado.
+     */
+    public byte leer(long direccion) {
+        return paginas[(int) (direccion >>> BITS_PAGINA)].get(ValueLayout.JAVA_BYTE, direccion & (TAMAÑO_PAGINA - 1));
+    }
+
+    /**
+     * Devuelve los bytes reservados fuera del heap.
+     */
+    public synchronized long getBytesReservados() {
+        return liberado ? 0 : (long) cantidadPaginas * TAMAÑO_PAGINA;
+    }
+
+    /**
+     * Indica si el almacén ya fue liberado.
+     */
+    public synchronized boolean estaLiberado() {
+        return liberado;
+    }
+
+    /**
+     * Libera todas las páginas de una vez. Llamarlo de nuevo no hace nada.
+     */
+    public synchronized void liberar() {
+        if (!liberado) {
+            liberado = true;
+            arena.close();
+        }
+    }
+
+    /**
+     * Igual que liberar(), para usar el almacén en un try-with-resources.
+     */
+    @Override
+    public void close() {
+        liberar();
+    }
+}
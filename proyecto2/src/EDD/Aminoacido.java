@@ -0,0 +1,102 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package EDD;
+
+/**
+ * Los aminoácidos (y señales de parada) que puede codificar un triplete.
+ * 
+ * Cada valor guarda su nombre en español y sus abreviaturas de 3 y 1 letras,
+ * tal como se muestran en los reportes. MapaAminoacidos tiene una tabla de 64
+ * posiciones que da el valor de cada codón directamente por su código.
+ */
+public enum Aminoacido {
+    FENILALANINA("Fenilalanina", "Phe", 'F'),
+    LEUCINA("Leucina", "Leu", 'L'),
+    SERINA("Serina", "Ser", 'S'),
+    TIROSINA("Tirosina", "Tyr", 'Y'),
+    CISTEINA("Cisteína", "Cys", 'C'),
+    TRIPTOFANO("Triptófano", "Trp", 'W'),
+    PROLINA("Prolina", "Pro", 'P'),
+    HISTIDINA("Histidina", "His", 'H'),
+    GLUTAMINA("Glutamina", "Gln", 'Q'),
+    ARGININA("Arginina", "Arg", 'R'),
+    ISOLEUCINA("Isoleucina", "Ile", 'I'),
+    METIONINA("Metionina (Inicio)", "Met", 'M'),
+    TREONINA("Treonina", "Thr", 'T'),
+    ASPARAGINA("Asparagina", "Asn", 'N'),
+    LISINA("Lisina", "Lys", 'K'),
+    VALINA("Valina", "Val", 'V'),
+    ALANINA("Alanina", "Ala", 'A'),
+    ACIDO_ASPARTICO("Ácido Aspártico", "Asp", 'D'),
+    ACIDO_GLUTAMICO("Ácido Glutámico", "Glu", 'E'),
+    GLICINA("Glicina", "Gly", 'G'),
+    STOP_OCRE("STOP (Ocre)", "---", '-'),
+    STOP_AMBAR("STOP (Ámbar)", "---", '-'),
+    STOP_OPALO("STOP (Ópalo)", "---", '-'),
+    STOP("STOP", "---", '-'),
+    DESCONOCIDO("Desconocido", "???", '?');
+
+    private final String nombre;
+    private final String abreviatura3;
+    private final String abreviatura1;
+    private final char letra;
+
+    Aminoacido(String nombre, String abreviatura3, char letra) {
+        this.nombre = nombre;
+        this.abreviatura3 = abreviatura3;
+        this.abreviatura1 = String.valueOf(letra);
+        this.letra = letra;
+    }
+
+    /**
+     * Devuelve el nombre completo (ej. "Fenilalanina" o "STOP (Ocre)").
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Devuelve la abreviatura de 3 letras (ej. "Phe"; "---" para STOP).
+     */
+    public String getAbreviatura3() {
+        return abreviatura3;
+    }
+
+    /**
+     * Devuelve la abreviatura de 1 letra como texto (ej. "F"; "-" para STOP).
+     */
+    public String getAbreviatura1() {
+        return abreviatura1;
+    }
+
+    /**
+     * Devuelve la abreviatura de 1 letra como carácter, para traducir sin crear Strings.
+     */
+    public char getLetra() {
+        return letra;
+    }
+
+    /**
+     * Indica si es una señal de parada.
+     */
+    public boolean esStop() {
+        return letra == '-';
+    }
+
+    /**
+     * Busca el aminoácido que corresponde a una letra del código de una letra.
+     * 
+     * @param letra La letra (ej. 'F'); '*' no se acepta porque hay varios STOP.
+     * @return El aminoácido, o DESCONOCIDO si la letra no corresponde a ninguno.
+     */
+    public static Aminoacido porLetra(char letra) {
+        for (Aminoacido aminoacido : values()) {
+            if (aminoacido.letra == letra && !aminoacido.esStop() && aminoacido != DESCONOCIDO) {
+                return aminoacido;
+            }
+        }
+        return DESCONOCIDO;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package EDD;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Resultado de cargar y analizar un archivo de secuencia de ADN.
+ * 
+ * Reúne los pasos que antes vivían en la interfaz de carga: recorrer el archivo
+ * (en paralelo o en un solo hilo), llenar la HashTable con los tripletes y
+ * construir el ArbolBB de frecuencias. Así la interfaz gráfica y el modo por
+ * lotes de la línea de comandos hacen exactamente el mismo análisis.
+ * 
+ * Las posiciones de los tripletes se guardan fuera del heap, en un
+ * AlmacenPosiciones propio de cada carga; quien descarta el análisis debe
+ * llamar a liberar() (o a HashTable.liberar) para devolver esa memoria.
+ */
+public class AnalisisADN {
+    private final HashTable tablaHash;
+    private final ArbolBB arbolFrecuencias;
+    private final long nucleotidos;
+    private final long tripletes;
+
+    private AnalisisADN(HashTable tablaHash, ArbolBB arbolFrecuencias, long nucleotidos, long tripletes) {
+        this.tablaHash = tablaHash;
+        this.arbolFrecuencias = arbolFrecuencias;
+        this.nucleotidos = nucleotidos;
+        this.tripletes = tripletes;
+    }
+
+    /**
+     * Carga un archivo de secuencia y construye las estructuras de análisis.
+     * 
+     * @param ruta La ruta del archivo.
+     * @param paralela true para contar con IngestaParalela, false para un solo hilo.
+     * @return El análisis con la tabla hash, el árbol y los totales.
+     * @throws IOException Si el archivo no se puede leer.
+     */
+    public static AnalisisADN cargar(Path ruta, boolean paralela) throws IOException {
+        return cargar(ruta, paralela, false);
+    }
+
+    /**
+     * Carga un archivo de secuencia, con la opción de contar sin guardar posiciones.
+     * 
+     * En modo de solo conteo la tabla guarda únicamente las frecuencias; las
+     * posiciones de un patrón se recuperan cuando se necesitan con
+     * LocalizadorTripletes.completarPosiciones sobre el mismo archivo.
+     * 
+     * @param ruta La ruta del archivo.
+     * @param paralela true para contar con IngestaParalela, false para un solo hilo.
+     * @param soloConteo true para no guardar las posiciones.
+     * @return El análisis con la tabla hash, el árbol y los totales.
+     * @throws IOException Si el archivo no se puede leer.
+     */
+    public static AnalisisADN cargar(Path ruta, boolean paralela, boolean soloConteo) throws IOException {
+        HashTable tablaHash;
+        long nucleotidos;
+        long tripletes;
+        AlmacenPosiciones almacen = soloConteo ? null : new AlmacenPosiciones();
+        try (ArchivoADN archivo = new ArchivoADN(ruta)) {
+            if (paralela) {
+                // Contar los tripletes por trozos en todos los núcleos y fusionarlos en la tabla hash
+                IngestaParalela ingesta = new IngestaParalela();
+                ingesta.setSoloConteo(soloConteo);
+                ingesta.setAlmacen(almacen);
+                tablaHash = ingesta.contar(archivo);
+                nucleotidos = ingesta.getBasesProcesadas();
+                tripletes = ingesta.getTripletesProcesados();
+            } else {
+                // Recorrer el archivo por bloques: cada bloque se limpia (solo A, T, C, G) y
+                // se parte en tripletes no solapados (0-2, 3-5, 6-8, etc.), que se cuentan
+                // por su código en una TablaCodones y al final se vuelcan en la tabla hash
+                TablaCodones conteo = new TablaCodones(soloConteo, almacen);
+                nucleotidos = archivo.recorrerBases(conteo);
+                tripletes = conteo.getTripletesProcesados();
+                tablaHash = new HashTable();
+                tablaHash.setSoloConteo(soloConteo);
+                tablaHash.setAlmacen(almacen);
+                conteo.volcarEn(tablaHash);
+            }
+        } catch (IOException | RuntimeException ex) {
+            // La carga quedó a medias: sus posiciones no las va a usar nadie
+            if (almacen != null) {
+                almacen.liberar();
+            }
+            throw ex;
+        }
+        
+        // Crear y llenar el Árbol Binario de Búsqueda para ordenar por frecuencia
+        ArbolBB arbolFrecuencias = new ArbolBB(null);
+        arbolFrecuencias.actualizarDesde(tablaHash);
+        
+        // El resumen por aminoácido se calcula aquí, fuera de la interfaz, para que el reporte abra al instante
+        tablaHash.getResumenAminoacidos();
+        return new AnalisisADN(tablaHash, arbolFrecuencias, nucleotidos, tripletes);
+    }
+
+    /**
+     * Devuelve la tabla hash con todos los tripletes, frecuencias y posiciones.
+     */
+    public HashTable getTablaHash() {
+        return tablaHash;
+    }
+
+    /**
+     * Devuelve el árbol con los tripletes ordenados por frecuencia.
+     */
+    public ArbolBB getArbolFrecuencias() {
+        return arbolFrecuencias;
+    }
+
+    /**
+     * Devuelve la cantidad de bases válidas de la secuencia.
+     */
+    public long getNucleotidos() {
+        return nucleotidos;
+    }
+
+    /**
+     * Devuelve la cantidad de tripletes completos contados.
+     */
+    public long getTripletes() {
+        return tripletes;
+    }
+
+    /**
+     * Libera la memoria fuera del heap de las posiciones (ver HashTable.liberar).
+     * Después de esto solo deben consultarse las frecuencias.
+     */
+    public void liberar() {
+        tablaHash.liberar();
+    }
+}
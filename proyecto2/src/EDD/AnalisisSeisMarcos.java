@@ -0,0 +1,165 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package EDD;
+
+/**
+ * Conteo de codones en los seis marcos de lectura con una sola pasada.
+ * 
+ * Los marcos +1, +2 y +3 son los tripletes de la hebra directa que empiezan en
+ * posiciones 0, 1 y 2 (módulo 3); los marcos -1, -2 y -3 son los mismos cortes
+ * sobre el complemento reverso. Cada marco tiene su propia HashTable y su
+ * propio ArbolBB.
+ * 
+ * Por cada base que llega se actualizan dos códigos rodantes de 6 bits: el del
+ * triplete directo que termina en esa base y el de su complemento reverso. Cada
+ * base cierra un triplete de un marco directo y uno de un marco reverso, así que
+ * se lee la secuencia una sola vez en lugar de seis.
+ * 
+ * El marco reverso de un triplete depende de la longitud total (se cuenta desde
+ * el final), que no se conoce mientras llegan los bloques. Por eso los tripletes
+ * reversos se agrupan por su posición módulo 3 y en finalizar() se asigna cada
+ * grupo a su marco. Todas las posiciones están en coordenadas de la hebra
+ * directa (índice de la base más a la izquierda del triplete).
+ */
+public class AnalisisSeisMarcos implements ConsumidorBases {
+
+    /**
+     * Cantidad de marcos de lectura.
+     */
+    public static final int TOTAL_MARCOS = 6;
+
+    private static final String[] NOMBRES = {"+1", "+2", "+3", "-1", "-2", "-3"};
+
+    private final HashTable[] directos = new HashTable[3];
+    // Tripletes reversos agrupados por (posición % 3) hasta conocer la longitud
+    private final HashTable[] reversosPorResto = new HashTable[3];
+
+    private final HashTable[] tablas = new HashTable[TOTAL_MARCOS];
+    private final ArbolBB[] arboles = new ArbolBB[TOTAL_MARCOS];
+
+    private int codigoDirecto;
+    private int codigoReverso;
+    private long basesProcesadas;
+    private boolean finalizado;
+
+    /**
+     * Crea el análisis con las seis tablas vacías.
+     */
+    public AnalisisSeisMarcos() {
+        for (int i = 0; i < 3; i++) {
+            directos[i] = new HashTable();
+            reversosPorResto[i] = new HashTable();
+        }
+    }
+
+    /**
+     * Analiza un archivo completo en los seis marcos.
+     * 
+     * @param archivo El archivo mapeado en memoria.
+     * @return El análisis ya finalizado.
+     */
+    public static AnalisisSeisMarcos analizar(ArchivoADN archivo) {
+        AnalisisSeisMarcos analisis = new AnalisisSeisMarcos();
+        archivo.recorrerBases(analisis);
+        analisis.finalizar();
+        return analisis;
+    }
+
+    @Override
+    public void procesar(byte[] bases, int longitud) {
+        if (finalizado) {
+            throw new IllegalStateException("El análisis ya fue finalizado");
+        }
+        for (int i = 0; i < longitud; i++) {
+            int base = SecuenciaADN.codificarBase((char) bases[i]);
+            // Directo: la nueva base entra por la derecha.
+            // Reverso: su complemento (3 - base) entra por la izquierda.
+            codigoDirecto = ((codigoDirecto << 2) | base) & 63;
+            codigoReverso = (codigoReverso >>> 2) | ((3 - base) << 4);
+
+            if (basesProcesadas >= 2) {
+                long inicio = basesProcesadas - 2;
+                int resto = (int) (inicio % 3);
+                directos[resto].insertarCodigo(codigoDirecto, inicio);
+                reversosPorResto[resto].insertarCodigo(codigoReverso, inicio);
+            }
+            basesProcesadas++;
+        }
+    }
+
+    /**
+     * Asigna los tripletes reversos a sus marcos y construye los seis árboles
+     * de frecuencias. Se llama una vez, después de la última base.
+     */
+    public void finalizar() {
+        if (finalizado) {
+            return;
+        }
+        for (int resto = 0; resto < 3; resto++) {
+            tablas[resto] = directos[resto];
+            // En la hebra reversa el triplete de la posición s empieza en L - 3 - s
+            int marcoReverso = (int) Math.floorMod(basesProcesadas - resto, 3L);
+            tablas[3 + marcoReverso] = reversosPorResto[resto];
+        }
+        for (int marco = 0; marco < TOTAL_MARCOS; marco++) {
+            ArbolBB arbol = new ArbolBB(null);
+            arbol.actualizarDesde(tablas[marco]);
+            arboles[marco] = arbol;
+        }
+        finalizado = true;
+    }
+
+    private void verificarFinalizado() {
+        if (!finalizado) {
+            throw new IllegalStateException("Falta llamar a finalizar()");
+        }
+    }
+
+    /**
+     * Devuelve la tabla hash de un marco.
+     * 
+     * @param marco 0, 1, 2 para +1, +2, +3 y 3, 4, 5 para -1, -2, -3.
+     * @return La tabla con los tripletes de ese marco.
+     */
+    public HashTable getTabla(int marco) {
+        verificarFinalizado();
+        return tablas[marco];
+    }
+
+    /**
+     * Devuelve el árbol de frecuencias de un marco.
+     * 
+     * @param marco 0, 1, 2 para +1, +2, +3 y 3, 4, 5 para -1, -2, -3.
+     * @return El árbol con los tripletes de ese marco ordenados por frecuencia.
+     */
+    public ArbolBB getArbol(int marco) {
+        verificarFinalizado();
+        return arboles[marco];
+    }
+
+    /**
+     * Devuelve el nombre de un marco ("+1" ... "-3").
+     */
+    public static String getNombreMarco(int marco) {
+        return NOMBRES[marco];
+    }
+
+    /**
+     * Devuelve cuántas bases se han procesado.
+     */
+    public long getBasesProcesadas() {
+        return basesProcesadas;
+    }
+
+    /**
+     * Devuelve cuántos tripletes completos tiene un marco.
+     * 
+     * @param marco El índice del marco (0..5).
+     */
+    public long getTripletes(int marco) {
+        long desplazamiento = marco % 3;
+        return Math.max(0, (basesProcesadas - desplazamiento) / 3);
+    }
+}
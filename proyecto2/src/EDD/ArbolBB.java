@@ -4,8 +4,12 @@
  */
 package EDD;
 
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 /**
- * Implementación de un Árbol Binario de Búsqueda (ABB).
+ * Implementación de un Árbol Binario de Búsqueda (ABB) autobalanceado (AVL).
  * 
  * Este árbol está diseñado para almacenar patrones de ADN (tripletes) y ordenarlos
  * principalmente por su frecuencia de aparición. Esto permite realizar búsquedas
@@ -14,10 +18,36 @@ package EDD;
  * Si dos patrones tienen la misma frecuencia, se ordenan alfabéticamente por el
  * triplete para mantener un orden consistente.
  * 
+ * Los patrones suelen llegar ordenados (alfabéticamente, con frecuencias
+ * parecidas), lo que en un ABB simple lo degenera en una lista. Por eso, después
+ * de cada inserción se aplican rotaciones AVL para que la altura siga siendo
+ * O(log n). La inserción es iterativa, así que no hay riesgo de desbordar la
+ * pila aunque el árbol tenga millones de patrones.
+ * 
+ * Cada nodo guarda además el tamaño de su subárbol, con lo que se pueden pedir
+ * los k patrones más frecuentes, el patrón en un rango dado o el percentil de
+ * una frecuencia sin recorrer todo el árbol.
+ * 
+ * Para listar los patrones en orden se usan los cursores ascendente() y
+ * descendente(), que entregan los nodos (con su PatronADN) sin armar texto.
+ * 
+ * Cuando se sigue agregando secuencia a una HashTable ya analizada, no hace
+ * falta reconstruir el árbol: actualizarDesde(tabla) mueve solo los patrones
+ * cuya frecuencia cambió (borrándolos y reinsertándolos) e inserta los nuevos.
+ * 
  * @author simon
  */
 public class ArbolBB {
+    /**
+     * Altura máxima que puede tener un AVL con hasta 2^31 nodos (1.44 log2 n),
+     * con margen. Es el tamaño del camino que se guarda al insertar.
+     */
+    private static final int ALTURA_MAXIMA = 64;
+
     private NodoArbolBB raiz;
+    
+    // Camino desde la raíz hasta el punto de inserción; se reutiliza entre inserciones
+    private final NodoArbolBB[] camino = new NodoArbolBB[ALTURA_MAXIMA];
 
     /**
      * Constructor del Árbol Binario de Búsqueda.
@@ -32,48 +62,469 @@ public class ArbolBB {
     /**
      * Inserta un nuevo patrón (triplete) con su frecuencia en el árbol.
      * 
-     * Este es el método público que inicia el proceso de inserción recursiva.
+     * Baja desde la raíz guardando el camino, cuelga el nodo nuevo como hoja y
+     * luego sube por el camino actualizando alturas y rotando donde haga falta.
+     * Complejidad O(log n).
      * 
      * @param triplete La secuencia de 3 caracteres del patrón de ADN.
      * @param frecuencia El número de veces que este patrón aparece en la secuencia principal.
      */
     public void insertar(String triplete, int frecuencia) {
-        raiz = insertarRec(raiz, triplete, frecuencia);
+        insertarNodo(new NodoArbolBB(triplete, frecuencia));
+    }
+
+    /**
+     * Inserta un patrón de la tabla hash, guardando en el nodo la referencia
+     * al patrón para que los recorridos lleguen a sus posiciones sin volver a
+     * buscarlo en la tabla.
+     * 
+     * @param patron El patrón a insertar; se usan su triplete y su frecuencia actual.
+     */
+    public void insertar(PatronADN patron) {
+        NodoArbolBB nuevo = new NodoArbolBB(patron.getTriplete(), patron.getFrecuencia());
+        nuevo.patron = patron;
+        patron.nodoArbol = nuevo;
+        insertarNodo(nuevo);
+    }
+
+    /**
+     * Ubica de nuevo un patrón cuya frecuencia cambió. Si el patrón todavía no
+     * está en el árbol, se inserta. Complejidad O(log n).
+     * 
+     * El nodo no se recrea: se desengancha del árbol, se le pone la nueva
+     * frecuencia y se vuelve a insertar, así que las referencias al nodo siguen
+     * siendo válidas.
+     * 
+     * @param patron El patrón, ya con su frecuencia nueva.
+     */
+    public void actualizarFrecuencia(PatronADN patron) {
+        NodoArbolBB nodo = patron.nodoArbol;
+        if (nodo == null || nodo.patron != patron) {
+            insertar(patron);
+            return;
+        }
+        if (nodo.frecuencia == patron.getFrecuencia()) {
+            return; // sigue en el mismo lugar del orden
+        }
+        if (!desenganchar(nodo)) {
+            insertar(patron);
+            return;
+        }
+        nodo.frecuencia = patron.getFrecuencia();
+        insertarNodo(nodo);
+    }
+
+    /**
+     * Pone al día el árbol con los cambios de una HashTable: inserta los
+     * patrones nuevos y reubica los que cambiaron de frecuencia desde la última
+     * llamada. Sirve para ir actualizando el ranking por lotes mientras se
+     * ingiere una secuencia, en vez de reconstruir el árbol al final.
+     * 
+     * Una misma HashTable debe actualizarse siempre contra el mismo árbol.
+     * 
+     * @param tabla La tabla de la que se toman los patrones pendientes.
+     * @return La cantidad de patrones insertados o reubicados.
+     */
+    public int actualizarDesde(HashTable tabla) {
+        int cambios = 0;
+        PatronADN patron = tabla.extraerPendientes();
+        while (patron != null) {
+            PatronADN siguiente = patron.siguientePendiente;
+            patron.siguientePendiente = null;
+            patron.pendiente = false;
+            actualizarFrecuencia(patron);
+            cambios++;
+            patron = siguiente;
+        }
+        return cambios;
     }
 
     /**
-     * Método auxiliar recursivo para insertar un nodo en el árbol.
+     * Elimina el patrón con el triplete y la frecuencia dados. Complejidad O(log n).
      * 
-     * Compara la frecuencia del nuevo nodo con el nodo actual para decidir si debe
-     * ir a la izquierda (menor frecuencia) o a la derecha (mayor frecuencia).
-     * Si las frecuencias son iguales, compara los tripletes alfabéticamente.
+     * @param triplete El triplete del patrón.
+     * @param frecuencia La frecuencia con la que está guardado en el árbol.
+     * @return true si se encontró y eliminó, false si no estaba.
+     */
+    public boolean eliminar(String triplete, int frecuencia) {
+        NodoArbolBB clave = new NodoArbolBB(triplete, frecuencia);
+        NodoArbolBB actual = raiz;
+        while (actual != null) {
+            int comparacion = comparar(clave, actual);
+            if (comparacion == 0) {
+                desenganchar(actual);
+                if (actual.patron != null && actual.patron.nodoArbol == actual) {
+                    actual.patron.nodoArbol = null;
+                }
+                return true;
+            }
+            actual = comparacion < 0 ? actual.izquierdo : actual.Derecho;
+        }
+        return false;
+    }
+
+    /**
+     * Quita un nodo del árbol sin perder el resto y rebalancea el camino. El
+     * nodo queda suelto (sin hijos) para poder reinsertarlo.
+     * 
+     * Se busca por la clave guardada en el propio nodo. Si tiene dos hijos, su
+     * sucesor (el mínimo del subárbol derecho) ocupa su lugar; se mueven los
+     * nodos en vez de copiar los datos para no romper los enlaces PatronADN-nodo.
      * 
-     * @param nodo El nodo actual en el recorrido del árbol.
-     * @param triplete El triplete a insertar.
-     * @param frecuencia La frecuencia del triplete a insertar.
-     * @return El nodo raíz del subárbol modificado.
+     * @param nodo El nodo a quitar.
+     * @return true si el nodo estaba en el árbol.
      */
-    private NodoArbolBB insertarRec(NodoArbolBB nodo, String triplete, int frecuencia) {
-        // caso base: si el nodo es null, creamos uno nuevo
-        if (nodo == null) {
-            return new NodoArbolBB(triplete, frecuencia);
+    private boolean desenganchar(NodoArbolBB nodo) {
+        int largo = 0;
+        NodoArbolBB actual = raiz;
+        while (actual != null && actual != nodo) {
+            camino[largo++] = actual;
+            actual = comparar(nodo, actual) < 0 ? actual.izquierdo : actual.Derecho;
+        }
+        if (actual == null) {
+            Arrays.fill(camino, 0, largo, null);
+            return false;
         }
-       
-        if (frecuencia < nodo.frecuencia) {
-            nodo.izquierdo = insertarRec(nodo.izquierdo, triplete, frecuencia);
-        } else if (frecuencia > nodo.frecuencia) {
-            nodo.Derecho = insertarRec(nodo.Derecho, triplete, frecuencia);  // mantenemos inconsistencia
+        
+        int posicionNodo = largo;
+        NodoArbolBB reemplazo;
+        if (nodo.izquierdo == null || nodo.Derecho == null) {
+            reemplazo = nodo.izquierdo != null ? nodo.izquierdo : nodo.Derecho;
+        } else {
+            // Bajamos hasta el sucesor guardando el camino
+            camino[largo++] = nodo;
+            NodoArbolBB sucesor = nodo.Derecho;
+            while (sucesor.izquierdo != null) {
+                camino[largo++] = sucesor;
+                sucesor = sucesor.izquierdo;
+            }
+            // El sucesor sale de su lugar y queda su hijo derecho
+            NodoArbolBB padreSucesor = camino[largo - 1];
+            if (padreSucesor == nodo) {
+                nodo.Derecho = sucesor.Derecho;
+            } else {
+                padreSucesor.izquierdo = sucesor.Derecho;
+            }
+            // Y toma el lugar del nodo eliminado dentro del camino
+            sucesor.izquierdo = nodo.izquierdo;
+            sucesor.Derecho = nodo.Derecho;
+            camino[posicionNodo] = sucesor;
+            reemplazo = sucesor;
+        }
+        
+        if (posicionNodo == 0) {
+            raiz = reemplazo;
+        } else if (camino[posicionNodo - 1].izquierdo == nodo) {
+            camino[posicionNodo - 1].izquierdo = reemplazo;
         } else {
-            // Si las frecuencias son iguales, desempata alfabéticamente por el triplete
-            if (triplete.compareTo(nodo.triplete) < 0) {
-                nodo.izquierdo = insertarRec(nodo.izquierdo, triplete, frecuencia);
+            camino[posicionNodo - 1].Derecho = reemplazo;
+        }
+        
+        nodo.izquierdo = null;
+        nodo.Derecho = null;
+        nodo.altura = 1;
+        nodo.tamaño = 1;
+        rebalancearCamino(largo);
+        return true;
+    }
+
+    private void insertarNodo(NodoArbolBB nuevo) {
+        if (raiz == null) {
+            raiz = nuevo;
+            return;
+        }
+        
+        int largo = 0;
+        NodoArbolBB actual = raiz;
+        while (true) {
+            camino[largo++] = actual;
+            if (comparar(nuevo, actual) < 0) {
+                if (actual.izquierdo == null) {
+                    actual.izquierdo = nuevo;
+                    break;
+                }
+                actual = actual.izquierdo;
+            } else {
+                // Si es igual o mayor va a la derecha, como en la versión original
+                if (actual.Derecho == null) {
+                    actual.Derecho = nuevo;
+                    break;
+                }
+                actual = actual.Derecho;
+            }
+        }
+        rebalancearCamino(largo);
+    }
+
+    /**
+     * Compara dos nodos: primero por frecuencia y, si son iguales, desempata
+     * alfabéticamente por el triplete.
+     */
+    private static int comparar(NodoArbolBB a, NodoArbolBB b) {
+        if (a.frecuencia != b.frecuencia) {
+            return a.frecuencia < b.frecuencia ? -1 : 1;
+        }
+        return a.triplete.compareTo(b.triplete);
+    }
+
+    /**
+     * Recorre el camino guardado de abajo hacia arriba, balanceando cada nodo y
+     * enganchando el resultado en su padre (o en la raíz).
+     * 
+     * @param largo Cantidad de nodos guardados en el camino.
+     */
+    private void rebalancearCamino(int largo) {
+        for (int i = largo - 1; i >= 0; i--) {
+            NodoArbolBB nodo = camino[i];
+            NodoArbolBB balanceado = balancear(nodo);
+            if (i == 0) {
+                raiz = balanceado;
+            } else if (camino[i - 1].izquierdo == nodo) {
+                camino[i - 1].izquierdo = balanceado;
             } else {
-                nodo.Derecho = insertarRec(nodo.Derecho, triplete, frecuencia);
+                camino[i - 1].Derecho = balanceado;
+            }
+            camino[i] = null; // no retener referencias
+        }
+    }
+
+    private static int altura(NodoArbolBB nodo) {
+        return nodo == null ? 0 : nodo.altura;
+    }
+
+    private static int tamaño(NodoArbolBB nodo) {
+        return nodo == null ? 0 : nodo.tamaño;
+    }
+
+    private static void actualizar(NodoArbolBB nodo) {
+        nodo.altura = 1 + Math.max(altura(nodo.izquierdo), altura(nodo.Derecho));
+        nodo.tamaño = 1 + tamaño(nodo.izquierdo) + tamaño(nodo.Derecho);
+    }
+
+    /**
+     * Actualiza la altura de un nodo y, si sus subárboles difieren en más de 1,
+     * aplica la rotación simple o doble que corresponda.
+     * 
+     * @param nodo La raíz del subárbol a balancear.
+     * @return La nueva raíz del subárbol.
+     */
+    private static NodoArbolBB balancear(NodoArbolBB nodo) {
+        actualizar(nodo);
+        int balance = altura(nodo.izquierdo) - altura(nodo.Derecho);
+        if (balance > 1) {
+            if (altura(nodo.izquierdo.izquierdo) < altura(nodo.izquierdo.Derecho)) {
+                nodo.izquierdo = rotarIzquierda(nodo.izquierdo); // caso izquierda-derecha
             }
+            return rotarDerecha(nodo);
+        }
+        if (balance < -1) {
+            if (altura(nodo.Derecho.Derecho) < altura(nodo.Derecho.izquierdo)) {
+                nodo.Derecho = rotarDerecha(nodo.Derecho); // caso derecha-izquierda
+            }
+            return rotarIzquierda(nodo);
         }
         return nodo;
     }
 
+    private static NodoArbolBB rotarDerecha(NodoArbolBB nodo) {
+        NodoArbolBB hijo = nodo.izquierdo;
+        nodo.izquierdo = hijo.Derecho;
+        hijo.Derecho = nodo;
+        actualizar(nodo);
+        actualizar(hijo);
+        return hijo;
+    }
+
+    private static NodoArbolBB rotarIzquierda(NodoArbolBB nodo) {
+        NodoArbolBB hijo = nodo.Derecho;
+        nodo.Derecho = hijo.izquierdo;
+        hijo.izquierdo = nodo;
+        actualizar(nodo);
+        actualizar(hijo);
+        return hijo;
+    }
+
+    /**
+     * Devuelve la altura actual del árbol (0 si está vacío).
+     */
+    public int getAltura() {
+        return altura(raiz);
+    }
+
+    /**
+     * Devuelve la cantidad de patrones guardados en el árbol.
+     */
+    public int getTamaño() {
+        return tamaño(raiz);
+    }
+
+    /**
+     * Obtiene los k patrones más frecuentes, de mayor a menor frecuencia.
+     * 
+     * Hace un recorrido in-orden inverso con una pila explícita y se detiene al
+     * llegar a k nodos. Complejidad O(log n + k).
+     * 
+     * @param k Cantidad de patrones a devolver; si hay menos, se devuelven todos.
+     * @return Los nodos en orden descendente de frecuencia.
+     */
+    public NodoArbolBB[] topK(int k) {
+        NodoArbolBB[] resultado = new NodoArbolBB[Math.max(0, Math.min(k, getTamaño()))];
+        Cursor cursor = new Cursor(raiz, false);
+        for (int i = 0; i < resultado.length; i++) {
+            resultado[i] = cursor.next();
+        }
+        return resultado;
+    }
+
+    /**
+     * Recorre los nodos de menor a mayor frecuencia.
+     * 
+     * Cada iteración usa un cursor con una pila de tamaño fijo (la altura del
+     * árbol), así que no se crea nada por nodo visitado. El árbol no debe
+     * modificarse mientras se recorre.
+     * 
+     * @return Un Iterable para usar en un for-each.
+     */
+    public Iterable<NodoArbolBB> ascendente() {
+        return () -> new Cursor(raiz, true);
+    }
+
+    /**
+     * Recorre los nodos de mayor a menor frecuencia. Ver ascendente().
+     * 
+     * @return Un Iterable para usar en un for-each.
+     */
+    public Iterable<NodoArbolBB> descendente() {
+        return () -> new Cursor(raiz, false);
+    }
+
+    /**
+     * Recorrido in-orden iterativo (directo o inverso) con una pila explícita.
+     */
+    private static class Cursor implements Iterator<NodoArbolBB> {
+        private final NodoArbolBB[] pila = new NodoArbolBB[ALTURA_MAXIMA];
+        private final boolean ascendente;
+        private int tope;
+
+        Cursor(NodoArbolBB raiz, boolean ascendente) {
+            this.ascendente = ascendente;
+            apilar(raiz);
+        }
+
+        /**
+         * Apila el nodo y toda su rama hacia el primer elemento del recorrido.
+         */
+        private void apilar(NodoArbolBB nodo) {
+            while (nodo != null) {
+                pila[tope++] = nodo;
+                nodo = ascendente ? nodo.izquierdo : nodo.Derecho;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return tope > 0;
+        }
+
+        @Override
+        public NodoArbolBB next() {
+            if (tope == 0) {
+                throw new NoSuchElementException();
+            }
+            NodoArbolBB nodo = pila[--tope];
+            pila[tope] = null;
+            apilar(ascendente ? nodo.Derecho : nodo.izquierdo);
+            return nodo;
+        }
+    }
+
+    /**
+     * Obtiene el patrón que ocupa un rango dado en el orden de mayor a menor
+     * frecuencia (el rango 1 es el más frecuente). Complejidad O(log n).
+     * 
+     * @param rango La posición buscada, entre 1 y getTamaño().
+     * @return El nodo en ese rango, o null si el rango está fuera del árbol.
+     */
+    public NodoArbolBB getPorRango(int rango) {
+        if (rango < 1 || rango > getTamaño()) {
+            return null;
+        }
+        // Índice (desde 0) en el orden ascendente
+        int indice = getTamaño() - rango;
+        NodoArbolBB actual = raiz;
+        while (actual != null) {
+            int izquierda = tamaño(actual.izquierdo);
+            if (indice < izquierda) {
+                actual = actual.izquierdo;
+            } else if (indice == izquierda) {
+                return actual;
+            } else {
+                indice -= izquierda + 1;
+                actual = actual.Derecho;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Calcula el rango de un patrón en el orden de mayor a menor frecuencia,
+     * con el mismo desempate alfabético que usa el árbol. Complejidad O(log n).
+     * 
+     * @param triplete El triplete del patrón.
+     * @param frecuencia Su frecuencia.
+     * @return El rango (1 es el más frecuente) que tiene o tendría el patrón.
+     */
+    public int getRango(String triplete, int frecuencia) {
+        NodoArbolBB clave = new NodoArbolBB(triplete, frecuencia);
+        int menores = 0;
+        NodoArbolBB actual = raiz;
+        while (actual != null) {
+            if (comparar(actual, clave) < 0) {
+                menores += tamaño(actual.izquierdo) + 1;
+                actual = actual.Derecho;
+            } else {
+                actual = actual.izquierdo;
+            }
+        }
+        return getTamaño() - menores;
+    }
+
+    /**
+     * Cuenta cuántos patrones tienen una frecuencia menor o igual a la dada.
+     * Complejidad O(log n).
+     * 
+     * @param frecuencia La frecuencia de referencia.
+     * @return La cantidad de patrones con frecuencia menor o igual.
+     */
+    public int contarHastaFrecuencia(int frecuencia) {
+        int cantidad = 0;
+        NodoArbolBB actual = raiz;
+        while (actual != null) {
+            if (actual.frecuencia <= frecuencia) {
+                cantidad += tamaño(actual.izquierdo) + 1;
+                actual = actual.Derecho;
+            } else {
+                actual = actual.izquierdo;
+            }
+        }
+        return cantidad;
+    }
+
+    /**
+     * Calcula el percentil de una frecuencia: el porcentaje de patrones cuya
+     * frecuencia es menor o igual a ella. Complejidad O(log n).
+     * 
+     * @param frecuencia La frecuencia de referencia.
+     * @return Un valor entre 0 y 100 (0 si el árbol está vacío).
+     */
+    public double percentil(int frecuencia) {
+        int total = getTamaño();
+        if (total == 0) {
+            return 0;
+        }
+        return 100.0 * contarHastaFrecuencia(frecuencia) / total;
+    }
+
     /**
      * Devuelve un String con el recorrido in-orden del árbol.
      * 
@@ -0,0 +1,121 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package EDD;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Archivo de secuencia de ADN proyectado en memoria (memory-mapped).
+ * 
+ * En lugar de leer el archivo completo a un String, el contenido se mapea con
+ * FileChannel como un MemorySegment y se recorre por bloques de tamaño fijo.
+ * Cada bloque se copia a un buffer reutilizable, se limpia y se entrega a un
+ * ConsumidorBases, por lo que la memoria usada no depende del tamaño del archivo.
+ * 
+ * Debe cerrarse al terminar (try-with-resources) para liberar el mapeo.
+ */
+public class ArchivoADN implements AutoCloseable {
+
+    /**
+     * Tamaño en bytes de cada bloque que se copia del archivo al procesarlo.
+     */
+    public static final int TAMAÑO_BLOQUE = 1 << 20;
+
+    private final Arena arena;
+    private final MemorySegment segmento;
+
+    /**
+     * Abre y mapea en memoria el archivo indicado, en modo solo lectura.
+     * 
+     * @param ruta La ruta del archivo de secuencia.
+     * @throws IOException Si el archivo no se puede abrir o mapear.
+     */
+    public ArchivoADN(Path ruta) throws IOException {
+        this.arena = Arena.ofShared();
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            this.segmento = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size(), arena);
+        } catch (IOException | RuntimeException ex) {
+            arena.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Devuelve el tamaño del archivo en bytes (sin limpiar).
+     */
+    public long getTamaño() {
+        return segmento.byteSize();
+    }
+
+    /**
+     * Copia bytes crudos del archivo a un array.
+     * 
+     * @param desde Desplazamiento en bytes dentro del archivo.
+     * @param destino Array donde se copian los bytes (desde el índice 0).
+     * @param maximo Cantidad máxima de bytes a copiar.
+     * @return La cantidad de bytes copiados realmente (0 al final del archivo).
+     */
+    public int leer(long desde, byte[] destino, int maximo) {
+        int cantidad = (int) Math.min(maximo, getTamaño() - desde);
+        if (cantidad <= 0) {
+            return 0;
+        }
+        MemorySegment.copy(segmento, ValueLayout.JAVA_BYTE, desde, destino, 0, cantidad);
+        return cantidad;
+    }
+
+    /**
+     * Devuelve el inicio del archivo como texto, para mostrarlo en la interfaz.
+     * 
+     * @param maxBytes Cantidad máxima de bytes a incluir.
+     * @return Los primeros bytes del archivo decodificados como texto.
+     */
+    public String vistaPrevia(int maxBytes) {
+        byte[] buffer = new byte[(int) Math.min(maxBytes, getTamaño())];
+        int leidos = leer(0, buffer, buffer.length);
+        return new String(buffer, 0, leidos, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Recorre el archivo completo por bloques, limpia cada bloque y lo entrega
+     * al consumidor.
+     * 
+     * Solo se reserva un buffer de TAMAÑO_BLOQUE bytes, sin importar el tamaño
+     * del archivo.
+     * 
+     * @param consumidor La etapa que recibe las bases limpias, en orden.
+     * @return El número total de bases válidas entregadas.
+     */
+    public long recorrerBases(ConsumidorBases consumidor) {
+        byte[] bloque = new byte[TAMAÑO_BLOQUE];
+        long total = 0;
+        long desde = 0;
+        int leidos;
+        while ((leidos = leer(desde, bloque, bloque.length)) > 0) {
+            desde += leidos;
+            int validos = SecuenciaADN.limpiarBytes(bloque, leidos);
+            if (validos > 0) {
+                consumidor.procesar(bloque, validos);
+                total += validos;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Libera el mapeo del archivo. Los segmentos obtenidos dejan de ser válidos.
+     */
+    @Override
+    public void close() {
+        arena.close();
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package EDD;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Busca marcos abiertos de lectura (ORF) en los seis marcos de una secuencia.
+ *
+ * En cada marco se recorren los codones: el primer ATG después de un codón de
+ * parada abre un ORF y el siguiente STOP lo cierra. Los ATG que aparecen dentro
+ * de un ORF ya abierto no abren otro (se reporta el ORF más largo). Los ORF sin
+ * STOP al final de la secuencia están incompletos y no se reportan. Solo se
+ * guardan los que tienen al menos el mínimo de aminoácidos pedido.
+ *
+ * Los codones de parada son los de la tabla activa de MapaAminoacidos (se
+ * toman al crear el buscador); el de inicio es siempre ATG.
+ *
+ * En el modo paralelo cada marco se divide en trozos de codones que se recorren
+ * en paralelo suponiendo que no hay ningún ORF abierto al empezar el trozo:
+ * - Un ORF que empieza en el trozo y no se cierra antes del final se sigue
+ *   leyendo en los trozos siguientes hasta encontrar su STOP.
+ * - El primer ORF del trozo (el que se cierra con su primer STOP) depende de si
+ *   venía uno abierto desde antes; por eso se guarda aparte como candidato, y
+ *   al unir los trozos en orden se descarta si el trozo anterior terminó con un
+ *   ORF abierto.
+ * El resultado es idéntico al de la búsqueda secuencial.
+ */
+public class BuscadorORF {
+
+    /**
+     * Largo mínimo (en aminoácidos) que se usa si no se indica otro.
+     */
+    public static final int MINIMO_PREDETERMINADO = 100;
+
+    /**
+     * Codones de cada trozo en el modo paralelo, si no se indica otro tamaño.
+     */
+    static final int CODONES_POR_TROZO = 1 << 20;
+
+    private static final int CODIGO_INICIO = SecuenciaADN.codificarTriplete("ATG");
+
+    // Cómo queda el marco al final de un trozo, para saber si el siguiente hereda un ORF abierto
+    private static final int SIN_CAMBIO = 0;
+    private static final int ABIERTO = 1;
+    private static final int CERRADO = 2;
+
+    private final int minimoAminoacidos;
+    private final int codonesPorTrozo;
+    private final boolean[] esStop = new boolean[64];
+
+    /**
+     * Crea un buscador.
+     *
+     * @param minimoAminoacidos Largo mínimo de la proteína (sin contar el STOP)
+     *                          para reportar un ORF.
+     */
+    public BuscadorORF(int minimoAminoacidos) {
+        this(minimoAminoacidos, CODONES_POR_TROZO);
+    }
+
+    /**
+     * Crea un buscador con otro tamaño de trozo para el modo paralelo. Las
+     * pruebas usan trozos de pocos codones para que los ORF crucen varios.
+     *
+     * @param minimoAminoacidos Largo mínimo de la proteína.
+     * @param codonesPorTrozo Codones de cada trozo (al menos 1).
+     * @throws IllegalArgumentException si codonesPorTrozo es menor que 1.
+     */
+    BuscadorORF(int minimoAminoacidos, int codonesPorTrozo) {
+        if (codonesPorTrozo < 1) {
+            throw new IllegalArgumentException("El trozo debe tener al menos un codón: " + codonesPorTrozo);
+        }
+        this.minimoAminoacidos = Math.max(0, minimoAminoacidos);
+        this.codonesPorTrozo = codonesPorTrozo;
+        for (int codigo = 0; codigo < 64; codigo++) {
+            esStop[codigo] = MapaAminoacidos.obtener(codigo).esStop();
+        }
+    }
+
+    /**
+     * Busca los ORF de un archivo. Primero lo carga empaquetado (2 bits por base).
+     *
+     * @param archivo El archivo de secuencia (sin limpiar).
+     * @param minimoAminoacidos Largo mínimo de la proteína.
+     * @param paralela true para usar el pool común de hilos.
+     * @return Los ORF ordenados por marco y por posición de inicio.
+     */
+    public static List<ORF> buscar(ArchivoADN archivo, int minimoAminoacidos, boolean paralela) {
+        SecuenciaEmpaquetada secuencia = SecuenciaADN.limpiarEmpaquetada(archivo);
+        BuscadorORF buscador = new BuscadorORF(minimoAminoacidos);
+        return paralela ? buscador.buscarParalelo(secuencia, ForkJoinPool.commonPool()) : buscador.buscar(secuencia);
+    }
+
+    /**
+     * Busca los ORF de una secuencia en los seis marcos, en un solo hilo.
+     *
+     * @param secuencia La secuencia limpia.
+     * @return Los ORF ordenados por marco y por posición de inicio.
+     */
+    public List<ORF> buscar(SecuenciaEmpaquetada secuencia) {
+        SecuenciaEmpaquetada reversa = secuencia.complementoReverso();
+        List<ORF> orfs = new ArrayList<>();
+        for (int marco = 0; marco < AnalisisSeisMarcos.TOTAL_MARCOS; marco++) {
+            SecuenciaEmpaquetada hebra = marco < 3 ? secuencia : reversa;
+            long codones = contarCodones(hebra, marco);
+            unir(new Trozo[] {recorrer(hebra, marco, 0, codones, codones)}, orfs);
+        }
+        ordenar(orfs);
+        return orfs;
+    }
+
+    /**
+     * Busca los ORF de una secuencia en los seis marcos, repartiendo los trozos
+     * de todos los marcos entre los hilos del pool.
+     *
+     * @param secuencia La secuencia limpia.
+     * @param pool El pool donde se recorren los trozos.
+     * @return Los ORF ordenados por marco y por posición de inicio.
+     */
+    public List<ORF> buscarParalelo(SecuenciaEmpaquetada secuencia, ForkJoinPool pool) {
+        SecuenciaEmpaquetada reversa = secuencia.complementoReverso();
+        List<List<ForkJoinTask<Trozo>>> tareas = new ArrayList<>(AnalisisSeisMarcos.TOTAL_MARCOS);
+        for (int marco = 0; marco < AnalisisSeisMarcos.TOTAL_MARCOS; marco++) {
+            SecuenciaEmpaquetada hebra = marco < 3 ? secuencia : reversa;
+            long codones = contarCodones(hebra, marco);
+            int numeroMarco = marco;
+            List<ForkJoinTask<Trozo>> delMarco = new ArrayList<>();
+            tareas.add(delMarco);
+            for (long primero = 0; primero < codones; primero += codonesPorTrozo) {
+                long desde = primero;
+                long hasta = Math.min(codones, primero + codonesPorTrozo);
+                delMarco.add(pool.submit(() -> recorrer(hebra, numeroMarco, desde, hasta, codones)));
+            }
+        }
+
+        List<ORF> orfs = new ArrayList<>();
+        for (int marco = 0; marco < AnalisisSeisMarcos.TOTAL_MARCOS; marco++) {
+            List<ForkJoinTask<Trozo>> delMarco = tareas.get(marco);
+            Trozo[] trozos = new Trozo[delMarco.size()];
+            for (int i = 0; i < trozos.length; i++) {
+                trozos[i] = delMarco.get(i).join();
+            }
+            unir(trozos, orfs);
+        }
+        ordenar(orfs);
+        return orfs;
+    }
+
+    /**
+     * Resultado de recorrer un trozo de un marco.
+     */
+    private static class Trozo {
+        // ORF que termina en el primer STOP del trozo; solo vale si no venía uno abierto
+        ORF candidato;
+        final List<ORF> orfs = new ArrayList<>();
+        int estadoFinal = SIN_CAMBIO;
+    }
+
+    /**
+     * Recorre los codones [desde, hasta) de un marco suponiendo que no hay un
+     * ORF abierto al empezar. Un ORF abierto al llegar a hasta se sigue hasta
+     * su STOP, aunque esté en otro trozo.
+     *
+     * @param hebra La hebra que se lee (directa o complemento reverso).
+     * @param marco El marco (0..5).
+     * @param desde Primer codón del trozo.
+     * @param hasta Codón siguiente al último del trozo.
+     * @param codones Total de codones del marco.
+     */
+    private Trozo recorrer(SecuenciaEmpaquetada hebra, int marco, long desde, long hasta, long codones) {
+        Trozo trozo = new Trozo();
+        long base = marco % 3;
+        long abierto = -1;
+        boolean vioStop = false;
+
+        for (long c = desde; c < codones; c++) {
+            if (c >= hasta && abierto < 0) {
+                break;
+            }
+            int codigo = hebra.codon(base + c * 3);
+            if (esStop[codigo]) {
+                if (abierto >= 0) {
+                    ORF orf = crearORF(hebra, marco, base + abierto * 3, base + (c + 1) * 3, c - abierto);
+                    if (orf != null) {
+                        if (vioStop) {
+                            trozo.orfs.add(orf);
+                        } else {
+                            trozo.candidato = orf;
+                        }
+                    }
+                    abierto = -1;
+                }
+                if (c >= hasta) {
+                    break;
+                }
+                vioStop = true;
+                trozo.estadoFinal = CERRADO;
+            } else if (codigo == CODIGO_INICIO && abierto < 0 && c < hasta) {
+                abierto = c;
+                trozo.estadoFinal = ABIERTO;
+            }
+        }
+        return trozo;
+    }
+
+    /**
+     * Une los trozos de un marco en orden. El candidato de cada trozo se
+     * descarta si el trozo anterior dejó un ORF abierto, porque en ese caso
+     * su ATG está dentro de ese ORF.
+     */
+    private static void unir(Trozo[] trozos, List<ORF> destino) {
+        boolean abierto = false;
+        for (Trozo trozo : trozos) {
+            if (!abierto && trozo.candidato != null) {
+                destino.add(trozo.candidato);
+            }
+            destino.addAll(trozo.orfs);
+            if (trozo.estadoFinal != SIN_CAMBIO) {
+                abierto = trozo.estadoFinal == ABIERTO;
+            }
+        }
+    }
+
+    /**
+     * Crea el ORF con coordenadas de la hebra directa, o null si es muy corto.
+     */
+    private ORF crearORF(SecuenciaEmpaquetada hebra, int marco, long inicio, long fin, long aminoacidos) {
+        if (aminoacidos < minimoAminoacidos) {
+            return null;
+        }
+        if (marco >= 3) {
+            // La base i de la hebra reversa es la base L - 1 - i de la directa
+            long longitud = hebra.getLongitud();
+            long inicioDirecto = longitud - fin;
+            fin = longitud - inicio;
+            inicio = inicioDirecto;
+        }
+        return new ORF(marco, inicio, fin, (int) Math.min(Integer.MAX_VALUE, aminoacidos));
+    }
+
+    private static long contarCodones(SecuenciaEmpaquetada hebra, int marco) {
+        return Math.max(0, (hebra.getLongitud() - marco % 3) / 3);
+    }
+
+    private static void ordenar(List<ORF> orfs) {
+        orfs.sort(Comparator.comparingInt(ORF::getMarco).thenComparingLong(ORF::getInicio));
+    }
+}
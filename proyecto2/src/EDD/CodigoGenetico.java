@@ -0,0 +1,130 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package EDD;
+
+/**
+ * Tablas de traducción (códigos genéticos) del NCBI.
+ * 
+ * Cada tabla se escribe como los 64 aminoácidos en el orden del NCBI (la
+ * primera, segunda y tercera base recorren T, C, A, G; '*' marca un STOP) y se
+ * compila una sola vez en un array de 64 posiciones indexado por el código del
+ * codón, así que traducir con cualquier tabla es una lectura de array.
+ * 
+ * El codón de inicio que usa la búsqueda de ORF es siempre ATG.
+ */
+public enum CodigoGenetico {
+    ESTANDAR(1, "Estándar",
+            "FFLLSSSSYY**CC*WLLLLPPPPHHQQRRRRIIIMTTTTNNKKSSRRVVVVAAAADDEEGGGG"),
+    MITOCONDRIAL_VERTEBRADOS(2, "Mitocondrial de vertebrados",
+            "FFLLSSSSYY**CCWWLLLLPPPPHHQQRRRRIIMMTTTTNNKKSS**VVVVAAAADDEEGGGG"),
+    MITOCONDRIAL_LEVADURAS(3, "Mitocondrial de levaduras",
+            "FFLLSSSSYY**CCWWTTTTPPPPHHQQRRRRIIMMTTTTNNKKSSRRVVVVAAAADDEEGGGG"),
+    MITOCONDRIAL_MOHOS(4, "Mitocondrial de mohos, protozoos y micoplasmas",
+            "FFLLSSSSYY**CCWWLLLLPPPPHHQQRRRRIIIMTTTTNNKKSSRRVVVVAAAADDEEGGGG"),
+    MITOCONDRIAL_INVERTEBRADOS(5, "Mitocondrial de invertebrados",
+            "FFLLSSSSYY**CCWWLLLLPPPPHHQQRRRRIIMMTTTTNNKKSSSSVVVVAAAADDEEGGGG"),
+    BACTERIANO(11, "Bacteriano, arqueas y plastidios",
+            "FFLLSSSSYY**CC*WLLLLPPPPHHQQRRRRIIIMTTTTNNKKSSRRVVVVAAAADDEEGGGG");
+
+    /**
+     * Orden de las bases en las tablas del NCBI.
+     */
+    private static final String ORDEN_NCBI = "TCAG";
+
+    private final int numero;
+    private final String nombre;
+    private final Aminoacido[] tabla = new Aminoacido[64];
+
+    CodigoGenetico(int numero, String nombre, String aminoacidos) {
+        this.numero = numero;
+        this.nombre = nombre;
+        for (int i = 0; i < 64; i++) {
+            int codigo = (SecuenciaADN.codificarBase(ORDEN_NCBI.charAt(i >> 4)) << 4)
+                    | (SecuenciaADN.codificarBase(ORDEN_NCBI.charAt((i >> 2) & 3)) << 2)
+                    | SecuenciaADN.codificarBase(ORDEN_NCBI.charAt(i & 3));
+            char letra = aminoacidos.charAt(i);
+            tabla[codigo] = letra == '*' ? parada(codigo) : Aminoacido.porLetra(letra);
+        }
+    }
+
+    /**
+     * Los tres STOP del código estándar tienen nombre propio (TAA ocre, TAG
+     * ámbar, TGA ópalo); los demás que definen otras tablas son STOP genéricos.
+     */
+    private static Aminoacido parada(int codigo) {
+        switch (SecuenciaADN.decodificarTriplete(codigo)) {
+            case "TAA": return Aminoacido.STOP_OCRE;
+            case "TAG": return Aminoacido.STOP_AMBAR;
+            case "TGA": return Aminoacido.STOP_OPALO;
+            default: return Aminoacido.STOP;
+        }
+    }
+
+    /**
+     * Obtiene el aminoácido de un codón ya codificado.
+     * 
+     * @param codigo El código del triplete (0..63, ver SecuenciaADN.codificarTriplete).
+     * @return El aminoácido o señal de parada según esta tabla.
+     */
+    public Aminoacido obtener(int codigo) {
+        return tabla[codigo & 63];
+    }
+
+    /**
+     * Obtiene el aminoácido de un triplete de ADN (o de ARN, con U en lugar de T).
+     * 
+     * @param triplete El triplete en mayúsculas.
+     * @return El aminoácido según esta tabla, o DESCONOCIDO si el triplete no es válido.
+     */
+    public Aminoacido obtener(String triplete) {
+        if (triplete == null || triplete.length() != 3) {
+            return Aminoacido.DESCONOCIDO;
+        }
+        int codigo = 0;
+        for (int i = 0; i < 3; i++) {
+            char c = triplete.charAt(i);
+            int base = c == 'U' ? 3 : SecuenciaADN.codificarBase(c);
+            if (base < 0) {
+                return Aminoacido.DESCONOCIDO;
+            }
+            codigo = (codigo << 2) | base;
+        }
+        return tabla[codigo];
+    }
+
+    /**
+     * Devuelve el número de la tabla en el NCBI.
+     */
+    public int getNumero() {
+        return numero;
+    }
+
+    /**
+     * Devuelve el nombre de la tabla.
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Busca una tabla por su número del NCBI.
+     * 
+     * @param numero El número de tabla (1, 2, 3, 4, 5 u 11).
+     * @return La tabla, o null si no está disponible.
+     */
+    public static CodigoGenetico porNumero(int numero) {
+        for (CodigoGenetico codigo : values()) {
+            if (codigo.numero == numero) {
+                return codigo;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return numero + ". " + nombre;
+    }
+}
@@ -0,0 +1,24 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Interface.java to edit this template
+ */
+package EDD;
+
+/**
+ * Etapa de consumo de bases para la carga por flujo de una secuencia de ADN.
+ * 
+ * Quien lee la secuencia (por ejemplo ArchivoADN) entrega las bases ya limpias
+ * por bloques y en orden, de modo que la implementación debe llevar su propio
+ * índice global si necesita las posiciones. El array recibido se reutiliza
+ * entre llamadas, así que no se debe guardar una referencia a él.
+ */
+public interface ConsumidorBases {
+
+    /**
+     * Procesa el siguiente bloque de bases de la secuencia.
+     * 
+     * @param bases Array con las bases en mayúsculas (solo A, T, C, G).
+     * @param longitud Cantidad de bases válidas al inicio del array.
+     */
+    void procesar(byte[] bases, int longitud);
+}
@@ -0,0 +1,103 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package EDD;
+
+/**
+ * Conteo de k-mers solapados con una ventana deslizante (paso 1).
+ * 
+ * A diferencia de ContadorTripletes, que cuenta tripletes no solapados, aquí se
+ * cuenta cada ventana de k bases que empieza en cada posición (0..k-1, 1..k, ...).
+ * La ventana se mantiene como una clave rodante de 2 bits por base: con cada
+ * base nueva se desplaza la clave 2 bits, se agrega la base por la derecha y se
+ * descarta la más vieja con una máscara, así que actualizarla es O(1) sin
+ * importar k, y no se crean Strings por ventana.
+ * 
+ * Las ventanas se insertan en una HashTable (con el mismo registro de
+ * posiciones de PatronADN) o, si se prefiere, en un ContadorKmers.
+ */
+public class ContadorDeslizante implements ConsumidorBases {
+    private final int k;
+    private final long mascara;
+    private final HashTable tabla;
+    private final ContadorKmers contador;
+
+    private long clave;
+    private int enVentana;
+    private long basesProcesadas;
+    private long ventanas;
+
+    /**
+     * Crea un contador que inserta las ventanas en una HashTable.
+     * 
+     * @param tabla La tabla donde se insertan los k-mers.
+     * @param k El tamaño de la ventana, entre 1 y ContadorKmers.K_MAXIMO.
+     * @throws IllegalArgumentException si k está fuera de rango.
+     */
+    public ContadorDeslizante(HashTable tabla, int k) {
+        this(tabla, null, k);
+    }
+
+    /**
+     * Crea un contador que inserta las ventanas en un ContadorKmers; el tamaño
+     * de la ventana es el k del contador.
+     * 
+     * @param contador El contador de k-mers de destino.
+     */
+    public ContadorDeslizante(ContadorKmers contador) {
+        this(null, contador, contador.getK());
+    }
+
+    private ContadorDeslizante(HashTable tabla, ContadorKmers contador, int k) {
+        if (k < 1 || k > ContadorKmers.K_MAXIMO) {
+            throw new IllegalArgumentException("k debe estar entre 1 y " + ContadorKmers.K_MAXIMO + ": " + k);
+        }
+        this.k = k;
+        this.mascara = (1L << (2 * k)) - 1;
+        this.tabla = tabla;
+        this.contador = contador;
+    }
+
+    @Override
+    public void procesar(byte[] bases, int longitud) {
+        for (int i = 0; i < longitud; i++) {
+            clave = ((clave << 2) | SecuenciaADN.codificarBase((char) bases[i])) & mascara;
+            if (enVentana < k) {
+                enVentana++;
+            }
+            if (enVentana == k) {
+                // La posición es el índice donde comienza la ventana.
+                long posicion = basesProcesadas - k + 1;
+                if (tabla != null) {
+                    tabla.insertarKmer(clave, k, posicion);
+                } else {
+                    contador.agregar(clave, posicion);
+                }
+                ventanas++;
+            }
+            basesProcesadas++;
+        }
+    }
+
+    /**
+     * Devuelve el tamaño de la ventana.
+     */
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * Devuelve cuántas bases se han recibido hasta ahora.
+     */
+    public long getBasesProcesadas() {
+        return basesProcesadas;
+    }
+
+    /**
+     * Devuelve cuántas ventanas completas se han contado.
+     */
+    public long getVentanasProcesadas() {
+        return ventanas;
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package EDD;
+
+/**
+ * Motor de conteo de k-mers (patrones de k bases, con k entre 1 y 31).
+ * 
+ * Cada k-mer se empaqueta en un long con 2 bits por base (A=0, C=1, G=2, T=3),
+ * de modo que 31 bases caben en 62 bits. Los conteos se guardan en una tabla de
+ * direccionamiento abierto (sondeo lineal) con arrays primitivos de claves y
+ * frecuencias; no se crea ningún String mientras se cuenta.
+ * 
+ * Las posiciones de cada k-mer se guardan igual que en PatronADN (una
+ * ListaPosiciones comprimida), y el resultado se puede ordenar por
+ * frecuencia con un ArbolBB mediante construirArbol().
+ */
+public class ContadorKmers implements ConsumidorBases {
+
+    /**
+     * Longitud máxima de k-mer que cabe en un long con 2 bits por base.
+     */
+    public static final int K_MAXIMO = 31;
+
+    /**
+     * Marca de casilla vacía. Ninguna clave válida usa el bit más alto.
+     */
+    private static final long VACIA = -1L;
+
+    private static final double FACTOR_CARGA = 0.7;
+
+    private final int k;
+    private long[] claves;
+    private int[] frecuencias;
+    private ListaPosiciones[] posiciones;
+    private int cantidad;
+
+    // Estado del k-mer incompleto cuando se usa como ConsumidorBases
+    private long clavePendiente;
+    private int enPendiente;
+    private long basesProcesadas;
+
+    /**
+     * Constructor del contador.
+     * 
+     * @param k La longitud de los patrones a contar, entre 1 y K_MAXIMO.
+     * @throws IllegalArgumentException si k está fuera de rango.
+     */
+    public ContadorKmers(int k) {
+        if (k < 1 || k > K_MAXIMO) {
+            throw new IllegalArgumentException("k debe estar entre 1 y " + K_MAXIMO + ": " + k);
+        }
+        this.k = k;
+        crearTabla(64);
+    }
+
+    private void crearTabla(int capacidad) {
+        claves = new long[capacidad];
+        java.util.Arrays.fill(claves, VACIA);
+        frecuencias = new int[capacidad];
+        posiciones = new ListaPosiciones[capacidad];
+    }
+
+    /**
+     * Empaqueta un k-mer en un long con 2 bits por base.
+     * 
+     * @param kmer El k-mer en mayúsculas (como máximo K_MAXIMO bases).
+     * @return La clave empaquetada, o -1 si el texto contiene algo que no sea A, C, G, T.
+     */
+    public static long codificar(String kmer) {
+        if (kmer == null || kmer.isEmpty() || kmer.length() > K_MAXIMO) {
+            return VACIA;
+        }
+        long clave = 0;
+        for (int i = 0; i < kmer.length(); i++) {
+            int base = SecuenciaADN.codificarBase(kmer.charAt(i));
+            if (base < 0) {
+                return VACIA;
+            }
+            clave = (clave << 2) | base;
+        }
+        return clave;
+    }
+
+    /**
+     * Reconstruye el texto de un k-mer a partir de su clave.
+     * 
+     * @param clave La clave empaquetada.
+     * @param k La longitud del k-mer.
+     * @return El k-mer en mayúsculas.
+     */
+    public static String decodificar(long clave, int k) {
+        char[] bases = new char[k];
+        for (int i = k - 1; i >= 0; i--) {
+            bases[i] = SecuenciaADN.decodificarBase((int) (clave & 3));
+            clave >>>= 2;
+        }
+        return new String(bases);
+    }
+
+    /**
+     * Mezcla los bits de la clave para repartir bien los k-mers en la tabla.
+     */
+    private static int dispersar(long clave) {
+        clave ^= clave >>> 33;
+        clave *= 0xff51afd7ed558ccdL;
+        clave ^= clave >>> 33;
+        return (int) clave;
+    }
+
+    /**
+     * Busca la casilla de una clave, o la casilla vacía donde debería ir.
+     */
+    private int buscarCasilla(long clave) {
+        int mascara = claves.length - 1;
+        int i = dispersar(clave) & mascara;
+        while (claves[i] != VACIA && claves[i] != clave) {
+            i = (i + 1) & mascara;
+        }
+        return i;
+    }
+
+    /**
+     * Registra una aparición de un k-mer ya empaquetado.
+     * 
+     * @param clave La clave del k-mer (ver codificar).
+     * @param posicion La posición donde comienza el k-mer en la secuencia.
+     */
+    public void agregar(long clave, long posicion) {
+        int i = buscarCasilla(clave);
+        if (claves[i] == VACIA) {
+            if (cantidad + 1 > claves.length * FACTOR_CARGA) {
+                redimensionar();
+                i = buscarCasilla(clave);
+            }
+            claves[i] = clave;
+            posiciones[i] = new ListaPosiciones();
+            cantidad++;
+        }
+        
+        posiciones[i].agregar(posicion);
+        frecuencias[i]++;
+    }
+
+    /**
+     * Registra una aparición de un k-mer dado como texto.
+     * 
+     * @param kmer El k-mer; se ignora si no tiene longitud k o no es válido.
+     * @param posicion La posición donde comienza el k-mer en la secuencia.
+     */
+    public void insertar(String kmer, long posicion) {
+        if (SecuenciaADN.validarKmer(kmer, k)) {
+            agregar(codificar(kmer.toUpperCase()), posicion);
+        }
+    }
+
+    /**
+     * Duplica el tamaño de la tabla y reubica todas las claves.
+     */
+    private void redimensionar() {
+        long[] viejasClaves = claves;
+        int[] viejasFrecuencias = frecuencias;
+        ListaPosiciones[] viejasPosiciones = posiciones;
+        crearTabla(viejasClaves.length * 2);
+        for (int j = 0; j < viejasClaves.length; j++) {
+            if (viejasClaves[j] != VACIA) {
+                int i = buscarCasilla(viejasClaves[j]);
+                claves[i] = viejasClaves[j];
+                frecuencias[i] = viejasFrecuencias[j];
+                posiciones[i] = viejasPosiciones[j];
+            }
+        }
+    }
+
+    /**
+     * Agrupa las bases recibidas en k-mers no solapados (0..k-1, k..2k-1, ...)
+     * y los cuenta.
+     */
+    @Override
+    public void procesar(byte[] bases, int longitud) {
+        for (int i = 0; i < longitud; i++) {
+            clavePendiente = (clavePendiente << 2) | SecuenciaADN.codificarBase((char) bases[i]);
+            if (++enPendiente == k) {
+                agregar(clavePendiente, basesProcesadas - k + 1);
+                clavePendiente = 0;
+                enPendiente = 0;
+            }
+            basesProcesadas++;
+        }
+    }
+
+    /**
+     * Devuelve la longitud k de los patrones que cuenta este motor.
+     */
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * Devuelve la cantidad de k-mers distintos encontrados.
+     */
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    /**
+     * Obtiene la frecuencia de un k-mer.
+     * 
+     * @param kmer El k-mer a consultar.
+     * @return La cantidad de apariciones, o 0 si no aparece.
+     */
+    public int getFrecuencia(String kmer) {
+        if (!SecuenciaADN.validarKmer(kmer, k)) {
+            return 0;
+        }
+        int i = buscarCasilla(codificar(kmer.toUpperCase()));
+        return claves[i] == VACIA ? 0 : frecuencias[i];
+    }
+
+    /**
+     * Busca un k-mer y devuelve su información como PatronADN.
+     * 
+     * El PatronADN comparte la lista de posiciones con el contador, así que es
+     * una vista del estado actual y no debe modificarse.
+     * 
+     * @param kmer El k-mer a buscar.
+     * @return El PatronADN con frecuencia y posiciones, o null si no aparece.
+     */
+    public PatronADN buscarKmer(String kmer) {
+        if (!SecuenciaADN.validarKmer(kmer, k)) {
+            return null;
+        }
+        int i = buscarCasilla(codificar(kmer.toUpperCase()));
+        if (claves[i] == VACIA) {
+            return null;
+        }
+        return new PatronADN(decodificar(claves[i], k), posiciones[i], frecuencias[i]);
+    }
+
+    /**
+     * Devuelve todos los k-mers encontrados, ordenados alfabéticamente.
+     * 
+     * Como todas las claves tienen la misma longitud, ordenar los números ya
+     * da el orden alfabético.
+     * 
+     * @return Un array con los k-mers distintos, ordenado.
+     */
+    public String[] obtenerTodosLosKmers() {
+        long[] presentes = new long[cantidad];
+        int n = 0;
+        for (long clave : claves) {
+            if (clave != VACIA) {
+                presentes[n++] = clave;
+            }
+        }
+        java.util.Arrays.sort(presentes);
+        
+        String[] kmers = new String[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            kmers[i] = decodificar(presentes[i], k);
+        }
+        return kmers;
+    }
+
+    /**
+     * Construye un ArbolBB con todos los k-mers ordenados por frecuencia,
+     * para obtener los más y menos frecuentes. Cada nodo lleva una vista del
+     * k-mer con sus posiciones, igual que buscarKmer.
+     * 
+     * @return El árbol de frecuencias.
+     */
+    public ArbolBB construirArbol() {
+        ArbolBB arbol = new ArbolBB(null);
+        for (int i = 0; i < claves.length; i++) {
+            if (claves[i] != VACIA) {
+                arbol.insertar(new PatronADN(decodificar(claves[i], k), posiciones[i], frecuencias[i]));
+            }
+        }
+        return arbol;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package EDD;
+
+/**
+ * Etapa de conteo que agrupa las bases recibidas en tripletes no solapados
+ * (0-2, 3-5, 6-8, ...) y los inserta en una HashTable.
+ * 
+ * Guarda el triplete incompleto entre un bloque y el siguiente, así que la
+ * secuencia puede llegar partida en bloques de cualquier tamaño. El triplete se
+ * arma directamente como código de 2 bits por base, de modo que el ciclo no crea
+ * ningún objeto por codón.
+ */
+public class ContadorTripletes implements ConsumidorBases {
+    private final HashTable tabla;
+    private int codigoPendiente;
+    private int enPendiente;
+    private long basesProcesadas;
+
+    /**
+     * Constructor del contador.
+     * 
+     * @param tabla La tabla hash donde se insertan los tripletes.
+     */
+    public ContadorTripletes(HashTable tabla) {
+        this.tabla = tabla;
+    }
+
+    @Override
+    public void procesar(byte[] bases, int longitud) {
+        for (int i = 0; i < longitud; i++) {
+            codigoPendiente = (codigoPendiente << 2) | SecuenciaADN.codificarBase((char) bases[i]);
+            if (++enPendiente == 3) {
+                // La posición es el índice donde comienza el triplete.
+                tabla.insertarCodigo(codigoPendiente, basesProcesadas - 2);
+                codigoPendiente = 0;
+                enPendiente = 0;
+            }
+            basesProcesadas++;
+        }
+    }
+
+    /**
+     * Devuelve cuántas bases se han recibido hasta ahora.
+     */
+    public long getBasesProcesadas() {
+        return basesProcesadas;
+    }
+
+    /**
+     * Devuelve cuántos tripletes completos se han insertado en la tabla.
+     */
+    public long getTripletesProcesados() {
+        return basesProcesadas / 3;
+    }
+}
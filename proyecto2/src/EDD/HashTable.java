@@ -12,38 +12,184 @@ package EDD;
  * Las colisiones se manejan mediante encadenamiento, es decir, cada posición
  * de la tabla puede contener una lista enlazada de nodos (PatronADN).
  * 
+ * La tabla empieza pequeña y se redimensiona (rehash) cuando la cantidad de
+ * patrones distintos supera el factor de carga, así que su tamaño depende de
+ * cuántos patrones distintos hay y no de la longitud de la secuencia.
+ * 
  * @author Jabri
  */
 public class HashTable {
+    /**
+     * Tamaño inicial de la tabla cuando no se indica uno.
+     */
+    public static final int CAPACIDAD_INICIAL = 17;
+
+    /**
+     * Proporción máxima entre patrones distintos y casillas antes de crecer.
+     */
+    private static final double FACTOR_CARGA = 0.75;
+
     private int size;
     private PatronADN[] tabla;
+    // Cantidad de patrones distintos almacenados
+    private int cantidad;
+    // Patrones nuevos o con frecuencia cambiada que el árbol aún no conoce
+    private PatronADN primerPendiente;
+    // Resumen por aminoácido; se descarta en cuanto cambia la tabla
+    private ResumenAminoacidos resumenAminoacidos;
+    // true si solo se cuentan las apariciones, sin guardar posiciones
+    private boolean soloConteo;
+    // Memoria fuera del heap de las posiciones; se libera junto con la tabla
+    private AlmacenPosiciones almacen;
+
+    /**
+     * Constructor de la HashTable con el tamaño inicial por defecto.
+     */
+    public HashTable() {
+        this(CAPACIDAD_INICIAL);
+    }
 
     /**
      * Constructor de la HashTable.
      * 
-     * @param size El tamaño inicial del array que servirá como tabla. Un tamaño
-     *             adecuado ayuda a minimizar colisiones.
+     * @param size El tamaño inicial del array que servirá como tabla. La tabla
+     *             crece sola, así que basta con una estimación de la cantidad
+     *             de patrones distintos (no de la longitud de la secuencia).
      */
     public HashTable(int size) {
-        this.size = size;
-        this.tabla = new PatronADN[size];
+        this.size = Math.max(1, size);
+        this.tabla = new PatronADN[this.size];
+        this.cantidad = 0;
     }
  
+    /**
+     * Activa o desactiva el modo de solo conteo.
+     * 
+     * En ese modo los patrones nuevos guardan solo su frecuencia y no la lista
+     * de posiciones, que es lo que más memoria ocupa. Las posiciones de un
+     * patrón se pueden recuperar después volviendo a leer el archivo (ver
+     * LocalizadorTripletes). Debe elegirse antes de insertar.
+     * 
+     * @param soloConteo true para no guardar posiciones.
+     */
+    public void setSoloConteo(boolean soloConteo) {
+        this.soloConteo = soloConteo;
+    }
+
+    /**
+     * Indica si la tabla está en modo de solo conteo.
+     */
+    public boolean esSoloConteo() {
+        return soloConteo;
+    }
+
+    /**
+     * Asigna el almacén fuera del heap donde guardan sus bloques las listas de
+     * posiciones de esta tabla. Los patrones que se creen desde ahora lo usan,
+     * y liberar() lo libera. Debe asignarse antes de insertar.
+     * 
+     * @param almacen El almacén, o null para guardar las posiciones en el heap.
+     */
+    public void setAlmacen(AlmacenPosiciones almacen) {
+        this.almacen = almacen;
+    }
+
+    /**
+     * Devuelve el almacén fuera del heap de la tabla, o null si no tiene.
+     */
+    public AlmacenPosiciones getAlmacen() {
+        return almacen;
+    }
+
+    /**
+     * Libera la memoria fuera del heap de las posiciones de una sola vez.
+     * 
+     * Se llama al descartar el conjunto de datos (por ejemplo, al volver a la
+     * ventana de carga). Después las posiciones de los patrones ya no se
+     * pueden leer; las frecuencias siguen disponibles hasta que la tabla se
+     * deje de usar. Si la tabla no tiene almacén no hace nada.
+     */
+    public void liberar() {
+        if (almacen != null) {
+            almacen.liberar();
+        }
+    }
+
+    /**
+     * Crea el patrón para la primera aparición de un triplete, con o sin
+     * lista de posiciones según el modo de la tabla.
+     */
+    private PatronADN crearPatron(String triplete, long posicion) {
+        if (soloConteo) {
+            return new PatronADN(triplete, null, 1);
+        }
+        ListaPosiciones posiciones = new ListaPosiciones(almacen);
+        posiciones.agregar(posicion);
+        return new PatronADN(triplete, posiciones, 1);
+    }
+
     /**
      * Calcula el valor hash para un triplete de ADN.
      * 
      * Utiliza un algoritmo común de hashing para strings que produce una buena
      * distribución de valores. Se asegura de que el resultado sea siempre positivo.
      * 
+     * El polinomio (hash * 31 + caracter) es el mismo que usa String.hashCode(),
+     * que además queda guardado en el String; así, los tripletes compartidos de
+     * SecuenciaADN.decodificarTriplete solo se recorren la primera vez.
+     * 
+     * Los k-mers de otra longitud se dispersan por su clave empaquetada (ver
+     * insertarKmer), para que buscarlos por texto lleve a la misma casilla.
+     * 
      * @param triplete El string (patrón de 3 letras) para el cual se calculará el hash.
      * @return Un valor entero no negativo que representa el hash del triplete.
      */
     public int calcularHash(String triplete) {
-        int hash = 0;
-        for (int i = 0; i < triplete.length(); i++) {
-            hash = (hash * 31) + triplete.charAt(i);
+        if (triplete.length() != 3) {
+            long clave = ContadorKmers.codificar(triplete);
+            if (clave >= 0) {
+                return calcularHash(clave, triplete.length());
+            }
         }
-        return hash < 0 ? -hash : hash; // Asegurar que el hash es positivo
+        return positivo(triplete.hashCode());
+    }
+
+    /**
+     * Calcula el hash de un k-mer empaquetado mezclando los bits de la clave,
+     * sin decodificar sus bases.
+     * 
+     * @param clave La clave del k-mer (2 bits por base).
+     * @param k La longitud del k-mer; se mezcla con la clave porque, por
+     *          ejemplo, "AC" y "AAC" se empaquetan igual.
+     * @return Un valor entero no negativo.
+     */
+    private static int calcularHash(long clave, int k) {
+        clave += k * 0x9e3779b97f4a7c15L;
+        clave ^= clave >>> 33;
+        clave *= 0xff51afd7ed558ccdL;
+        clave ^= clave >>> 33;
+        return (int) (clave >>> 33);
+    }
+
+    /**
+     * Calcula el hash de un patrón ya guardado, usando su clave si la tiene.
+     */
+    private int calcularHash(PatronADN patron) {
+        if (patron.clave >= 0) {
+            return calcularHash(patron.clave, patron.getTriplete().length());
+        }
+        return calcularHash(patron.getTriplete());
+    }
+
+    /**
+     * Asegura que el hash es positivo. Integer.MIN_VALUE no tiene opuesto
+     * positivo, así que se lleva a 0.
+     */
+    private static int positivo(int hash) {
+        if (hash == Integer.MIN_VALUE) {
+            return 0;
+        }
+        return hash < 0 ? -hash : hash;
     }
 
     /**
@@ -58,12 +204,13 @@ public class HashTable {
      * @param triplete El patrón de ADN a insertar.
      * @param posicion La ubicación (índice) donde se encontró este patrón en la secuencia principal.
      */
-    public void insertar(String triplete, int posicion) {
+    public void insertar(String triplete, long posicion) {
         int indice = calcularHash(triplete) % size;
        
         if (tabla[indice] == null) {
             // Si no hay nada en este índice, creamos el primer nodo
-            tabla[indice] = new PatronADN(triplete, posicion);
+            tabla[indice] = crearPatron(triplete, posicion);
+            registrarNuevo(tabla[indice]);
         } else {
             // Si ya hay algo, hay una posible colisión. Recorremos la lista enlazada
             PatronADN actual = tabla[indice];
@@ -71,11 +218,13 @@ public class HashTable {
                 if (actual.getTriplete().equals(triplete)) {
                     // El triplete ya existe, solo añadimos la nueva posición y aumentamos la frecuencia
                     actual.agregarPosicion(posicion);
+                    marcarPendiente(actual);
                     return; // Terminamos la ejecución del método
                 }
                 if (actual.siguiente == null) {
                     // Llegamos al final de la lista, así que aquí insertamos el nuevo nodo
-                    actual.siguiente = new PatronADN(triplete, posicion);
+                    actual.siguiente = crearPatron(triplete, posicion);
+                    registrarNuevo(actual.siguiente);
                     return; // Terminamos
                 }
                 actual = actual.siguiente;
@@ -83,6 +232,195 @@ public class HashTable {
         }
     }
 
+    /**
+     * Inserta un triplete dado por su código de 2 bits por base (0..63).
+     * 
+     * No crea ningún objeto por llamada: el texto del triplete sale de la tabla
+     * de 64 Strings de SecuenciaADN, que se comparten y ya tienen su hash
+     * calculado. Solo se crea un PatronADN la primera vez que aparece el triplete.
+     * 
+     * @param codigo El código del triplete (ver SecuenciaADN.codificarTriplete).
+     * @param posicion La ubicación donde comienza el triplete en la secuencia principal.
+     */
+    public void insertarCodigo(int codigo, long posicion) {
+        insertar(SecuenciaADN.decodificarTriplete(codigo), posicion);
+    }
+
+    /**
+     * Inserta un k-mer dado como clave empaquetada (2 bits por base, como en
+     * ContadorKmers), para patrones de cualquier longitud.
+     * 
+     * El hash se calcula mezclando los bits de la clave y cada nodo de la
+     * lista se compara por su clave guardada, así que el costo no depende de
+     * k; solo se crea el String del patrón la primera vez que aparece.
+     * 
+     * @param clave La clave del k-mer.
+     * @param k La longitud del k-mer (1..31).
+     * @param posicion La ubicación donde comienza el k-mer en la secuencia principal.
+     */
+    public void insertarKmer(long clave, int k, long posicion) {
+        if (k == 3) {
+            insertarCodigo((int) clave, posicion);
+            return;
+        }
+        
+        int indice = calcularHash(clave, k) % size;
+        
+        PatronADN actual = tabla[indice];
+        PatronADN ultimo = null;
+        while (actual != null) {
+            if (actual.clave == clave && actual.getTriplete().length() == k) {
+                actual.agregarPosicion(posicion);
+                marcarPendiente(actual);
+                return;
+            }
+            ultimo = actual;
+            actual = actual.siguiente;
+        }
+        
+        PatronADN nuevo = crearPatron(ContadorKmers.decodificar(clave, k), posicion);
+        nuevo.clave = clave;
+        if (ultimo == null) {
+            tabla[indice] = nuevo;
+        } else {
+            ultimo.siguiente = nuevo;
+        }
+        registrarNuevo(nuevo);
+    }
+
+    /**
+     * Inserta el triplete que está en un array de bases limpias, sin crear un
+     * String con substring.
+     * 
+     * @param bases Array con bases en mayúsculas (A, C, G, T), por ejemplo un
+     *              bloque entregado a un ConsumidorBases.
+     * @param desde Índice de la primera base del triplete dentro del array.
+     * @param posicion La ubicación donde comienza el triplete en la secuencia principal.
+     */
+    public void insertar(byte[] bases, int desde, long posicion) {
+        int codigo = 0;
+        for (int i = desde; i < desde + 3; i++) {
+            int base = SecuenciaADN.codificarBase((char) bases[i]);
+            if (base < 0) {
+                // No es una base limpia: se inserta tal cual como texto
+                insertar(new String(bases, desde, 3, java.nio.charset.StandardCharsets.ISO_8859_1), posicion);
+                return;
+            }
+            codigo = (codigo << 2) | base;
+        }
+        insertarCodigo(codigo, posicion);
+    }
+
+    /**
+     * Inserta un patrón ya contado (con su frecuencia y posiciones).
+     * 
+     * Si el triplete ya existía, sus posiciones se agregan al final del nodo
+     * existente. Lo usa la ingesta paralela para volcar los conteos parciales.
+     * En modo de solo conteo se descartan sus posiciones.
+     * 
+     * @param patron El patrón a insertar; no debe estar enlazado a otra tabla.
+     */
+    void insertarPatron(PatronADN patron) {
+        if (soloConteo && patron.tienePosiciones()) {
+            patron = new PatronADN(patron.getTriplete(), null, patron.getFrecuencia());
+        }
+        PatronADN existente = buscarTriplete(patron.getTriplete());
+        if (existente != null) {
+            existente.agregarPosiciones(patron);
+            marcarPendiente(existente);
+            return;
+        }
+        
+        int indice = calcularHash(patron.getTriplete()) % size;
+        patron.siguiente = null;
+        if (tabla[indice] == null) {
+            tabla[indice] = patron;
+        } else {
+            PatronADN ultimo = tabla[indice];
+            while (ultimo.siguiente != null) {
+                ultimo = ultimo.siguiente;
+            }
+            ultimo.siguiente = patron;
+        }
+        registrarNuevo(patron);
+    }
+
+    /**
+     * Anota un patrón cuya frecuencia cambió desde la última vez que se
+     * entregaron los pendientes. Cada patrón entra una sola vez a la lista.
+     * Como la tabla cambió, también se descarta el resumen por aminoácido.
+     */
+    private void marcarPendiente(PatronADN patron) {
+        resumenAminoacidos = null;
+        if (!patron.pendiente) {
+            patron.pendiente = true;
+            patron.siguientePendiente = primerPendiente;
+            primerPendiente = patron;
+        }
+    }
+
+    /**
+     * Entrega la lista de patrones nuevos o con frecuencia cambiada desde la
+     * llamada anterior (enlazada por siguientePendiente) y la deja vacía. Quien
+     * la recibe debe limpiar la marca pendiente de cada patrón.
+     * 
+     * @return El primer patrón pendiente, o null si no hubo cambios.
+     */
+    PatronADN extraerPendientes() {
+        PatronADN primero = primerPendiente;
+        primerPendiente = null;
+        return primero;
+    }
+
+    /**
+     * Lleva la cuenta de patrones distintos y agranda la tabla si se superó el
+     * factor de carga.
+     */
+    private void registrarNuevo(PatronADN nuevo) {
+        if (nuevo.clave < 0 && nuevo.getTriplete().length() != 3) {
+            // Los k-mers insertados como texto también se comparan por clave en insertarKmer
+            nuevo.clave = ContadorKmers.codificar(nuevo.getTriplete());
+        }
+        marcarPendiente(nuevo);
+        cantidad++;
+        if (cantidad > size * FACTOR_CARGA) {
+            redimensionar(size * 2 + 1);
+        }
+    }
+
+    /**
+     * Cambia el tamaño de la tabla y reubica todos los nodos existentes.
+     * 
+     * Los nodos no se copian: solo se reenlazan en su nueva casilla, conservando
+     * el orden relativo dentro de cada lista.
+     * 
+     * @param nuevoTamaño El nuevo número de casillas.
+     */
+    private void redimensionar(int nuevoTamaño) {
+        PatronADN[] nuevaTabla = new PatronADN[nuevoTamaño];
+        for (int i = 0; i < size; i++) {
+            PatronADN actual = tabla[i];
+            while (actual != null) {
+                PatronADN siguiente = actual.siguiente;
+                actual.siguiente = null;
+                
+                int indice = calcularHash(actual) % nuevoTamaño;
+                if (nuevaTabla[indice] == null) {
+                    nuevaTabla[indice] = actual;
+                } else {
+                    PatronADN ultimo = nuevaTabla[indice];
+                    while (ultimo.siguiente != null) {
+                        ultimo = ultimo.siguiente;
+                    }
+                    ultimo.siguiente = actual;
+                }
+                actual = siguiente;
+            }
+        }
+        tabla = nuevaTabla;
+        size = nuevoTamaño;
+    }
+
     /**
      * Genera un reporte completo con frecuencias y colisiones.
      * 
@@ -104,17 +442,24 @@ public class HashTable {
 
     /**
      * Cuenta el número total de tripletes únicos almacenados en la tabla.
+     * Se mantiene al insertar, así que no hace falta recorrer la tabla.
      */
     private int contarTripletes() {
-        int total = 0;
-        for (int i = 0; i < size; i++) {
-            PatronADN actual = tabla[i];
-            while (actual != null) {
-                total++;
-                actual = actual.siguiente;
-            }
-        }
-        return total;
+        return cantidad;
+    }
+
+    /**
+     * Devuelve la cantidad de patrones distintos almacenados en la tabla.
+     */
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    /**
+     * Devuelve el número actual de casillas de la tabla.
+     */
+    public int getCapacidad() {
+        return size;
     }
 
     /**
@@ -214,6 +559,64 @@ public class HashTable {
         return null;
     }
     
+    /**
+     * Busca las posiciones donde un triplete aparece seguido de otro a una
+     * distancia de 1 a distanciaMaxima bases.
+     * 
+     * La consulta se hace con los mapas de bits de ambos patrones (ver
+     * MapaBitsPosiciones.seguidasPor) en lugar de comparar cada posición del
+     * primero con todas las del segundo.
+     * 
+     * @param primero El triplete que aparece antes.
+     * @param segundo El triplete que debe aparecer después.
+     * @param distanciaMaxima La distancia máxima entre el inicio de ambos.
+     * @return Las posiciones del primero que cumplen la condición (vacío si
+     *         alguno de los dos no aparece).
+     * @throws IllegalStateException Si la tabla es de solo conteo y los
+     *         patrones no tienen sus posiciones.
+     */
+    public MapaBitsPosiciones buscarSeguidos(String primero, String segundo, int distanciaMaxima) {
+        PatronADN antes = buscarTriplete(primero);
+        PatronADN despues = buscarTriplete(segundo);
+        if (antes == null || despues == null) {
+            return new MapaBitsPosiciones();
+        }
+        return antes.getMapaPosiciones().seguidasPor(despues.getMapaPosiciones(), distanciaMaxima);
+    }
+    
+    /**
+     * Devuelve el resumen de los tripletes agrupados por aminoácido según el
+     * código genético activo.
+     * 
+     * Se calcula la primera vez que se pide y se guarda; solo se vuelve a
+     * calcular si se insertó algo en la tabla o si cambió el código genético.
+     * 
+     * @return El resumen por aminoácido.
+     */
+    public ResumenAminoacidos getResumenAminoacidos() {
+        CodigoGenetico codigo = MapaAminoacidos.getCodigoGenetico();
+        ResumenAminoacidos resumen = resumenAminoacidos;
+        if (resumen == null || resumen.getCodigoGenetico() != codigo) {
+            resumen = new ResumenAminoacidos(obtenerPatrones(), codigo);
+            resumenAminoacidos = resumen;
+        }
+        return resumen;
+    }
+
+    /**
+     * Devuelve todos los patrones de la tabla, sin ningún orden en particular.
+     */
+    PatronADN[] obtenerPatrones() {
+        PatronADN[] patrones = new PatronADN[cantidad];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            for (PatronADN actual = tabla[i]; actual != null; actual = actual.siguiente) {
+                patrones[n++] = actual;
+            }
+        }
+        return patrones;
+    }
+
     /**
      * Devuelve un array con todos los tripletes únicos almacenados en la tabla.
      * 
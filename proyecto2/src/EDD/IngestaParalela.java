@@ -0,0 +1,334 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package EDD;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Ingesta paralela de tripletes usando un ForkJoinPool.
+ *
+ * La secuencia se divide en trozos alineados a múltiplos de 3 (para no partir
+ * ningún codón), cada trozo se cuenta en su propia TablaCodones sin compartir
+ * nada con los demás hilos, y al final las tablas parciales se fusionan en
+ * orden y se vuelcan en una HashTable. El resultado es idéntico al de la
+ * ingesta secuencial (mismos tripletes, frecuencias y posiciones en orden).
+ *
+ * Con un ArchivoADN la longitud limpia de cada trozo no se conoce de antemano,
+ * así que se hacen dos pasadas: la primera cuenta en paralelo las bases válidas
+ * de cada rango de bytes, y con esas sumas cada rango sabe en qué posición
+ * limpia empieza y cuántas bases debe saltar para quedar alineado a un codón.
+ */
+public class IngestaParalela {
+
+    /**
+     * Tamaño mínimo de cada trozo (en bases o bytes). Trozos más pequeños no
+     * compensan el costo de crear y fusionar las tablas parciales.
+     */
+    public static final int TAMAÑO_MINIMO_TROZO = 1 << 20;
+
+    private final ForkJoinPool pool;
+    private long basesProcesadas;
+    private boolean soloConteo;
+    private AlmacenPosiciones almacen;
+
+    /**
+     * Constructor que usa el pool común de Java.
+     */
+    public IngestaParalela() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor con un pool propio.
+     *
+     * @param pool El ForkJoinPool donde se ejecutan las tareas de conteo.
+     */
+    public IngestaParalela(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Activa el modo de solo conteo: las tablas parciales y la HashTable
+     * resultante guardan las frecuencias pero no las posiciones (ver
+     * HashTable.setSoloConteo).
+     *
+     * @param soloConteo true para no guardar posiciones.
+     */
+    public void setSoloConteo(boolean soloConteo) {
+        this.soloConteo = soloConteo;
+    }
+
+    /**
+     * Asigna el almacén fuera del heap donde se guardan las posiciones. La
+     * HashTable resultante queda con ese almacén (ver HashTable.liberar).
+     *
+     * @param almacen El almacén, o null para guardar las posiciones en el heap.
+     */
+    public void setAlmacen(AlmacenPosiciones almacen) {
+        this.almacen = almacen;
+    }
+
+    /**
+     * Crea una tabla parcial con el modo de esta ingesta.
+     */
+    private TablaCodones nuevaTabla() {
+        return new TablaCodones(soloConteo, almacen);
+    }
+
+    /**
+     * Devuelve cuántas bases válidas se procesaron en la última ingesta.
+     */
+    public long getBasesProcesadas() {
+        return basesProcesadas;
+    }
+
+    /**
+     * Devuelve cuántos tripletes completos se contaron en la última ingesta.
+     */
+    public long getTripletesProcesados() {
+        return basesProcesadas / 3;
+    }
+
+    /**
+     * Calcula el tamaño de trozo para repartir el trabajo entre los hilos.
+     * Se busca tener unos cuantos trozos por hilo para equilibrar la carga.
+     */
+    private long tamañoTrozo(long total) {
+        long porHilo = total / (pool.getParallelism() * 4L);
+        return Math.max(TAMAÑO_MINIMO_TROZO, porHilo);
+    }
+
+    /**
+     * Cuenta los tripletes no solapados de una secuencia ya limpia.
+     *
+     * @param secuenciaLimpia La secuencia con solo A, T, C, G en mayúsculas.
+     * @return La tabla hash con todos los tripletes, frecuencias y posiciones.
+     */
+    public HashTable contar(String secuenciaLimpia) {
+        basesProcesadas = secuenciaLimpia.length();
+        int trozo = (int) Math.min(Integer.MAX_VALUE - 2, tamañoTrozo(basesProcesadas));
+        trozo -= trozo % 3; // los trozos empiezan siempre en el inicio de un codón
+
+        int limite = secuenciaLimpia.length() - secuenciaLimpia.length() % 3;
+        TablaCodones conteo = pool.invoke(new TareaTexto(this, secuenciaLimpia, 0, limite, trozo));
+
+        HashTable tabla = new HashTable();
+        tabla.setSoloConteo(soloConteo);
+        tabla.setAlmacen(almacen);
+        conteo.volcarEn(tabla);
+        return tabla;
+    }
+
+    /**
+     * Cuenta los tripletes no solapados de un archivo mapeado en memoria.
+     *
+     * @param archivo El archivo de secuencia (sin limpiar).
+     * @return La tabla hash con todos los tripletes, frecuencias y posiciones.
+     */
+    public HashTable contar(ArchivoADN archivo) {
+        long tamaño = archivo.getTamaño();
+        long trozo = tamañoTrozo(tamaño);
+        int cantidadRangos = (int) Math.max(1, (tamaño + trozo - 1) / trozo);
+
+        long[] inicios = new long[cantidadRangos + 1];
+        for (int r = 0; r < cantidadRangos; r++) {
+            inicios[r] = r * trozo;
+        }
+        inicios[cantidadRangos] = tamaño;
+
+        // Primera pasada: bases válidas por rango, y con ellas la posición limpia de inicio
+        long[] validos = pool.invoke(new TareaValidos(archivo, inicios, 0, cantidadRangos));
+        long[] primeraBase = new long[cantidadRangos + 1];
+        for (int r = 0; r < cantidadRangos; r++) {
+            primeraBase[r + 1] = primeraBase[r] + validos[r];
+        }
+        basesProcesadas = primeraBase[cantidadRangos];
+
+        // Segunda pasada: conteo de codones de cada rango
+        TablaCodones conteo = pool.invoke(new TareaArchivo(this, archivo, inicios, primeraBase, 0, cantidadRangos));
+
+        HashTable tabla = new HashTable();
+        tabla.setSoloConteo(soloConteo);
+        tabla.setAlmacen(almacen);
+        conteo.volcarEn(tabla);
+        return tabla;
+    }
+
+    /**
+     * Cuenta los codones de la secuencia entre dos índices alineados a 3,
+     * dividiendo el rango a la mitad mientras sea más grande que un trozo.
+     */
+    @SuppressWarnings("serial")
+    private static class TareaTexto extends RecursiveTask<TablaCodones> {
+        private final IngestaParalela ingesta;
+        private final String secuencia;
+        private final int desde;
+        private final int hasta;
+        private final int trozo;
+
+        TareaTexto(IngestaParalela ingesta, String secuencia, int desde, int hasta, int trozo) {
+            this.ingesta = ingesta;
+            this.secuencia = secuencia;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.trozo = trozo;
+        }
+
+        @Override
+        protected TablaCodones compute() {
+            if (hasta - desde <= trozo) {
+                TablaCodones tabla = ingesta.nuevaTabla();
+                for (int i = desde; i < hasta; i += 3) {
+                    int codigo = (SecuenciaADN.codificarBase(secuencia.charAt(i)) << 4)
+                            | (SecuenciaADN.codificarBase(secuencia.charAt(i + 1)) << 2)
+                            | SecuenciaADN.codificarBase(secuencia.charAt(i + 2));
+                    tabla.insertar(codigo, i);
+                }
+                return tabla;
+            }
+
+            int mitad = desde + (hasta - desde) / 2;
+            mitad -= (mitad - desde) % 3;
+            TareaTexto izquierda = new TareaTexto(ingesta, secuencia, desde, mitad, trozo);
+            TareaTexto derecha = new TareaTexto(ingesta, secuencia, mitad, hasta, trozo);
+            izquierda.fork();
+            TablaCodones resultado = derecha.compute();
+            TablaCodones parcial = izquierda.join();
+            // La mitad izquierda tiene las posiciones menores: se fusiona primero
+            parcial.fusionar(resultado);
+            return parcial;
+        }
+    }
+
+    /**
+     * Primera pasada sobre el archivo: cuenta las bases válidas de cada rango
+     * de bytes en [desdeRango, hastaRango).
+     */
+    @SuppressWarnings("serial")
+    private static class TareaValidos extends RecursiveTask<long[]> {
+        private final ArchivoADN archivo;
+        private final long[] inicios;
+        private final int desdeRango;
+        private final int hastaRango;
+
+        TareaValidos(ArchivoADN archivo, long[] inicios, int desdeRango, int hastaRango) {
+            this.archivo = archivo;
+            this.inicios = inicios;
+            this.desdeRango = desdeRango;
+            this.hastaRango = hastaRango;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (hastaRango - desdeRango > 1) {
+                int mitad = (desdeRango + hastaRango) >>> 1;
+                TareaValidos izquierda = new TareaValidos(archivo, inicios, desdeRango, mitad);
+                izquierda.fork();
+                long[] derecha = new TareaValidos(archivo, inicios, mitad, hastaRango).compute();
+                long[] resultado = izquierda.join();
+                for (int r = mitad; r < hastaRango; r++) {
+                    resultado[r] = derecha[r];
+                }
+                return resultado;
+            }
+
+            long[] resultado = new long[inicios.length - 1];
+            byte[] bloque = new byte[ArchivoADN.TAMAÑO_BLOQUE];
+            long total = 0;
+            long posicion = inicios[desdeRango];
+            while (posicion < inicios[desdeRango + 1]) {
+                int leidos = archivo.leer(posicion, bloque, (int) Math.min(bloque.length, inicios[desdeRango + 1] - posicion));
+                posicion += leidos;
+                total += SecuenciaADN.limpiarBytes(bloque, leidos);
+            }
+            resultado[desdeRango] = total;
+            return resultado;
+        }
+    }
+
+    /**
+     * Segunda pasada sobre el archivo: cuenta los codones que empiezan dentro
+     * de cada rango de bytes en [desdeRango, hastaRango).
+     */
+    @SuppressWarnings("serial")
+    private static class TareaArchivo extends RecursiveTask<TablaCodones> {
+        private final IngestaParalela ingesta;
+        private final ArchivoADN archivo;
+        private final long[] inicios;
+        private final long[] primeraBase;
+        private final int desdeRango;
+        private final int hastaRango;
+
+        TareaArchivo(IngestaParalela ingesta, ArchivoADN archivo, long[] inicios, long[] primeraBase,
+                int desdeRango, int hastaRango) {
+            this.ingesta = ingesta;
+            this.archivo = archivo;
+            this.inicios = inicios;
+            this.primeraBase = primeraBase;
+            this.desdeRango = desdeRango;
+            this.hastaRango = hastaRango;
+        }
+
+        @Override
+        protected TablaCodones compute() {
+            if (hastaRango - desdeRango > 1) {
+                int mitad = (desdeRango + hastaRango) >>> 1;
+                TareaArchivo izquierda = new TareaArchivo(ingesta, archivo, inicios, primeraBase, desdeRango, mitad);
+                izquierda.fork();
+                TablaCodones derecha = new TareaArchivo(ingesta, archivo, inicios, primeraBase, mitad,
+                        hastaRango).compute();
+                TablaCodones resultado = izquierda.join();
+                resultado.fusionar(derecha);
+                return resultado;
+            }
+            return contarRango(desdeRango);
+        }
+
+        /**
+         * Cuenta un rango. Se saltan las bases iniciales que pertenecen a un
+         * codón empezado en el rango anterior, y si el último codón queda
+         * incompleto se sigue leyendo del rango siguiente hasta completarlo.
+         */
+        private TablaCodones contarRango(int rango) {
+            TablaCodones tabla = ingesta.nuevaTabla();
+            byte[] bloque = new byte[ArchivoADN.TAMAÑO_BLOQUE];
+            long indiceBase = primeraBase[rango];
+            long finBases = primeraBase[rango + 1];
+            int saltar = (int) ((3 - indiceBase % 3) % 3);
+            int codigo = 0;
+            int enCodigo = 0;
+
+            long posicion = inicios[rango];
+            long fin = inicios[rango + 1];
+            long tamaño = archivo.getTamaño();
+            lectura:
+            while (posicion < tamaño && (posicion < fin || enCodigo > 0)) {
+                // Pasado el final del rango solo se lee lo justo para completar el codón
+                int maximo = posicion < fin ? (int) Math.min(bloque.length, fin - posicion) : 64;
+                int leidos = archivo.leer(posicion, bloque, maximo);
+                posicion += leidos;
+                int validos = SecuenciaADN.limpiarBytes(bloque, leidos);
+
+                for (int i = 0; i < validos; i++, indiceBase++) {
+                    if (saltar > 0) {
+                        saltar--;
+                        continue;
+                    }
+                    if (enCodigo == 0 && indiceBase >= finBases) {
+                        break lectura; // este codón le corresponde al rango siguiente
+                    }
+                    codigo = (codigo << 2) | SecuenciaADN.codificarBase((char) bloque[i]);
+                    if (++enCodigo == 3) {
+                        tabla.insertar(codigo, indiceBase - 2);
+                        codigo = 0;
+                        enCodigo = 0;
+                    }
+                }
+            }
+            return tabla;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package EDD;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Limpieza de secuencias con instrucciones SIMD usando la Vector API.
+ * 
+ * Procesa tantos bytes como quepan en un registro vectorial a la vez: los pasa
+ * a mayúsculas con un AND, marca en una máscara los que son A, C, G o T, y los
+ * compacta al inicio del registro antes de escribirlos. El resultado es el mismo
+ * que el de SecuenciaADN.limpiarBytes en su versión escalar.
+ * 
+ * Solo se usa si el módulo jdk.incubator.vector está disponible; SecuenciaADN
+ * lo comprueba antes de cargar esta clase.
+ */
+final class LimpiadorVectorial {
+
+    private static final VectorSpecies<Byte> ESPECIE = ByteVector.SPECIES_PREFERRED;
+
+    private LimpiadorVectorial() {
+        // No instanciable.
+    }
+
+    /**
+     * Limpia un bloque de bytes en el mismo array (ver SecuenciaADN.limpiarBytes).
+     * 
+     * Escribir en el mismo array es seguro porque lo escrito nunca pasa de lo
+     * que ya se leyó: cada vector se escribe en una posición menor o igual a
+     * la de donde se cargó.
+     * 
+     * @param datos El array con los bytes crudos; se sobrescribe con el resultado.
+     * @param longitud Cantidad de bytes a procesar desde el inicio del array.
+     * @return La cantidad de bases válidas que quedaron al inicio del array.
+     */
+    static int limpiar(byte[] datos, int longitud) {
+        int escritos = 0;
+        int i = 0;
+        int limite = ESPECIE.loopBound(longitud);
+        for (; i < limite; i += ESPECIE.length()) {
+            // Quitar el bit 0x20 pasa las minúsculas a mayúsculas
+            ByteVector bytes = ByteVector.fromArray(ESPECIE, datos, i).and((byte) 0xDF);
+            VectorMask<Byte> validas = bytes.eq((byte) 'A')
+                    .or(bytes.eq((byte) 'C'))
+                    .or(bytes.eq((byte) 'G'))
+                    .or(bytes.eq((byte) 'T'));
+            
+            if (validas.allTrue()) {
+                // Caso común en archivos de secuencia: todo el vector son bases
+                bytes.intoArray(datos, escritos);
+                escritos += ESPECIE.length();
+            } else if (validas.anyTrue()) {
+                bytes.compress(validas).intoArray(datos, escritos);
+                escritos += validas.trueCount();
+            }
+        }
+        
+        // Los bytes que no llenan un vector completo se procesan uno por uno
+        for (; i < longitud; i++) {
+            byte b = (byte) (datos[i] & 0xDF);
+            if (b == 'A' || b == 'T' || b == 'C' || b == 'G') {
+                datos[escritos++] = b;
+            }
+        }
+        return escritos;
+    }
+}
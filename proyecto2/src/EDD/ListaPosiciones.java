@@ -0,0 +1,430 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package EDD;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Lista comprimida de posiciones en orden creciente.
+ *
+ * Como las posiciones de un patrón se agregan siempre de menor a mayor, en vez
+ * de guardar cada una en un int se guarda la diferencia con la anterior como
+ * un entero de largo variable (varint: 7 bits por byte, el bit alto indica que
+ * sigue otro byte). En una secuencia normal las diferencias son pequeñas, así
+ * que la mayoría ocupa uno o dos bytes en lugar de cuatro.
+ *
+ * Las posiciones se agrupan en bloques de POSICIONES_POR_BLOQUE. Para cada
+ * bloque se guarda aparte su primera posición (completa), su índice y dónde
+ * empiezan sus bytes; con eso obtener(i) solo decodifica un bloque, y buscar
+ * una posición es una búsqueda binaria sobre las primeras de cada bloque más
+ * un recorrido corto dentro de uno. agregarTodas empalma los bloques de otra
+ * lista sin decodificarlos, así que en cada empalme puede quedar un bloque
+ * más corto.
+ *
+ * Las posiciones son long, así que sirven para secuencias de más de 2^31
+ * bases. Eso no agranda la lista: solo la primera de cada bloque se guarda
+ * completa y el resto son diferencias, que no dependen de lo lejos que esté
+ * el bloque del inicio de la secuencia.
+ *
+ * Si se crea con un AlmacenPosiciones, cada bloque completo se copia a esa
+ * memoria fuera del heap y en el heap solo queda el bloque que se está
+ * llenando más el índice de bloques (unos 20 bytes cada 128 posiciones).
+ */
+public class ListaPosiciones {
+
+    /**
+     * Cantidad de posiciones de cada bloque.
+     */
+    public static final int POSICIONES_POR_BLOQUE = 128;
+
+    private static final byte[] SIN_DATOS = new byte[0];
+
+    // Dónde van los bloques completos; null para guardar todo en el heap
+    private final AlmacenPosiciones almacen;
+
+    // Diferencias codificadas como varint (las primeras de cada bloque no están aquí).
+    // Con almacén, solo las del último bloque.
+    private byte[] datos = SIN_DATOS;
+    private int bytesUsados;
+    private long bytesExternos;
+
+    // Índice de bloques: primera posición, índice de esa posición en la lista
+    // y dónde empiezan sus diferencias (índice en datos, o dirección en el
+    // almacén si el bloque ya se guardó ahí)
+    private long[] primeraDeBloque = new long[1];
+    private int[] indiceDeBloque = new int[1];
+    private long[] inicioDeBloque = new long[1];
+    private int bloques;
+
+    private int cantidad;
+    private long ultima;
+
+    /**
+     * Crea una lista vacía que guarda todo en el heap.
+     */
+    public ListaPosiciones() {
+        this(null);
+    }
+
+    /**
+     * Crea una lista vacía.
+     *
+     * @param almacen Memoria fuera del heap para los bloques completos, o null
+     *                para guardarlos en el heap.
+     */
+    public ListaPosiciones(AlmacenPosiciones almacen) {
+        this.almacen = almacen;
+    }
+
+    /**
+     * Agrega una posición al final de la lista.
+     *
+     * @param posicion La posición; no puede ser menor que la última agregada.
+     * @throws IllegalArgumentException Si la posición es menor que la última.
+     */
+    public void agregar(long posicion) {
+        if (cantidad > 0 && posicion < ultima) {
+            throw new IllegalArgumentException("Las posiciones deben agregarse en orden creciente: "
+                    + posicion + " después de " + ultima);
+        }
+        if (bloques == 0 || cantidad - indiceDeBloque[bloques - 1] == POSICIONES_POR_BLOQUE) {
+            // El bloque anterior está completo: sus bytes pasan al almacén y el buffer se reutiliza
+            guardarUltimoBloque();
+            agrandarIndice(bloques + 1);
+            primeraDeBloque[bloques] = posicion;
+            indiceDeBloque[bloques] = cantidad;
+            inicioDeBloque[bloques] = bytesUsados;
+            bloques++;
+        } else {
+            escribirVarint(posicion - ultima);
+        }
+        ultima = posicion;
+        cantidad++;
+    }
+
+    /**
+     * Agrega al final todas las posiciones de otra lista.
+     *
+     * Si las dos usan el mismo almacén (o las dos el heap), los bloques de la
+     * otra se empalman sin decodificarlos: se copian sus entradas del índice
+     * y los bytes que tenga en el heap, y los que ya están en el almacén se
+     * comparten. Así, fusionar las listas parciales de la ingesta paralela no
+     * vuelve a copiar al almacén lo que ya se guardó. El último bloque de esta
+     * lista queda como está, aunque tenga menos de POSICIONES_POR_BLOQUE.
+     *
+     * @param otra La lista con las posiciones posteriores a las de esta. Como
+     *             puede compartir sus bloques, no debe usarse después.
+     * @throws IllegalArgumentException Si la otra empieza antes de la última de esta.
+     */
+    public void agregarTodas(ListaPosiciones otra) {
+        if (otra.cantidad == 0) {
+            return;
+        }
+        if (otra.almacen != almacen) {
+            Cursor cursor = otra.cursor();
+            while (cursor.hasNext()) {
+                agregar(cursor.nextLong());
+            }
+            return;
+        }
+        if (cantidad > 0 && otra.primeraDeBloque[0] < ultima) {
+            throw new IllegalArgumentException("Las posiciones deben agregarse en orden creciente: "
+                    + otra.primeraDeBloque[0] + " después de " + ultima);
+        }
+        // Con almacén, en el heap queda solo el último bloque: el de esta lista
+        // se guarda y el buffer pasa a tener el último de la otra
+        guardarUltimoBloque();
+        int desplazamiento = bytesUsados;
+        agrandarIndice(bloques + otra.bloques);
+        for (int b = 0; b < otra.bloques; b++) {
+            primeraDeBloque[bloques] = otra.primeraDeBloque[b];
+            indiceDeBloque[bloques] = cantidad + otra.indiceDeBloque[b];
+            inicioDeBloque[bloques] = otra.estaEnAlmacen(b)
+                    ? otra.inicioDeBloque[b] : desplazamiento + otra.inicioDeBloque[b];
+            bloques++;
+        }
+        if (bytesUsados + otra.bytesUsados > datos.length) {
+            datos = Arrays.copyOf(datos, bytesUsados + otra.bytesUsados);
+        }
+        System.arraycopy(otra.datos, 0, datos, bytesUsados, otra.bytesUsados);
+        bytesUsados += otra.bytesUsados;
+        bytesExternos += otra.bytesExternos;
+        cantidad += otra.cantidad;
+        ultima = otra.ultima;
+    }
+
+    /**
+     * Con almacén, copia ahí los bytes del último bloque y deja el buffer
+     * libre para el siguiente. Sin almacén no hace nada.
+     */
+    private void guardarUltimoBloque() {
+        if (almacen == null || bloques == 0) {
+            return;
+        }
+        // Un bloque de una sola posición no tiene bytes: todo está en el índice
+        inicioDeBloque[bloques - 1] = bytesUsados == 0 ? 0 : almacen.guardar(datos, bytesUsados);
+        bytesExternos += bytesUsados;
+        bytesUsados = 0;
+    }
+
+    private void agrandarIndice(int necesarios) {
+        if (necesarios > primeraDeBloque.length) {
+            int nuevoTamaño = Math.max(necesarios, primeraDeBloque.length * 2);
+            primeraDeBloque = Arrays.copyOf(primeraDeBloque, nuevoTamaño);
+            indiceDeBloque = Arrays.copyOf(indiceDeBloque, nuevoTamaño);
+            inicioDeBloque = Arrays.copyOf(inicioDeBloque, nuevoTamaño);
+        }
+    }
+
+    private void escribirVarint(long valor) {
+        if (bytesUsados + 10 > datos.length) {
+            // Crece un 50% (las listas grandes no reservan el doble de lo que usan)
+            datos = Arrays.copyOf(datos, Math.max(16, datos.length + (datos.length >> 1) + 10));
+        }
+        while (valor >= 0x80) {
+            datos[bytesUsados++] = (byte) (valor | 0x80);
+            valor >>>= 7;
+        }
+        datos[bytesUsados++] = (byte) valor;
+    }
+
+    /**
+     * Devuelve la cantidad de posiciones guardadas.
+     */
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    /**
+     * Devuelve la última posición agregada.
+     *
+     * @throws NoSuchElementException Si la lista está vacía.
+     */
+    public long getUltima() {
+        if (cantidad == 0) {
+            throw new NoSuchElementException();
+        }
+        return ultima;
+    }
+
+    /**
+     * Devuelve la posición en un índice. Solo decodifica el bloque que la contiene.
+     *
+     * @param indice Índice entre 0 y getCantidad() - 1.
+     * @throws IndexOutOfBoundsException Si el índice está fuera de rango.
+     */
+    public long obtener(int indice) {
+        if (indice < 0 || indice >= cantidad) {
+            throw new IndexOutOfBoundsException("Índice " + indice + " con " + cantidad + " posiciones");
+        }
+        Cursor cursor = new Cursor();
+        cursor.colocarEn(indice);
+        return cursor.nextLong();
+    }
+
+    /**
+     * Busca el índice de la primera posición mayor o igual que un valor.
+     *
+     * @param posicion El valor buscado.
+     * @return El índice encontrado, o getCantidad() si todas son menores.
+     */
+    public int indiceDe(long posicion) {
+        if (cantidad == 0 || posicion > ultima) {
+            return cantidad;
+        }
+        if (primeraDeBloque[0] >= posicion) {
+            return 0;
+        }
+        // Último bloque cuya primera posición es menor que la buscada; la
+        // respuesta está en él o es la primera del bloque siguiente
+        int bajo = 0;
+        int alto = bloques - 1;
+        while (bajo < alto) {
+            int medio = (bajo + alto + 1) >>> 1;
+            if (primeraDeBloque[medio] < posicion) {
+                bajo = medio;
+            } else {
+                alto = medio - 1;
+            }
+        }
+        long valor = primeraDeBloque[bajo];
+        int indice = indiceDeBloque[bajo];
+        int fin = bajo + 1 < bloques ? indiceDeBloque[bajo + 1] : cantidad;
+        long desplazamiento = inicioDeBloque[bajo];
+        boolean externo = estaEnAlmacen(bajo);
+        while (++indice < fin) {
+            long diferencia = 0;
+            int corrimiento = 0;
+            byte b;
+            do {
+                b = externo ? almacen.leer(desplazamiento++) : datos[(int) desplazamiento++];
+                diferencia |= (long) (b & 0x7F) << corrimiento;
+                corrimiento += 7;
+            } while (b < 0);
+            valor += diferencia;
+            if (valor >= posicion) {
+                return indice;
+            }
+        }
+        // Todas las del bloque son menores: es la primera del bloque siguiente
+        return indice;
+    }
+
+    /**
+     * Indica si las diferencias de un bloque están en el almacén. Todos menos
+     * el último se guardan ahí al completarse.
+     */
+    private boolean estaEnAlmacen(int bloque) {
+        return almacen != null && bloque < bloques - 1;
+    }
+
+    /**
+     * Busca el bloque que contiene la posición de un índice.
+     */
+    private int bloqueDe(int indice) {
+        int bloque = Arrays.binarySearch(indiceDeBloque, 0, bloques, indice);
+        // Si no es el primero de un bloque, está en el anterior al punto de inserción
+        return bloque >= 0 ? bloque : -bloque - 2;
+    }
+
+    /**
+     * Indica si la lista contiene una posición.
+     */
+    public boolean contiene(long posicion) {
+        int indice = indiceDe(posicion);
+        return indice < cantidad && obtener(indice) == posicion;
+    }
+
+    /**
+     * Devuelve un cursor que recorre las posiciones de menor a mayor.
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Devuelve los bytes que ocupan los datos de la lista, dentro y fuera del
+     * heap (sin contar los encabezados de los objetos).
+     */
+    public long getBytesUsados() {
+        return getBytesEnHeap() + bytesExternos;
+    }
+
+    /**
+     * Devuelve los bytes que la lista ocupa en el heap.
+     */
+    public long getBytesEnHeap() {
+        return datos.length + (long) primeraDeBloque.length * Long.BYTES
+                + (long) indiceDeBloque.length * Integer.BYTES
+                + (long) inicioDeBloque.length * Long.BYTES;
+    }
+
+    /**
+     * Devuelve las posiciones en formato "[pos1, pos2, ...]".
+     */
+    @Override
+    public String toString() {
+        return aTexto(cantidad);
+    }
+
+    /**
+     * Devuelve las primeras posiciones en formato "[pos1, pos2, ...]".
+     *
+     * @param limite Cuántas posiciones incluir como máximo.
+     */
+    String aTexto(int limite) {
+        StringBuilder sb = new StringBuilder("[");
+        Cursor cursor = cursor();
+        for (int i = 0; i < limite && cursor.hasNext(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(cursor.nextLong());
+        }
+        return sb.append("]").toString();
+    }
+
+    /**
+     * Recorrido de la lista que decodifica las diferencias una a una.
+     *
+     * Además de avanzar de a una posición puede saltar con avanzarHasta(),
+     * que usa el índice de bloques en lugar de decodificar todo lo que hay
+     * en medio.
+     */
+    public class Cursor implements PrimitiveIterator.OfLong {
+        private int indice;
+        private int bloque = -1;
+        private long desplazamiento;
+        private boolean externo;
+        private long valor;
+
+        private Cursor() {
+        }
+
+        @Override
+        public boolean hasNext() {
+            return indice < cantidad;
+        }
+
+        @Override
+        public long nextLong() {
+            if (indice >= cantidad) {
+                throw new NoSuchElementException();
+            }
+            if (bloque + 1 < bloques && indice == indiceDeBloque[bloque + 1]) {
+                bloque++;
+                valor = primeraDeBloque[bloque];
+                desplazamiento = inicioDeBloque[bloque];
+                externo = estaEnAlmacen(bloque);
+            } else {
+                long diferencia = 0;
+                int corrimiento = 0;
+                byte b;
+                do {
+                    b = externo ? almacen.leer(desplazamiento++) : datos[(int) desplazamiento++];
+                    diferencia |= (long) (b & 0x7F) << corrimiento;
+                    corrimiento += 7;
+                } while (b < 0);
+                valor += diferencia;
+            }
+            indice++;
+            return valor;
+        }
+
+        /**
+         * Avanza el cursor para que el próximo nextLong() devuelva la primera
+         * posición mayor o igual que la indicada. Nunca retrocede.
+         *
+         * @param posicion La posición buscada.
+         */
+        public void avanzarHasta(long posicion) {
+            int destino = indiceDe(posicion);
+            if (destino > indice) {
+                colocarEn(destino);
+            }
+        }
+
+        /**
+         * Devuelve el índice de la posición que devolverá el próximo nextLong().
+         */
+        public int getIndice() {
+            return indice;
+        }
+
+        /**
+         * Deja el cursor listo para devolver la posición en el índice dado,
+         * decodificando solo el comienzo de su bloque.
+         */
+        private void colocarEn(int destino) {
+            bloque = bloqueDe(destino) - 1;
+            indice = indiceDeBloque[bloque + 1];
+            while (indice < destino) {
+                nextLong();
+            }
+        }
+    }
+}
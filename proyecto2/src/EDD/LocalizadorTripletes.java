@@ -0,0 +1,114 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package EDD;
+
+/**
+ * Recupera las posiciones de un triplete volviendo a leer el archivo.
+ *
+ * En una carga de solo conteo (HashTable.setSoloConteo) los patrones guardan
+ * solo su frecuencia. Cuando hace falta ver dónde aparece uno en particular,
+ * este consumidor recorre de nuevo el archivo mapeado en memoria, arma los
+ * tripletes no solapados igual que ContadorTripletes y anota las posiciones
+ * de los que coinciden con el buscado. Así solo se gasta memoria en las
+ * posiciones de los patrones que realmente se consultan.
+ */
+public class LocalizadorTripletes implements ConsumidorBases {
+    private final int codigoBuscado;
+    private final ListaPosiciones posiciones = new ListaPosiciones();
+    private int codigoPendiente;
+    private int enPendiente;
+    private long basesProcesadas;
+
+    /**
+     * Crea un localizador para un triplete.
+     *
+     * @param triplete El triplete buscado, en mayúsculas.
+     * @throws IllegalArgumentException Si el triplete no es válido.
+     */
+    public LocalizadorTripletes(String triplete) {
+        this.codigoBuscado = SecuenciaADN.codificarTriplete(triplete);
+        if (codigoBuscado < 0) {
+            throw new IllegalArgumentException("Triplete inválido: " + triplete);
+        }
+    }
+
+    @Override
+    public void procesar(byte[] bases, int longitud) {
+        for (int i = 0; i < longitud; i++) {
+            codigoPendiente = (codigoPendiente << 2) | SecuenciaADN.codificarBase((char) bases[i]);
+            if (++enPendiente == 3) {
+                if (codigoPendiente == codigoBuscado) {
+                    posiciones.agregar(basesProcesadas - 2);
+                }
+                codigoPendiente = 0;
+                enPendiente = 0;
+            }
+            basesProcesadas++;
+        }
+    }
+
+    /**
+     * Devuelve las posiciones encontradas hasta ahora.
+     */
+    public ListaPosiciones getPosiciones() {
+        return posiciones;
+    }
+
+    /**
+     * Recupera las posiciones de un patrón de solo conteo y se las asigna,
+     * de modo que las siguientes consultas ya no tengan que leer el archivo.
+     * Si el patrón ya tiene sus posiciones no hace nada.
+     *
+     * Lee y asigna en el mismo hilo. Si otros hilos pueden estar leyendo el
+     * patrón (por ejemplo, el EDT), hay que usar buscarPosiciones en segundo
+     * plano y asignarPosiciones en el hilo que lo lee.
+     *
+     * @param patron Un patrón de una tabla cargada en modo de solo conteo.
+     * @param archivo El mismo archivo del que se cargó la tabla.
+     * @throws IllegalStateException Si la cantidad encontrada no coincide con
+     *         la frecuencia (por ejemplo, si el archivo cambió desde la carga).
+     */
+    public static void completarPosiciones(PatronADN patron, ArchivoADN archivo) {
+        if (patron.tienePosiciones()) {
+            return;
+        }
+        asignarPosiciones(patron, buscarPosiciones(patron.getTriplete(), archivo));
+    }
+
+    /**
+     * Recorre el archivo y devuelve las posiciones de un triplete, sin
+     * asignarlas a ningún patrón.
+     *
+     * @param triplete El triplete buscado, en mayúsculas.
+     * @param archivo El archivo de la secuencia.
+     * @return Una lista nueva con las posiciones encontradas.
+     */
+    public static ListaPosiciones buscarPosiciones(String triplete, ArchivoADN archivo) {
+        LocalizadorTripletes localizador = new LocalizadorTripletes(triplete);
+        archivo.recorrerBases(localizador);
+        return localizador.getPosiciones();
+    }
+
+    /**
+     * Asigna a un patrón de solo conteo las posiciones que devolvió
+     * buscarPosiciones. Debe llamarse desde el hilo que usa el patrón.
+     *
+     * @param patron El patrón; si ya tiene sus posiciones no se cambian.
+     * @param encontradas Las posiciones encontradas en el archivo.
+     * @throws IllegalStateException Si la cantidad encontrada no coincide con
+     *         la frecuencia (por ejemplo, si el archivo cambió desde la carga).
+     */
+    public static void asignarPosiciones(PatronADN patron, ListaPosiciones encontradas) {
+        if (patron.tienePosiciones()) {
+            return;
+        }
+        if (encontradas.getCantidad() != patron.getFrecuencia()) {
+            throw new IllegalStateException("Se encontraron " + encontradas.getCantidad() + " apariciones de "
+                    + patron.getTriplete() + " y se esperaban " + patron.getFrecuencia()
+                    + "; el archivo pudo haber cambiado desde la carga");
+        }
+        patron.setPosiciones(encontradas);
+    }
+}
@@ -9,12 +9,23 @@ package EDD;
  * 
  * Esta clase contiene métodos estáticos para realizar la conversión de secuencias
  * de ADN a ARN y luego identificar el aminoácido que codifican, así como sus
- * abreviaturas, basándose en la tabla estándar del código genético.
+ * abreviaturas, basándose en la tabla del código genético activa.
  * No se puede instanciar, ya que todos sus métodos son estáticos.
  * 
+ * La traducción se hace con una tabla de 64 posiciones indexada por el código
+ * del codón (ver SecuenciaADN.codificarTriplete), así que traducir un codón ya
+ * codificado es una sola lectura de array. Por defecto se usa el código
+ * estándar, pero se puede elegir otra tabla del NCBI con setCodigoGenetico.
+ * 
  * @author simon
  */
 public class MapaAminoacidos {
+
+    /**
+     * Tabla de traducción activa. Se elige al cargar un archivo y la usan todos
+     * los reportes de aminoácidos, la traducción y la búsqueda de ORF.
+     */
+    private static volatile CodigoGenetico codigoActivo = CodigoGenetico.ESTANDAR;
     
     /**
      * Constructor privado para evitar que la clase sea instanciada.
@@ -23,6 +34,23 @@ public class MapaAminoacidos {
         // Clase de utilidad, no debe ser instanciada.
     }
 
+    /**
+     * Elige la tabla de traducción que se usará de aquí en adelante. Debe
+     * cambiarse antes de analizar, no mientras se generan reportes.
+     * 
+     * @param codigo La tabla del NCBI a usar.
+     */
+    public static void setCodigoGenetico(CodigoGenetico codigo) {
+        codigoActivo = codigo;
+    }
+
+    /**
+     * Devuelve la tabla de traducción activa.
+     */
+    public static CodigoGenetico getCodigoGenetico() {
+        return codigoActivo;
+    }
+
     /**
      * Convierte un triplete de ADN a su equivalente en ARN.
      * 
@@ -42,153 +70,36 @@ public class MapaAminoacidos {
         return tripleteADN.replace('T', 'U');
     }
     
+    /**
+     * Obtiene el aminoácido de un codón ya codificado. Es una sola lectura de array.
+     * 
+     * @param codigo El código del triplete (0..63, ver SecuenciaADN.codificarTriplete).
+     * @return El aminoácido o señal de parada.
+     */
+    public static Aminoacido obtener(int codigo) {
+        return codigoActivo.obtener(codigo);
+    }
+
+    /**
+     * Obtiene el aminoácido de un triplete de ADN (o de ARN, con U en lugar de T).
+     * 
+     * @param triplete El triplete en mayúsculas.
+     * @return El aminoácido, o DESCONOCIDO si el triplete no es válido.
+     */
+    public static Aminoacido obtener(String triplete) {
+        return codigoActivo.obtener(triplete);
+    }
+
     /**
      * Obtiene el nombre completo del aminoácido correspondiente a un triplete de ADN.
      * 
-     * Primero convierte el triplete de ADN a ARN y luego busca en la tabla de codones
-     * para encontrar el aminoácido. También identifica los codones de INICIO y PARADA.
+     * Acepta también tripletes de ARN. También identifica los codones de INICIO y PARADA.
      * 
      * @param tripleteADN El triplete de ADN a traducir.
      * @return El nombre del aminoácido o función especial ("STOP", "Metionina (Inicio)", etc.).
      */
     public static String obtenerAminoacido(String tripleteADN) {
-        // Primero convertir ADN a ARN
-        String tripleteARN = convertirADNaARN(tripleteADN);
-        
-        // Mapear ARN a aminoácidos según la tabla del código genético
-        switch (tripleteARN) {
-            // Fenilalanina (Phe, F)
-            case "UUU":
-            case "UUC":
-                return "Fenilalanina";
-                
-            // Leucina (Leu, L)
-            case "UUA":
-            case "UUG":
-            case "CUU":
-            case "CUC":
-            case "CUA":
-            case "CUG":
-                return "Leucina";
-                
-            // Serina (Ser, S)
-            case "UCU":
-            case "UCC":
-            case "UCA":
-            case "UCG":
-            case "AGU":
-            case "AGC":
-                return "Serina";
-                
-            // Tirosina (Tyr, Y)
-            case "UAU":
-            case "UAC":
-                return "Tirosina";
-                
-            // Códones de parada (STOP)
-            case "UAA":
-                return "STOP (Ocre)";
-            case "UAG":
-                return "STOP (Ámbar)";
-            case "UGA":
-                return "STOP (Ópalo)";
-                
-            // Cisteína (Cys, C)
-            case "UGU":
-            case "UGC":
-                return "Cisteína";
-                
-            // Triptófano (Trp, W)
-            case "UGG":
-                return "Triptófano";
-                
-            // Prolina (Pro, P)
-            case "CCU":
-            case "CCC":
-            case "CCA":
-            case "CCG":
-                return "Prolina";
-                
-            // Histidina (His, H)
-            case "CAU":
-            case "CAC":
-                return "Histidina";
-                
-            // Glutamina (Gln, Q)
-            case "CAA":
-            case "CAG":
-                return "Glutamina";
-                
-            // Arginina (Arg, R)
-            case "CGU":
-            case "CGC":
-            case "CGA":
-            case "CGG":
-            case "AGA":
-            case "AGG":
-                return "Arginina";
-                
-            // Isoleucina (Ile, I)
-            case "AUU":
-            case "AUC":
-            case "AUA":
-                return "Isoleucina";
-                
-            // Metionina (Met, M) - También es codón de inicio
-            case "AUG":
-                return "Metionina (Inicio)";
-                
-            // Treonina (Thr, T)
-            case "ACU":
-            case "ACC":
-            case "ACA":
-            case "ACG":
-                return "Treonina";
-                
-            // Asparagina (Asn, N)
-            case "AAU":
-            case "AAC":
-                return "Asparagina";
-                
-            // Lisina (Lys, K)
-            case "AAA":
-            case "AAG":
-                return "Lisina";
-                
-            // Valina (Val, V)
-            case "GUU":
-            case "GUC":
-            case "GUA":
-            case "GUG":
-                return "Valina";
-                
-            // Alanina (Ala, A)
-            case "GCU":
-            case "GCC":
-            case "GCA":
-            case "GCG":
-                return "Alanina";
-                
-            // Ácido Aspártico (Asp, D)
-            case "GAU":
-            case "GAC":
-                return "Ácido Aspártico";
-                
-            // Ácido Glutámico (Glu, E)
-            case "GAA":
-            case "GAG":
-                return "Ácido Glutámico";
-                
-            // Glicina (Gly, G)
-            case "GGU":
-            case "GGC":
-            case "GGA":
-            case "GGG":
-                return "Glicina";
-                
-            default:
-                return "Desconocido";
-        }
+        return obtener(tripleteADN).getNombre();
     }
     
     /**
@@ -198,36 +109,7 @@ public class MapaAminoacidos {
      * @return La abreviatura de 3 letras (ej. "Phe"), "---" para STOP, o "???" si es desconocido.
      */
     public static String obtenerAbreviatura3(String tripleteADN) {
-        String aminoacido = obtenerAminoacido(tripleteADN);
-        
-        // Mapear nombres completos a abreviaturas de 3 letras
-        switch (aminoacido) {
-            case "Fenilalanina": return "Phe";
-            case "Leucina": return "Leu";
-            case "Serina": return "Ser";
-            case "Tirosina": return "Tyr";
-            case "Cisteína": return "Cys";
-            case "Triptófano": return "Trp";
-            case "Prolina": return "Pro";
-            case "Histidina": return "His";
-            case "Glutamina": return "Gln";
-            case "Arginina": return "Arg";
-            case "Isoleucina": return "Ile";
-            case "Metionina (Inicio)": return "Met";
-            case "Treonina": return "Thr";
-            case "Asparagina": return "Asn";
-            case "Lisina": return "Lys";
-            case "Valina": return "Val";
-            case "Alanina": return "Ala";
-            case "Ácido Aspártico": return "Asp";
-            case "Ácido Glutámico": return "Glu";
-            case "Glicina": return "Gly";
-            default: 
-                if (aminoacido.startsWith("STOP")) {
-                    return "---";
-                }
-                return "???";
-        }
+        return obtener(tripleteADN).getAbreviatura3();
     }
     
     /**
@@ -237,35 +119,6 @@ public class MapaAminoacidos {
      * @return La abreviatura de 1 letra (ej. "F"), "-" para STOP, o "?" si es desconocido.
      */
     public static String obtenerAbreviatura1(String tripleteADN) {
-        String aminoacido = obtenerAminoacido(tripleteADN);
-        
-        // Mapear nombres completos a abreviaturas de 1 letra
-        switch (aminoacido) {
-            case "Fenilalanina": return "F";
-            case "Leucina": return "L";
-            case "Serina": return "S";
-            case "Tirosina": return "Y";
-            case "Cisteína": return "C";
-            case "Triptófano": return "W";
-            case "Prolina": return "P";
-            case "Histidina": return "H";
-            case "Glutamina": return "Q";
-            case "Arginina": return "R";
-            case "Isoleucina": return "I";
-            case "Metionina (Inicio)": return "M";
-            case "Treonina": return "T";
-            case "Asparagina": return "N";
-            case "Lisina": return "K";
-            case "Valina": return "V";
-            case "Alanina": return "A";
-            case "Ácido Aspártico": return "D";
-            case "Ácido Glutámico": return "E";
-            case "Glicina": return "G";
-            default: 
-                if (aminoacido.startsWith("STOP")) {
-                    return "-";
-                }
-                return "?";
-        }
+        return obtener(tripleteADN).getAbreviatura1();
     }
 }
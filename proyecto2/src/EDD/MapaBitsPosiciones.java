@@ -0,0 +1,667 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package EDD;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Conjunto de posiciones comprimido por tramos, al estilo de un Roaring bitmap.
+ *
+ * Las posiciones se reparten en tramos de 65536 bases según sus bits altos
+ * (posicion >>> 16). Cada tramo presente tiene un contenedor con los 16 bits
+ * bajos de sus posiciones, y el contenedor elige solo su forma según la
+ * densidad:
+ * - Arreglo: hasta MAXIMO_ARREGLO valores ordenados en un char[] (2 bytes
+ *   por posición). Es la forma de los tramos con pocas apariciones.
+ * - Mapa de bits: 1024 longs, un bit por base del tramo (8 KB fijos). Se usa
+ *   cuando el tramo tiene más de MAXIMO_ARREGLO posiciones, que es justo
+ *   cuando ocupa menos que el arreglo.
+ *
+ * Unión, intersección, rango y búsqueda de la siguiente posición trabajan
+ * contenedor por contenedor; entre dos mapas de bits se hacen con operaciones
+ * sobre longs completos (64 bases a la vez) en lugar de comparar posiciones.
+ */
+public final class MapaBitsPosiciones {
+
+    /**
+     * Máximo de valores de un contenedor en forma de arreglo. Con más, el mapa
+     * de bits (8 KB) ocupa menos que el arreglo.
+     */
+    public static final int MAXIMO_ARREGLO = 4096;
+
+    private static final int PALABRAS = 1024;
+
+    // Valores distintos de un tramo (los 16 bits bajos)
+    private static final int TAMAÑO_TRAMO = 1 << 16;
+
+    // Claves de los tramos (posicion >>> 16) en orden creciente y sus contenedores
+    private int[] claves = new int[4];
+    private Contenedor[] contenedores = new Contenedor[4];
+    private int cantidadContenedores;
+    private long cantidad;
+
+    // acumulado[i]: cuántas posiciones hay en los contenedores anteriores al i.
+    // Solo los primeros acumuladosValidos están al día; rango() completa el resto.
+    private long[] acumulado = new long[4];
+    private int acumuladosValidos;
+
+    /**
+     * Crea un conjunto vacío.
+     */
+    public MapaBitsPosiciones() {
+    }
+
+    /**
+     * Crea el conjunto con las primeras posiciones de una lista.
+     *
+     * @param lista La lista de posiciones.
+     * @param limite Cuántas posiciones de la lista tomar como máximo.
+     */
+    public MapaBitsPosiciones(ListaPosiciones lista, int limite) {
+        ListaPosiciones.Cursor cursor = lista.cursor();
+        for (int i = 0; i < limite && cursor.hasNext(); i++) {
+            agregar(cursor.nextLong());
+        }
+    }
+
+    /**
+     * Agrega una posición. Agregar en orden creciente es lo más rápido, pero
+     * se acepta cualquier orden.
+     *
+     * @param posicion La posición, entre 0 y 2^47 - 1.
+     * @return true si la posición no estaba.
+     * @throws IllegalArgumentException Si la posición está fuera de rango.
+     */
+    public boolean agregar(long posicion) {
+        if (posicion < 0 || posicion >>> 16 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Posición fuera de rango: " + posicion);
+        }
+        int clave = (int) (posicion >>> 16);
+        int i;
+        if (cantidadContenedores > 0 && claves[cantidadContenedores - 1] == clave) {
+            i = cantidadContenedores - 1;
+        } else {
+            i = buscarClave(clave);
+            if (i < 0) {
+                i = -i - 1;
+                insertarContenedor(i, clave, new Contenedor());
+            }
+        }
+        if (contenedores[i].agregar((char) posicion)) {
+            cantidad++;
+            acumuladosValidos = Math.min(acumuladosValidos, i + 1);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Indica si el conjunto contiene una posición.
+     */
+    public boolean contiene(long posicion) {
+        if (posicion < 0) {
+            return false;
+        }
+        int i = buscarClave((int) (posicion >>> 16));
+        return i >= 0 && contenedores[i].contiene((char) posicion);
+    }
+
+    /**
+     * Devuelve cuántas posiciones tiene el conjunto.
+     */
+    public long getCantidad() {
+        return cantidad;
+    }
+
+    /**
+     * Indica si el conjunto no tiene posiciones.
+     */
+    public boolean estaVacio() {
+        return cantidad == 0;
+    }
+
+    /**
+     * Cuenta las posiciones menores o iguales que una dada.
+     *
+     * Las cantidades de los contenedores se guardan acumuladas, así que solo
+     * hay que buscar el tramo (búsqueda binaria) y contar dentro de él. Si se
+     * agregaron posiciones desde la última consulta, primero se actualizan
+     * los acumulados a partir del primer tramo que cambió; agregando en orden
+     * creciente eso es solo el último.
+     *
+     * @param posicion La posición de referencia.
+     * @return La cantidad de posiciones del conjunto que son menores o iguales.
+     */
+    public long rango(long posicion) {
+        if (posicion < 0) {
+            return 0;
+        }
+        if (posicion >>> 16 > Integer.MAX_VALUE) {
+            return cantidad;
+        }
+        int i = buscarClave((int) (posicion >>> 16));
+        if (i >= 0) {
+            return acumuladoHasta(i) + contenedores[i].rango((char) posicion);
+        }
+        i = -i - 1;
+        return i == cantidadContenedores ? cantidad : acumuladoHasta(i);
+    }
+
+    /**
+     * Devuelve cuántas posiciones hay en los contenedores anteriores al i,
+     * completando los acumulados que falten hasta él.
+     */
+    private long acumuladoHasta(int i) {
+        if (acumuladosValidos == 0) {
+            acumulado[0] = 0;
+            acumuladosValidos = 1;
+        }
+        while (acumuladosValidos <= i) {
+            int j = acumuladosValidos++;
+            acumulado[j] = acumulado[j - 1] + contenedores[j - 1].cantidad;
+        }
+        return acumulado[i];
+    }
+
+    /**
+     * Busca la primera posición del conjunto mayor o igual que una dada.
+     *
+     * @param posicion La posición desde donde buscar.
+     * @return La posición encontrada, o -1 si no hay ninguna.
+     */
+    public long siguienteDesde(long posicion) {
+        posicion = Math.max(0, posicion);
+        int clave = (int) (posicion >>> 16);
+        int i = buscarClave(clave);
+        if (i >= 0) {
+            int bajo = contenedores[i].siguienteDesde((int) (posicion & 0xFFFF));
+            if (bajo >= 0) {
+                return ((long) clave << 16) | bajo;
+            }
+            i++;
+        } else {
+            i = -i - 1;
+        }
+        // Los tramos siguientes nunca están vacíos: su primer valor es la respuesta
+        if (i < cantidadContenedores) {
+            return ((long) claves[i] << 16) | contenedores[i].siguienteDesde(0);
+        }
+        return -1;
+    }
+
+    /**
+     * Devuelve las posiciones de este conjunto que tienen alguna posición del
+     * otro después, a una distancia de 1 a distanciaMaxima bases.
+     *
+     * Por ejemplo, con los conjuntos de dos codones responde "dónde aparece
+     * el codón A seguido del codón B a menos de N bases". Se resuelve tramo
+     * por tramo con mapas de bits: el tramo del otro conjunto desplazado
+     * hacia atrás 1, 2, ..., N lugares y unido (ver Contenedor.alcanceHaciaAtras)
+     * marca los valores que tienen una posición del otro a distancia 1..N
+     * dentro del mismo tramo, y eso se intersecta con el tramo de este
+     * conjunto. Las posiciones del final del tramo también pueden alcanzar
+     * la primera del otro en un tramo siguiente; esas forman un rango
+     * continuo que se marca aparte.
+     *
+     * @param otro El conjunto de las posiciones que deben venir después.
+     * @param distanciaMaxima La distancia máxima permitida (al menos 1).
+     * @return Un conjunto nuevo con las posiciones que cumplen la condición.
+     */
+    public MapaBitsPosiciones seguidasPor(MapaBitsPosiciones otro, int distanciaMaxima) {
+        MapaBitsPosiciones resultado = new MapaBitsPosiciones();
+        if (distanciaMaxima < 1) {
+            return resultado;
+        }
+        int j = 0;
+        for (int i = 0; i < cantidadContenedores; i++) {
+            int clave = claves[i];
+            while (j < otro.cantidadContenedores && otro.claves[j] < clave) {
+                j++;
+            }
+            long[] alcance = null;
+            int siguienteTramo = j;
+            if (j < otro.cantidadContenedores && otro.claves[j] == clave) {
+                alcance = otro.contenedores[j].alcanceHaciaAtras(distanciaMaxima);
+                siguienteTramo = j + 1;
+            }
+            // Valores del tramo que alcanzan la primera posición del otro en los tramos siguientes
+            long desde = TAMAÑO_TRAMO;
+            if (siguienteTramo < otro.cantidadContenedores) {
+                long primera = ((long) otro.claves[siguienteTramo] << 16)
+                        | otro.contenedores[siguienteTramo].siguienteDesde(0);
+                desde = Math.max(0, primera - distanciaMaxima - ((long) clave << 16));
+            }
+            if (desde < TAMAÑO_TRAMO) {
+                if (alcance == null) {
+                    alcance = new long[PALABRAS];
+                }
+                Contenedor.marcarDesde(alcance, (int) desde);
+            }
+            if (alcance != null) {
+                Contenedor contenedor = Contenedor.interseccion(contenedores[i], Contenedor.desdeBits(alcance));
+                if (contenedor.cantidad > 0) {
+                    resultado.insertarContenedor(resultado.cantidadContenedores, clave, contenedor);
+                    resultado.cantidad += contenedor.cantidad;
+                }
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Devuelve un conjunto nuevo con las posiciones que están en alguno de los dos.
+     */
+    public static MapaBitsPosiciones union(MapaBitsPosiciones a, MapaBitsPosiciones b) {
+        MapaBitsPosiciones resultado = new MapaBitsPosiciones();
+        int i = 0;
+        int j = 0;
+        while (i < a.cantidadContenedores || j < b.cantidadContenedores) {
+            // Long.MAX_VALUE marca que ese conjunto ya no tiene más tramos
+            long claveA = i < a.cantidadContenedores ? a.claves[i] : Long.MAX_VALUE;
+            long claveB = j < b.cantidadContenedores ? b.claves[j] : Long.MAX_VALUE;
+            Contenedor contenedor;
+            int clave;
+            if (claveA < claveB) {
+                clave = (int) claveA;
+                contenedor = a.contenedores[i++].copiar();
+            } else if (claveB < claveA) {
+                clave = (int) claveB;
+                contenedor = b.contenedores[j++].copiar();
+            } else {
+                clave = (int) claveA;
+                contenedor = Contenedor.union(a.contenedores[i++], b.contenedores[j++]);
+            }
+            resultado.insertarContenedor(resultado.cantidadContenedores, clave, contenedor);
+            resultado.cantidad += contenedor.cantidad;
+        }
+        return resultado;
+    }
+
+    /**
+     * Devuelve un conjunto nuevo con las posiciones que están en los dos.
+     */
+    public static MapaBitsPosiciones interseccion(MapaBitsPosiciones a, MapaBitsPosiciones b) {
+        MapaBitsPosiciones resultado = new MapaBitsPosiciones();
+        int i = 0;
+        int j = 0;
+        while (i < a.cantidadContenedores && j < b.cantidadContenedores) {
+            if (a.claves[i] < b.claves[j]) {
+                i++;
+            } else if (b.claves[j] < a.claves[i]) {
+                j++;
+            } else {
+                Contenedor contenedor = Contenedor.interseccion(a.contenedores[i], b.contenedores[j]);
+                if (contenedor.cantidad > 0) {
+                    resultado.insertarContenedor(resultado.cantidadContenedores, a.claves[i], contenedor);
+                    resultado.cantidad += contenedor.cantidad;
+                }
+                i++;
+                j++;
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Devuelve un cursor que recorre las posiciones de menor a mayor.
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Devuelve los bytes que ocupan los contenedores (sin contar los
+     * encabezados de los objetos).
+     */
+    public long getBytesUsados() {
+        long total = (long) claves.length * (Integer.BYTES + 4);
+        for (int i = 0; i < cantidadContenedores; i++) {
+            Contenedor contenedor = contenedores[i];
+            total += contenedor.bits != null ? (long) PALABRAS * Long.BYTES : (long) contenedor.valores.length * Character.BYTES;
+        }
+        return total;
+    }
+
+    /**
+     * Devuelve las posiciones en formato "[pos1, pos2, ...]".
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        Cursor cursor = cursor();
+        while (cursor.hasNext()) {
+            sb.append(cursor.nextLong());
+            if (cursor.hasNext()) {
+                sb.append(", ");
+            }
+        }
+        return sb.append("]").toString();
+    }
+
+    /**
+     * Busca una clave entre los contenedores.
+     *
+     * @return Su índice, o -(punto de inserción) - 1 si no está.
+     */
+    private int buscarClave(int clave) {
+        return Arrays.binarySearch(claves, 0, cantidadContenedores, clave);
+    }
+
+    private void insertarContenedor(int i, int clave, Contenedor contenedor) {
+        if (cantidadContenedores == claves.length) {
+            claves = Arrays.copyOf(claves, claves.length * 2);
+            contenedores = Arrays.copyOf(contenedores, contenedores.length * 2);
+            acumulado = Arrays.copyOf(acumulado, acumulado.length * 2);
+        }
+        acumuladosValidos = Math.min(acumuladosValidos, i);
+        System.arraycopy(claves, i, claves, i + 1, cantidadContenedores - i);
+        System.arraycopy(contenedores, i, contenedores, i + 1, cantidadContenedores - i);
+        claves[i] = clave;
+        contenedores[i] = contenedor;
+        cantidadContenedores++;
+    }
+
+    /**
+     * Recorrido del conjunto de menor a mayor.
+     */
+    public class Cursor implements PrimitiveIterator.OfLong {
+        private long siguiente;
+
+        private Cursor() {
+            siguiente = siguienteDesde(0);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return siguiente >= 0;
+        }
+
+        @Override
+        public long nextLong() {
+            if (siguiente < 0) {
+                throw new NoSuchElementException();
+            }
+            long actual = siguiente;
+            siguiente = siguienteDesde(actual + 1);
+            return actual;
+        }
+
+        /**
+         * Avanza para que el próximo nextLong() devuelva la primera posición
+         * mayor o igual que la indicada. Nunca retrocede.
+         */
+        public void avanzarHasta(long posicion) {
+            if (siguiente >= 0 && siguiente < posicion) {
+                siguiente = siguienteDesde(posicion);
+            }
+        }
+    }
+
+    /**
+     * Los valores de un tramo (los 16 bits bajos de cada posición), como
+     * arreglo ordenado o como mapa de bits.
+     */
+    private static final class Contenedor {
+        // Forma de arreglo: valores ordenados; null si es mapa de bits
+        char[] valores;
+        // Forma de mapa de bits: 1024 palabras de 64 bits; null si es arreglo
+        long[] bits;
+        int cantidad;
+
+        Contenedor() {
+            valores = new char[4];
+        }
+
+        private Contenedor(char[] valores, long[] bits, int cantidad) {
+            this.valores = valores;
+            this.bits = bits;
+            this.cantidad = cantidad;
+        }
+
+        boolean agregar(char valor) {
+            if (bits != null) {
+                long mascara = 1L << valor;
+                long palabra = bits[valor >>> 6];
+                if ((palabra & mascara) != 0) {
+                    return false;
+                }
+                bits[valor >>> 6] = palabra | mascara;
+                cantidad++;
+                return true;
+            }
+            int i;
+            if (cantidad == 0 || valores[cantidad - 1] < valor) {
+                i = cantidad;
+            } else {
+                i = Arrays.binarySearch(valores, 0, cantidad, valor);
+                if (i >= 0) {
+                    return false;
+                }
+                i = -i - 1;
+            }
+            if (cantidad == MAXIMO_ARREGLO) {
+                convertirEnBits();
+                return agregar(valor);
+            }
+            if (cantidad == valores.length) {
+                valores = Arrays.copyOf(valores, Math.min(MAXIMO_ARREGLO, valores.length * 2));
+            }
+            System.arraycopy(valores, i, valores, i + 1, cantidad - i);
+            valores[i] = valor;
+            cantidad++;
+            return true;
+        }
+
+        boolean contiene(char valor) {
+            if (bits != null) {
+                return (bits[valor >>> 6] & (1L << valor)) != 0;
+            }
+            return Arrays.binarySearch(valores, 0, cantidad, valor) >= 0;
+        }
+
+        /**
+         * Cuenta los valores menores o iguales que el dado.
+         */
+        int rango(char valor) {
+            if (bits != null) {
+                int palabra = valor >>> 6;
+                int total = 0;
+                for (int i = 0; i < palabra; i++) {
+                    total += Long.bitCount(bits[i]);
+                }
+                // -1L >>> (63 - bit) deja encendidos los bits 0..bit
+                return total + Long.bitCount(bits[palabra] & (-1L >>> (63 - (valor & 63))));
+            }
+            int i = Arrays.binarySearch(valores, 0, cantidad, valor);
+            return i >= 0 ? i + 1 : -i - 1;
+        }
+
+        /**
+         * Devuelve el primer valor mayor o igual que el dado (0..65535), o -1.
+         */
+        int siguienteDesde(int valor) {
+            if (bits != null) {
+                int palabra = valor >>> 6;
+                long restantes = bits[palabra] & (-1L << valor);
+                while (restantes == 0) {
+                    if (++palabra == PALABRAS) {
+                        return -1;
+                    }
+                    restantes = bits[palabra];
+                }
+                return (palabra << 6) + Long.numberOfTrailingZeros(restantes);
+            }
+            int i = Arrays.binarySearch(valores, 0, cantidad, (char) valor);
+            if (i < 0) {
+                i = -i - 1;
+            }
+            return i < cantidad ? valores[i] : -1;
+        }
+
+        /**
+         * Devuelve el mapa de bits de los valores v que tienen algún valor de
+         * este contenedor entre v + 1 y v + distancia (sin salir del tramo).
+         *
+         * Es la unión del contenedor desplazado hacia atrás 1, 2, ...,
+         * distancia lugares. En vez de hacer un desplazamiento por cada
+         * distancia, cada paso une lo acumulado con una copia de sí mismo
+         * desplazada lo que ya cubre, así que bastan unos log2(distancia) pasos
+         * de 1024 palabras.
+         */
+        long[] alcanceHaciaAtras(int distancia) {
+            int limite = Math.min(distancia, TAMAÑO_TRAMO - 1);
+            long[] alcance = desplazarHaciaAtras(aBits(), 1);
+            int cubierto = 1;
+            while (cubierto < limite) {
+                int paso = Math.min(cubierto, limite - cubierto);
+                long[] desplazado = desplazarHaciaAtras(alcance, paso);
+                for (int i = 0; i < PALABRAS; i++) {
+                    alcance[i] |= desplazado[i];
+                }
+                cubierto += paso;
+            }
+            return alcance;
+        }
+
+        /**
+         * Devuelve un mapa de bits nuevo donde el bit v vale lo que el bit
+         * v + lugares del dado; los últimos quedan en 0.
+         */
+        private static long[] desplazarHaciaAtras(long[] bits, int lugares) {
+            long[] resultado = new long[PALABRAS];
+            int palabras = lugares >>> 6;
+            int resto = lugares & 63;
+            for (int i = 0; i + palabras < PALABRAS; i++) {
+                long palabra = bits[i + palabras] >>> resto;
+                if (resto != 0 && i + palabras + 1 < PALABRAS) {
+                    palabra |= bits[i + palabras + 1] << (64 - resto);
+                }
+                resultado[i] = palabra;
+            }
+            return resultado;
+        }
+
+        /**
+         * Enciende en un mapa de bits todos los valores desde uno dado (0..65535)
+         * hasta el final del tramo.
+         */
+        static void marcarDesde(long[] bits, int desde) {
+            int palabra = desde >>> 6;
+            bits[palabra] |= -1L << desde;
+            for (int i = palabra + 1; i < PALABRAS; i++) {
+                bits[i] = -1L;
+            }
+        }
+
+        Contenedor copiar() {
+            return new Contenedor(valores == null ? null : Arrays.copyOf(valores, cantidad),
+                    bits == null ? null : bits.clone(), cantidad);
+        }
+
+        private void convertirEnBits() {
+            bits = aBits();
+            valores = null;
+        }
+
+        private long[] aBits() {
+            if (bits != null) {
+                return bits.clone();
+            }
+            long[] resultado = new long[PALABRAS];
+            for (int i = 0; i < cantidad; i++) {
+                resultado[valores[i] >>> 6] |= 1L << valores[i];
+            }
+            return resultado;
+        }
+
+        /**
+         * Crea un contenedor a partir de un mapa de bits, en forma de arreglo
+         * si tiene pocos valores.
+         */
+        static Contenedor desdeBits(long[] bits) {
+            int cantidad = 0;
+            for (long palabra : bits) {
+                cantidad += Long.bitCount(palabra);
+            }
+            if (cantidad > MAXIMO_ARREGLO) {
+                return new Contenedor(null, bits, cantidad);
+            }
+            char[] valores = new char[Math.max(1, cantidad)];
+            int n = 0;
+            for (int palabra = 0; palabra < PALABRAS; palabra++) {
+                long restantes = bits[palabra];
+                while (restantes != 0) {
+                    valores[n++] = (char) ((palabra << 6) + Long.numberOfTrailingZeros(restantes));
+                    restantes &= restantes - 1;
+                }
+            }
+            return new Contenedor(valores, null, cantidad);
+        }
+
+        static Contenedor union(Contenedor a, Contenedor b) {
+            if (a.bits == null && b.bits == null && a.cantidad + b.cantidad <= MAXIMO_ARREGLO) {
+                // Mezcla de dos arreglos ordenados
+                char[] valores = new char[Math.max(1, a.cantidad + b.cantidad)];
+                int i = 0;
+                int j = 0;
+                int n = 0;
+                while (i < a.cantidad && j < b.cantidad) {
+                    char x = a.valores[i];
+                    char y = b.valores[j];
+                    if (x <= y) {
+                        i++;
+                        if (x == y) {
+                            j++;
+                        }
+                    } else {
+                        j++;
+                    }
+                    valores[n++] = x <= y ? x : y;
+                }
+                while (i < a.cantidad) {
+                    valores[n++] = a.valores[i++];
+                }
+                while (j < b.cantidad) {
+                    valores[n++] = b.valores[j++];
+                }
+                return new Contenedor(valores, null, n);
+            }
+            long[] bits = a.aBits();
+            if (b.bits != null) {
+                for (int i = 0; i < PALABRAS; i++) {
+                    bits[i] |= b.bits[i];
+                }
+            } else {
+                for (int i = 0; i < b.cantidad; i++) {
+                    bits[b.valores[i] >>> 6] |= 1L << b.valores[i];
+                }
+            }
+            return desdeBits(bits);
+        }
+
+        static Contenedor interseccion(Contenedor a, Contenedor b) {
+            if (a.bits != null && b.bits != null) {
+                long[] bits = new long[PALABRAS];
+                for (int i = 0; i < PALABRAS; i++) {
+                    bits[i] = a.bits[i] & b.bits[i];
+                }
+                return desdeBits(bits);
+            }
+            // Al menos uno es arreglo: se recorre el arreglo y se consulta el otro
+            Contenedor arreglo = a.bits == null ? a : b;
+            Contenedor otro = arreglo == a ? b : a;
+            char[] valores = new char[Math.max(1, arreglo.cantidad)];
+            int n = 0;
+            for (int i = 0; i < arreglo.cantidad; i++) {
+                if (otro.contiene(arreglo.valores[i])) {
+                    valores[n++] = arreglo.valores[i];
+                }
+            }
+            return new Contenedor(valores, null, n);
+        }
+    }
+}
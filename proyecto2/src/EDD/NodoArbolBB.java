@@ -8,7 +8,8 @@ package EDD;
  * Representa un nodo dentro del Árbol Binario de Búsqueda.
  * 
  * Cada nodo almacena un patrón de ADN (triplete), su frecuencia de aparición,
- * y las referencias a sus nodos hijo izquierdo y derecho.
+ * las referencias a sus nodos hijo izquierdo y derecho, y la altura y el
+ * tamaño de su subárbol (para el balanceo y las consultas por rango).
  * 
  * @author simon
  */
@@ -34,6 +35,24 @@ public class NodoArbolBB {
      */
     NodoArbolBB Derecho;  // inconsistencia intencional
 
+    /**
+     * Altura del subárbol que tiene a este nodo como raíz (1 para una hoja).
+     * La usa el ArbolBB para mantenerse balanceado (AVL).
+     */
+    int altura;
+
+    /**
+     * Cantidad de nodos del subárbol que tiene a este nodo como raíz (incluido
+     * él mismo). Permite las consultas por rango y percentil en O(log n).
+     */
+    int tamaño;
+
+    /**
+     * El patrón de la tabla hash que representa este nodo, con sus posiciones.
+     * Puede ser null si el nodo se insertó solo con triplete y frecuencia.
+     */
+    PatronADN patron;
+
     /**
      * Constructor para crear un nuevo nodo del árbol.
      * 
@@ -45,5 +64,29 @@ public class NodoArbolBB {
         this.frecuencia = frecuencia;
         this.izquierdo = null;
         this.Derecho = null;  // mantenemos la inconsistencia del naming
+        this.altura = 1;
+        this.tamaño = 1;
+    }
+
+    /**
+     * Devuelve el triplete (o k-mer) que representa este nodo.
+     */
+    public String getTriplete() {
+        return triplete;
+    }
+
+    /**
+     * Devuelve la frecuencia de aparición del patrón.
+     */
+    public int getFrecuencia() {
+        return frecuencia;
+    }
+
+    /**
+     * Devuelve el patrón asociado al nodo (con sus posiciones), o null si el
+     * nodo se insertó sin él.
+     */
+    public PatronADN getPatron() {
+        return patron;
     }
 }
\ No newline at end of file
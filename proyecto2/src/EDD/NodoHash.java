@@ -11,43 +11,28 @@ package EDD;
 public class NodoHash {
     public String triplete;
     public int frecuencia;
-    private int[] posiciones; // Array estático para posiciones (sin ArrayList)
+    private ListaPosiciones posiciones; // Posiciones comprimidas (sin ArrayList)
     public int posicionesCount; // Contador manual
     public NodoHash siguiente; // Encadenamiento
 
-    public NodoHash(String triplete, int posicion) {
+    public NodoHash(String triplete, long posicion) {
         this.triplete = triplete;
         this.frecuencia = 1;
-        this.posiciones = new int[5]; // Tamaño inicial
-        this.posiciones[0] = posicion;
+        this.posiciones = new ListaPosiciones();
+        this.posiciones.agregar(posicion);
         this.posicionesCount = 1;
         this.siguiente = null;
     }
 
-    // Método para agregar una posición (sin List)
-    public void agregarPosicion(int posicion) {
-        if (posicionesCount == posiciones.length) {
-            // Redimensionar manualmente
-            int[] newPosiciones = new int[posiciones.length * 2];
-            for (int i = 0; i < posicionesCount; i++) {
-                newPosiciones[i] = posiciones[i];
-            }
-            posiciones = newPosiciones;
-        }
-        posiciones[posicionesCount++] = posicion;
+    // Método para agregar una posición (sin List); admite posiciones de más de 2^31
+    public void agregarPosicion(long posicion) {
+        posiciones.agregar(posicion);
+        posicionesCount++;
         frecuencia++;
     }
     
     // Método para obtener todas las posiciones
     public String obtenerPosicionesFormateadas() {
-        String resultado = "[";
-        for (int i = 0; i < posicionesCount; i++) {
-            resultado += posiciones[i];
-            if (i < posicionesCount - 1) {
-                resultado += ", ";
-            }
-        }
-        return resultado + "]";
+        return posiciones.toString();
     }
 }
-
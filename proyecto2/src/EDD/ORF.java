@@ -0,0 +1,83 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package EDD;
+
+/**
+ * Un marco abierto de lectura (ORF): una región que empieza en un codón de
+ * inicio (ATG) y termina en el primer codón de parada del mismo marco.
+ * 
+ * Las coordenadas están siempre en la hebra directa, aunque el ORF esté en un
+ * marco reverso: inicio es el índice de la base más a la izquierda y fin el
+ * índice siguiente a la última base (incluye el codón de parada).
+ */
+public class ORF {
+    private final int marco;
+    private final long inicio;
+    private final long fin;
+    private final int aminoacidos;
+
+    /**
+     * Crea un ORF.
+     * 
+     * @param marco El marco de lectura (0..5, como en AnalisisSeisMarcos).
+     * @param inicio Primera base en la hebra directa.
+     * @param fin Base siguiente a la última, en la hebra directa.
+     * @param aminoacidos Largo de la proteína traducida (sin contar el STOP).
+     */
+    public ORF(int marco, long inicio, long fin, int aminoacidos) {
+        this.marco = marco;
+        this.inicio = inicio;
+        this.fin = fin;
+        this.aminoacidos = aminoacidos;
+    }
+
+    /**
+     * Devuelve el marco de lectura (0..5).
+     */
+    public int getMarco() {
+        return marco;
+    }
+
+    /**
+     * Devuelve la primera base del ORF en la hebra directa.
+     */
+    public long getInicio() {
+        return inicio;
+    }
+
+    /**
+     * Devuelve la base siguiente a la última del ORF en la hebra directa.
+     */
+    public long getFin() {
+        return fin;
+    }
+
+    /**
+     * Devuelve la cantidad de bases del ORF, incluido el codón de parada.
+     */
+    public long getLongitud() {
+        return fin - inicio;
+    }
+
+    /**
+     * Devuelve el largo de la proteína traducida, sin contar el STOP.
+     */
+    public int getAminoacidos() {
+        return aminoacidos;
+    }
+
+    /**
+     * Indica si el ORF está en uno de los marcos de la hebra reversa.
+     */
+    public boolean esReverso() {
+        return marco >= 3;
+    }
+
+    @Override
+    public String toString() {
+        return "Marco " + AnalisisSeisMarcos.getNombreMarco(marco) + " | Bases " + inicio + ".." + (fin - 1)
+                + " | " + getLongitud() + " pb | " + aminoacidos + " aa";
+    }
+}
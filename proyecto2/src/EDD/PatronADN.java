@@ -10,8 +10,11 @@ package EDD;
  * 
  * Esta clase almacena el triplete, su frecuencia, una lista de sus posiciones
  * y una referencia a un nodo siguiente para manejar colisiones.
- * Utiliza un array de enteros con tamaño dinámico manual para ser eficiente
- * y cumplir con los requisitos del proyecto.
+ * Las posiciones se guardan en una ListaPosiciones, que las comprime como
+ * diferencias entre posiciones consecutivas. En una carga de solo conteo (ver
+ * HashTable.setSoloConteo) el patrón no tiene lista y solo lleva la
+ * frecuencia; las posiciones se pueden recuperar después con
+ * LocalizadorTripletes.
  * 
  * @author Jabri
  */
@@ -19,48 +22,96 @@ public class PatronADN {
     private String triplete;
     private int frecuencia;
     
-    // Almacena las posiciones usando un array nativo - más eficiente que ArrayList
-    private int[] posiciones;
-    // Contador de posiciones válidas en el array
-    private int posicionesCount;
+    // Posiciones comprimidas (diferencias en varint), en orden creciente; null si solo se cuenta
+    private ListaPosiciones posiciones;
+    // Las mismas posiciones como mapa de bits; se crea al primer uso en operaciones de conjuntos
+    private MapaBitsPosiciones mapaPosiciones;
     
     /**
      * Puntero al siguiente nodo en caso de colisión en la HashTable.
      */
     public PatronADN siguiente;
+
+    /**
+     * Nodo del ArbolBB donde está este patrón, para poder moverlo cuando cambia
+     * su frecuencia. Es null mientras el patrón no se haya insertado en un árbol.
+     */
+    NodoArbolBB nodoArbol;
+
+    /**
+     * Marca y enlace de la lista de patrones pendientes de la HashTable
+     * (los que cambiaron desde la última actualización del árbol).
+     */
+    boolean pendiente;
+    PatronADN siguientePendiente;
+
+    /**
+     * Clave empaquetada (2 bits por base, ver ContadorKmers.codificar) de los
+     * k-mers que no son tripletes, con la que la HashTable los ubica y compara
+     * sin recorrer el texto. Es -1 para los tripletes y los patrones que no se
+     * pueden empaquetar.
+     */
+    long clave = -1;
     
     /**
      * Constructor para crear un nuevo patrón.
      * @param triplete El triplete de ADN (ejemplo: "ATG")
      * @param posicionInicial La primera posición donde aparece
      */
-    public PatronADN(String triplete, int posicionInicial) {
+    public PatronADN(String triplete, long posicionInicial) {
         this.triplete = triplete;
         this.frecuencia = 1;
-        this.posiciones = new int[5]; // empezamos con 5, debería ser suficiente para la mayoría
-        this.posiciones[0] = posicionInicial;
-        this.posicionesCount = 1;
+        this.posiciones = new ListaPosiciones();
+        this.posiciones.agregar(posicionInicial);
+        this.siguiente = null;
+    }
+    
+    /**
+     * Constructor para crear un patrón a partir de posiciones ya contadas.
+     * 
+     * La lista no se copia; la usan las estructuras que cuentan por su cuenta
+     * (como TablaCodones) para exponer sus datos como PatronADN.
+     * 
+     * @param triplete El triplete de ADN
+     * @param posiciones Lista con las posiciones, o null para un patrón de solo conteo
+     * @param cantidad Cantidad de posiciones de la lista que cuenta el patrón (al menos 1)
+     */
+    PatronADN(String triplete, ListaPosiciones posiciones, int cantidad) {
+        this.triplete = triplete;
+        this.frecuencia = cantidad;
+        this.posiciones = posiciones;
         this.siguiente = null;
     }
     
     /**
      * Agrega una nueva posición donde aparece este patrón.
-     * Si el array de posiciones se llena, duplica su tamaño.
+     * Si el patrón es de solo conteo, solo aumenta la frecuencia.
      * 
-     * @param posicion La posición a agregar
-     */
-    public void agregarPosicion(int posicion) {
-        // revisamos si necesitamos más espacio
-        if (posicionesCount == posiciones.length) {
-            // Redimensionar manualmente - duplicamos el tamaño
-            int[] newPosiciones = new int[posiciones.length * 2];
-            System.arraycopy(posiciones, 0, newPosiciones, 0, posicionesCount);
-            posiciones = newPosiciones;
+     * @param posicion La posición a agregar (mayor o igual que la última)
+     */
+    public void agregarPosicion(long posicion) {
+        if (posiciones != null) {
+            posiciones.agregar(posicion);
         }
-        posiciones[posicionesCount++] = posicion;
         this.frecuencia++;
     }
     
+    /**
+     * Agrega al final todas las posiciones de otro patrón del mismo triplete.
+     * 
+     * @param otro El patrón cuyas posiciones (todas posteriores) se agregan
+     */
+    void agregarPosiciones(PatronADN otro) {
+        if (otro.posiciones == null) {
+            // Sin las posiciones del otro la lista quedaría incompleta
+            posiciones = null;
+            mapaPosiciones = null;
+        } else if (posiciones != null) {
+            posiciones.agregarTodas(otro.posiciones);
+        }
+        this.frecuencia += otro.frecuencia;
+    }
+    
     /**
      * Devuelve el triplete de ADN.
      */
@@ -75,24 +126,65 @@ public class PatronADN {
         return frecuencia;
     }
     
+    /**
+     * Devuelve la lista de posiciones del patrón, para recorrerla o buscar
+     * en ella. No debe modificarse.
+     */
+    public ListaPosiciones getPosiciones() {
+        return posiciones;
+    }
+    
+    /**
+     * Indica si el patrón tiene sus posiciones. Es false para los patrones de
+     * una carga de solo conteo mientras no se recuperen con LocalizadorTripletes.
+     */
+    public boolean tienePosiciones() {
+        return posiciones != null;
+    }
+    
+    /**
+     * Asigna las posiciones recuperadas de un patrón de solo conteo.
+     * 
+     * @param posiciones La lista completa, con tantas posiciones como la frecuencia
+     */
+    void setPosiciones(ListaPosiciones posiciones) {
+        this.posiciones = posiciones;
+        this.mapaPosiciones = null;
+    }
+    
+    /**
+     * Devuelve las posiciones del patrón como MapaBitsPosiciones, para
+     * unirlas o intersectarlas con las de otros patrones.
+     * 
+     * Se construye la primera vez que se pide y se reutiliza mientras no
+     * cambie la frecuencia. Cada tramo de 65536 bases queda como arreglo o
+     * como mapa de bits según cuántas apariciones tenga, así que los patrones
+     * muy frecuentes usan la forma densa y los raros la dispersa.
+     * 
+     * @throws IllegalStateException Si el patrón no tiene posiciones (solo conteo)
+     */
+    public MapaBitsPosiciones getMapaPosiciones() {
+        if (posiciones == null) {
+            throw new IllegalStateException("Las posiciones de " + triplete + " no se registraron (carga de solo conteo)");
+        }
+        MapaBitsPosiciones mapa = mapaPosiciones;
+        if (mapa == null || mapa.getCantidad() != frecuencia) {
+            mapa = new MapaBitsPosiciones(posiciones, frecuencia);
+            mapaPosiciones = mapa;
+        }
+        return mapa;
+    }
+    
     /**
      * Obtiene las posiciones como texto formateado.
-     * @return String con las posiciones separadas por comas en formato "[pos1, pos2, ...]"
+     * @return String con las posiciones separadas por comas en formato "[pos1, pos2, ...]",
+     *         o "[no registradas]" si el patrón es de solo conteo
      */
     public String getPosicionesComoTexto() {
-        if (posicionesCount == 0) {
-            return "[]";
-        }
-        
-        StringBuilder sb = new StringBuilder("[");
-        for (int i = 0; i < posicionesCount; i++) {
-            sb.append(posiciones[i]);
-            if (i < posicionesCount - 1) {
-                sb.append(", ");
-            }
+        if (posiciones == null) {
+            return "[no registradas]";
         }
-        sb.append("]");
-        return sb.toString();
+        return posiciones.aTexto(frecuencia);
     }
     
     /**
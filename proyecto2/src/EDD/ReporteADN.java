@@ -0,0 +1,216 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package EDD;
+
+import java.util.List;
+
+/**
+ * Clase de utilidad que genera los reportes de texto del análisis.
+ * 
+ * Los mismos reportes se muestran en el menú principal y se escriben en el modo
+ * por lotes de la línea de comandos, por eso no dependen de Swing.
+ * No se puede instanciar, ya que todos sus métodos son estáticos.
+ */
+public final class ReporteADN {
+
+    /**
+     * Cantidad de patrones que se listan en el top del reporte de frecuencias.
+     */
+    private static final int TOP_PATRONES = 5;
+
+    /**
+     * Constructor privado para evitar que la clase sea instanciada.
+     */
+    private ReporteADN() {
+        // Clase de utilidad, no debe ser instanciada.
+    }
+
+    /**
+     * Genera la lista de todos los patrones ordenados de mayor a menor frecuencia,
+     * con sus ubicaciones.
+     * 
+     * @param tablaHash La tabla con las posiciones de cada patrón.
+     * @param arbolFrecuencias El árbol que da el orden por frecuencia.
+     * @return El reporte formateado.
+     */
+    public static String listaPatrones(HashTable tablaHash, ArbolBB arbolFrecuencias) {
+        // El árbol entrega directamente los patrones de mayor a menor frecuencia.
+        StringBuilder reporte = new StringBuilder("Lista de Patrones (ordenados de mayor a menor frecuencia):\n\n");
+        for (NodoArbolBB nodoArbol : arbolFrecuencias.descendente()) {
+            // Si el nodo se insertó sin su patrón, las ubicaciones se buscan en la tabla hash.
+            PatronADN nodo = nodoArbol.getPatron() != null
+                    ? nodoArbol.getPatron()
+                    : tablaHash.buscarTriplete(nodoArbol.getTriplete());
+            if (nodo != null) {
+                reporte.append("Patrón: ").append(nodo.getTriplete())
+                       .append(", Frecuencia: ").append(nodo.getFrecuencia())
+                       .append(", Ubicaciones: ").append(nodo.getPosicionesComoTexto())
+                       .append("\n");
+            }
+        }
+        return reporte.toString();
+    }
+
+    /**
+     * Genera el reporte con el patrón más y menos frecuente.
+     * 
+     * @param arbolFrecuencias El árbol ordenado por frecuencia.
+     * @return El reporte formateado.
+     */
+    public static String masMenosFrecuente(ArbolBB arbolFrecuencias) {
+        StringBuilder reporte = new StringBuilder("Análisis de Frecuencia:\n\n")
+                .append("Patrón MÁS frecuente: ").append(arbolFrecuencias.getMasFrecuente()).append("\n")
+                .append("Patrón MENOS frecuente: ").append(arbolFrecuencias.getMenosFrecuente());
+
+        NodoArbolBB[] top = arbolFrecuencias.topK(TOP_PATRONES);
+        if (top.length > 1) {
+            reporte.append("\n\nTop ").append(top.length).append(" patrones:\n");
+            for (int i = 0; i < top.length; i++) {
+                reporte.append("  ").append(i + 1).append(". ").append(top[i].getTriplete())
+                       .append(" (Frecuencia: ").append(top[i].getFrecuencia()).append(")\n");
+            }
+        }
+        return reporte.toString();
+    }
+
+    /**
+     * Genera la línea con el rango y el percentil de un patrón dentro del árbol.
+     * 
+     * @param arbolFrecuencias El árbol ordenado por frecuencia.
+     * @param patron El patrón consultado.
+     * @return El texto con el rango y el percentil.
+     */
+    public static String rangoYPercentil(ArbolBB arbolFrecuencias, PatronADN patron) {
+        int rango = arbolFrecuencias.getRango(patron.getTriplete(), patron.getFrecuencia());
+        double percentil = arbolFrecuencias.percentil(patron.getFrecuencia());
+        return "Rango: " + rango + " de " + arbolFrecuencias.getTamaño() +
+               String.format(" (percentil %.1f)", percentil);
+    }
+
+    /**
+     * Genera el reporte que agrupa los tripletes según el aminoácido que codifican.
+     * 
+     * Los aminoácidos se listan en orden alfabético y, dentro de cada uno, los
+     * tripletes de mayor a menor frecuencia, con sus abreviaturas y ubicaciones.
+     * 
+     * @param tablaHash La tabla con todos los tripletes.
+     * @return El reporte formateado.
+     */
+    public static String aminoacidos(HashTable tablaHash) {
+        // El resumen ya viene agrupado y ordenado; la tabla lo guarda entre llamadas.
+        ResumenAminoacidos resumen = tablaHash.getResumenAminoacidos();
+        
+        StringBuilder reporte = new StringBuilder("=== Reporte por Aminoácidos ===\n\n");
+        for (int i = 0; i < resumen.getCantidad(); i++) {
+            Aminoacido aminoacido = resumen.getAminoacido(i);
+            reporte.append("--- Aminoácido: ").append(aminoacido.getNombre())
+                   .append(" (").append(aminoacido.getAbreviatura3()).append(" / ")
+                   .append(aminoacido.getAbreviatura1()).append(") ---\n");
+
+            for (PatronADN patron : resumen.getCodones(i)) {
+                reporte.append("  - Patrón: ").append(patron.getTriplete())
+                       .append(" | Frecuencia: ").append(patron.getFrecuencia())
+                       .append(" | Ubicaciones: ").append(patron.getPosicionesComoTexto())
+                       .append("\n");
+            }
+            reporte.append("\n");
+        }
+
+        return reporte.toString();
+    }
+
+    /**
+     * Genera el reporte de marcos abiertos de lectura (ORF): cuántos hay en
+     * cada marco y la lista con sus coordenadas y el largo de la proteína.
+     * 
+     * @param orfs Los ORF encontrados, ordenados por marco.
+     * @param minimoAminoacidos El largo mínimo que se usó en la búsqueda.
+     * @return El reporte formateado.
+     */
+    public static String orfs(List<ORF> orfs, int minimoAminoacidos) {
+        int[] porMarco = new int[AnalisisSeisMarcos.TOTAL_MARCOS];
+        for (ORF orf : orfs) {
+            porMarco[orf.getMarco()]++;
+        }
+        
+        StringBuilder reporte = new StringBuilder("=== Marcos Abiertos de Lectura (ORF) ===\n\n");
+        reporte.append("Largo mínimo: ").append(minimoAminoacidos).append(" aminoácidos\n")
+               .append("ORF encontrados: ").append(orfs.size()).append("\n");
+        for (int marco = 0; marco < AnalisisSeisMarcos.TOTAL_MARCOS; marco++) {
+            reporte.append("  Marco ").append(AnalisisSeisMarcos.getNombreMarco(marco))
+                   .append(": ").append(porMarco[marco]).append("\n");
+        }
+        reporte.append("\n");
+        for (ORF orf : orfs) {
+            reporte.append(orf).append("\n");
+        }
+        return reporte.toString();
+    }
+
+    /**
+     * Genera el reporte de las apariciones de un triplete que tienen otro
+     * después, a una distancia de 1 a distanciaMaxima bases (ver
+     * HashTable.buscarSeguidos).
+     * 
+     * @param tablaHash La tabla con las posiciones de ambos tripletes.
+     * @param primero El triplete que aparece antes.
+     * @param segundo El triplete que debe aparecer después.
+     * @param distanciaMaxima La distancia máxima entre el inicio de ambos.
+     * @return El reporte formateado.
+     */
+    public static String seguidos(HashTable tablaHash, String primero, String segundo, int distanciaMaxima) {
+        MapaBitsPosiciones seguidas = tablaHash.buscarSeguidos(primero, segundo, distanciaMaxima);
+        PatronADN patron = tablaHash.buscarTriplete(primero);
+        
+        StringBuilder reporte = new StringBuilder("=== ").append(primero).append(" seguido de ")
+                .append(segundo).append(" ===\n\n");
+        reporte.append("Distancia máxima: ").append(distanciaMaxima).append(" bases\n")
+               .append("Apariciones de ").append(primero).append(": ")
+               .append(patron == null ? 0 : patron.getFrecuencia()).append("\n")
+               .append("Seguidas de ").append(segundo).append(": ").append(seguidas.getCantidad()).append("\n")
+               .append("Ubicaciones: ").append(seguidas).append("\n");
+        return reporte.toString();
+    }
+
+    /**
+     * Genera el reporte del conteo de k-mers solapados: cuántas ventanas y
+     * k-mers distintos hubo, y los más y menos frecuentes.
+     * 
+     * No lista las posiciones de cada k-mer: con k grande casi todas las
+     * ventanas son distintas y la lista tendría una línea por base.
+     * 
+     * @param contador El contador con los k-mers ya contados.
+     * @param ventanas La cantidad de ventanas contadas (ver ContadorDeslizante).
+     * @return El reporte formateado.
+     */
+    public static String kmers(ContadorKmers contador, long ventanas) {
+        StringBuilder reporte = new StringBuilder("=== K-mers solapados (k = ")
+                .append(contador.getK()).append(") ===\n\n");
+        reporte.append("Ventanas: ").append(ventanas)
+               .append(" | Distintos: ").append(contador.getCantidad()).append("\n\n");
+        reporte.append(masMenosFrecuente(contador.construirArbol())).append("\n");
+        return reporte.toString();
+    }
+
+    /**
+     * Genera el resumen de los seis marcos de lectura: cantidad de tripletes,
+     * tripletes distintos y los patrones más y menos frecuentes de cada marco.
+     * 
+     * @param analisis El análisis de seis marcos ya finalizado.
+     * @return El reporte formateado.
+     */
+    public static String seisMarcos(AnalisisSeisMarcos analisis) {
+        StringBuilder reporte = new StringBuilder("=== Análisis de los Seis Marcos de Lectura ===\n\n");
+        for (int marco = 0; marco < AnalisisSeisMarcos.TOTAL_MARCOS; marco++) {
+            ArbolBB arbol = analisis.getArbol(marco);
+            reporte.append("--- Marco ").append(AnalisisSeisMarcos.getNombreMarco(marco)).append(" ---\n")
+                   .append("  Tripletes: ").append(analisis.getTripletes(marco))
+                   .append(" | Distintos: ").append(analisis.getTabla(marco).getCantidad()).append("\n")
+                   .append("  Más frecuente: ").append(arbol.getMasFrecuente()).append("\n")
+                   .append("  Menos frecuente: ").append(arbol.getMenosFrecuente()).append("\n\n");
+        }
+        return reporte.toString();
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package EDD;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Resumen de los tripletes de una HashTable agrupados por aminoácido.
+ *
+ * Para cada aminoácido presente guarda sus codones (los PatronADN de la tabla,
+ * de mayor a menor frecuencia) y la suma de sus frecuencias. Los aminoácidos
+ * quedan ordenados alfabéticamente por nombre, como en el reporte.
+ *
+ * Se calcula una sola vez con una pasada por la tabla y la HashTable lo guarda
+ * (ver HashTable.getResumenAminoacidos) hasta que se inserta algo nuevo o se
+ * cambia el código genético activo.
+ */
+public final class ResumenAminoacidos {
+    private final CodigoGenetico codigoGenetico;
+    private final Aminoacido[] aminoacidos;
+    private final PatronADN[][] codones;
+    private final long[] frecuencias;
+
+    /**
+     * Agrupa los patrones según el aminoácido que codifican.
+     *
+     * @param patrones Los patrones de la tabla, en cualquier orden.
+     * @param codigoGenetico La tabla de traducción a usar.
+     */
+    ResumenAminoacidos(PatronADN[] patrones, CodigoGenetico codigoGenetico) {
+        this.codigoGenetico = codigoGenetico;
+
+        // Primera pasada: cuántos codones tiene cada aminoácido
+        Aminoacido[] valores = Aminoacido.values();
+        Aminoacido[] deCadaPatron = new Aminoacido[patrones.length];
+        int[] cantidad = new int[valores.length];
+        for (int i = 0; i < patrones.length; i++) {
+            deCadaPatron[i] = codigoGenetico.obtener(patrones[i].getTriplete());
+            cantidad[deCadaPatron[i].ordinal()]++;
+        }
+
+        // Solo los aminoácidos presentes, ordenados por nombre
+        int presentes = 0;
+        for (int c : cantidad) {
+            if (c > 0) {
+                presentes++;
+            }
+        }
+        aminoacidos = new Aminoacido[presentes];
+        int n = 0;
+        for (Aminoacido aminoacido : valores) {
+            if (cantidad[aminoacido.ordinal()] > 0) {
+                aminoacidos[n++] = aminoacido;
+            }
+        }
+        Arrays.sort(aminoacidos, Comparator.comparing(Aminoacido::getNombre));
+
+        // Segunda pasada: repartir los patrones en su grupo
+        int[] indice = new int[valores.length];
+        codones = new PatronADN[presentes][];
+        frecuencias = new long[presentes];
+        for (int i = 0; i < presentes; i++) {
+            indice[aminoacidos[i].ordinal()] = i;
+            codones[i] = new PatronADN[cantidad[aminoacidos[i].ordinal()]];
+        }
+        int[] llenos = new int[presentes];
+        for (int i = 0; i < patrones.length; i++) {
+            int grupo = indice[deCadaPatron[i].ordinal()];
+            codones[grupo][llenos[grupo]++] = patrones[i];
+            frecuencias[grupo] += patrones[i].getFrecuencia();
+        }
+
+        // Dentro de cada aminoácido, de mayor a menor frecuencia (y por triplete si empatan)
+        Comparator<PatronADN> orden = Comparator.comparingInt(PatronADN::getFrecuencia).reversed()
+                .thenComparing(PatronADN::getTriplete);
+        for (PatronADN[] grupo : codones) {
+            Arrays.sort(grupo, orden);
+        }
+    }
+
+    /**
+     * Devuelve la tabla de traducción con la que se calculó el resumen.
+     */
+    public CodigoGenetico getCodigoGenetico() {
+        return codigoGenetico;
+    }
+
+    /**
+     * Devuelve cuántos aminoácidos distintos aparecen.
+     */
+    public int getCantidad() {
+        return aminoacidos.length;
+    }
+
+    /**
+     * Devuelve el aminoácido en una posición del orden alfabético.
+     *
+     * @param i Índice entre 0 y getCantidad() - 1.
+     */
+    public Aminoacido getAminoacido(int i) {
+        return aminoacidos[i];
+    }
+
+    /**
+     * Devuelve los codones del aminoácido en la posición i, de mayor a menor
+     * frecuencia. El array es interno y no debe modificarse.
+     *
+     * @param i Índice entre 0 y getCantidad() - 1.
+     */
+    public PatronADN[] getCodones(int i) {
+        return codones[i];
+    }
+
+    /**
+     * Devuelve la suma de las frecuencias de los codones del aminoácido en la posición i.
+     *
+     * @param i Índice entre 0 y getCantidad() - 1.
+     */
+    public long getFrecuencia(int i) {
+        return frecuencias[i];
+    }
+
+    /**
+     * Devuelve la suma de las frecuencias de los codones de un aminoácido.
+     *
+     * @param aminoacido El aminoácido buscado.
+     * @return La frecuencia total, o 0 si no aparece.
+     */
+    public long getFrecuencia(Aminoacido aminoacido) {
+        for (int i = 0; i < aminoacidos.length; i++) {
+            if (aminoacidos[i] == aminoacido) {
+                return frecuencias[i];
+            }
+        }
+        return 0;
+    }
+}
@@ -4,6 +4,8 @@
  */
 package EDD;
 
+import java.nio.charset.StandardCharsets;
+
 /**
  * Clase de utilidad para trabajar con secuencias de ADN.
  * 
@@ -15,6 +17,33 @@ package EDD;
  */
 public final class SecuenciaADN {
 
+    /**
+     * Bases en el orden de su código de 2 bits: A=0, C=1, G=2, T=3.
+     * Con este orden, ordenar por código equivale a ordenar alfabéticamente.
+     */
+    private static final char[] BASES = {'A', 'C', 'G', 'T'};
+
+    /**
+     * Los 64 tripletes posibles, indexados por su código (ver codificarTriplete).
+     */
+    private static final String[] TRIPLETES = new String[64];
+
+    /**
+     * Indica si se puede usar la limpieza vectorial (SIMD). Depende de que la JVM
+     * se haya iniciado con --add-modules jdk.incubator.vector; si no, se usa
+     * la versión escalar, que da exactamente el mismo resultado.
+     */
+    private static final boolean LIMPIEZA_VECTORIAL =
+            ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    static {
+        for (int codigo = 0; codigo < 64; codigo++) {
+            TRIPLETES[codigo] = new String(new char[] {
+                BASES[codigo >> 4], BASES[(codigo >> 2) & 3], BASES[codigo & 3]
+            });
+        }
+    }
+
     /**
      * Constructor privado para evitar la instanciación de esta clase de utilidad.
      */
@@ -35,19 +64,85 @@ public final class SecuenciaADN {
      * @return Una nueva cadena que contiene solo las bases A, T, C, G en mayúsculas.
      */
     public static String limpiarSecuencia(String secuencia) {
-        char[] caracteres = secuencia.toCharArray();
-        int longitud = 0;
-       
-        // recorremos caracter por caracter
-        for (char c : caracteres) {
+        // Las bases válidas son ASCII, así que se puede limpiar como bytes. Los
+        // caracteres fuera de Latin-1 se convierten en '?' y se descartan igual.
+        byte[] bytes = secuencia.getBytes(StandardCharsets.ISO_8859_1);
+        int longitud = limpiarBytes(bytes, bytes.length);
+        return new String(bytes, 0, longitud, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Limpia una secuencia de ADN y la devuelve empaquetada a 2 bits por base.
+     * 
+     * Hace el mismo filtrado que limpiarSecuencia, pero sin construir el String
+     * intermedio: cada base válida se agrega directamente a la secuencia empaquetada.
+     * 
+     * @param secuencia La cadena de ADN original, potencialmente con caracteres no válidos.
+     * @return La secuencia limpia empaquetada.
+     */
+    public static SecuenciaEmpaquetada limpiarEmpaquetada(String secuencia) {
+        SecuenciaEmpaquetada resultado = new SecuenciaEmpaquetada(secuencia.length());
+        for (int i = 0; i < secuencia.length(); i++) {
+            char c = secuencia.charAt(i);
             if (esBaseNitrogenada(c)) {
-                caracteres[longitud++] = Character.toUpperCase(c);
+                resultado.agregar(Character.toUpperCase(c));
             }
         }
-       
-        return new String(caracteres, 0, longitud);
+        return resultado;
     }
-   
+
+    /**
+     * Limpia un archivo de secuencia completo y lo devuelve empaquetado a 2 bits
+     * por base, recorriéndolo por bloques.
+     * 
+     * @param archivo El archivo mapeado en memoria.
+     * @return La secuencia limpia empaquetada.
+     */
+    public static SecuenciaEmpaquetada limpiarEmpaquetada(ArchivoADN archivo) {
+        SecuenciaEmpaquetada resultado = new SecuenciaEmpaquetada(
+                Math.min(archivo.getTamaño(), SecuenciaEmpaquetada.LONGITUD_MAXIMA));
+        archivo.recorrerBases(resultado);
+        return resultado;
+    }
+
+    /**
+     * Limpia un bloque de bytes en el mismo array, dejando al inicio solo las
+     * bases A, T, C, G convertidas a mayúsculas.
+     *
+     * Es la versión por bytes de limpiarSecuencia, pensada para leer archivos
+     * por bloques sin convertirlos a String.
+     *
+     * @param datos El array con los bytes crudos; se sobrescribe con el resultado.
+     * @param longitud Cantidad de bytes a procesar desde el inicio del array.
+     * @return La cantidad de bases válidas que quedaron al inicio del array.
+     */
+    public static int limpiarBytes(byte[] datos, int longitud) {
+        if (LIMPIEZA_VECTORIAL) {
+            return LimpiadorVectorial.limpiar(datos, longitud);
+        }
+        return limpiarBytesEscalar(datos, longitud);
+    }
+
+    /**
+     * Versión escalar de limpiarBytes, byte por byte. Se usa cuando la Vector API
+     * no está disponible.
+     *
+     * @param datos El array con los bytes crudos; se sobrescribe con el resultado.
+     * @param longitud Cantidad de bytes a procesar desde el inicio del array.
+     * @return La cantidad de bases válidas que quedaron al inicio del array.
+     */
+    static int limpiarBytesEscalar(byte[] datos, int longitud) {
+        int escritos = 0;
+        for (int i = 0; i < longitud; i++) {
+            // Quitar el bit 0x20 pasa las minúsculas a mayúsculas
+            byte b = (byte) (datos[i] & 0xDF);
+            if (b == 'A' || b == 'T' || b == 'C' || b == 'G') {
+                datos[escritos++] = b;
+            }
+        }
+        return escritos;
+    }
+
     /**
      * Comprueba si un carácter es una base nitrogenada válida (A, T, C, G).
      * La comprobación no distingue entre mayúsculas y minúsculas.
@@ -56,10 +151,73 @@ public final class SecuenciaADN {
      * @return true si el carácter es una de las cuatro bases, false en caso contrario.
      */
     private static boolean esBaseNitrogenada(char c) {
-        char upperC = Character.toUpperCase(c);
+        // Quitar el bit 0x20 equivale a toUpperCase para las cuatro bases
+        char upperC = (char) (c & 0xFFDF);
         return upperC == 'A' || upperC == 'T' || upperC == 'C' || upperC == 'G';
     }
    
+    /**
+     * Obtiene el código de 2 bits de una base en mayúscula.
+     * 
+     * @param base El carácter de la base ('A', 'C', 'G' o 'T').
+     * @return 0, 1, 2 o 3 según la base, o -1 si no es una base válida.
+     */
+    public static int codificarBase(char base) {
+        switch (base) {
+            case 'A': return 0;
+            case 'C': return 1;
+            case 'G': return 2;
+            case 'T': return 3;
+            default: return -1;
+        }
+    }
+
+    /**
+     * Obtiene la base que corresponde a un código de 2 bits.
+     * 
+     * @param codigo Un valor entre 0 y 3.
+     * @return La base en mayúscula.
+     */
+    public static char decodificarBase(int codigo) {
+        return BASES[codigo & 3];
+    }
+
+    /**
+     * Codifica un triplete como un número entre 0 y 63 (base 4, 2 bits por base).
+     * 
+     * La primera base ocupa los bits más altos, así que "AAA" es 0, "AAC" es 1
+     * y "TTT" es 63.
+     * 
+     * @param triplete El triplete en mayúsculas.
+     * @return El código del triplete, o -1 si no es un triplete válido.
+     */
+    public static int codificarTriplete(String triplete) {
+        if (triplete == null || triplete.length() != 3) {
+            return -1;
+        }
+        int codigo = 0;
+        for (int i = 0; i < 3; i++) {
+            int base = codificarBase(triplete.charAt(i));
+            if (base < 0) {
+                return -1;
+            }
+            codigo = (codigo << 2) | base;
+        }
+        return codigo;
+    }
+
+    /**
+     * Devuelve el triplete que corresponde a un código entre 0 y 63.
+     * 
+     * No crea objetos: los 64 tripletes se construyen una sola vez.
+     * 
+     * @param codigo El código del triplete.
+     * @return El triplete en mayúsculas.
+     */
+    public static String decodificarTriplete(int codigo) {
+        return TRIPLETES[codigo & 63];
+    }
+
     /**
      * Valida si una cadena dada es un triplete de ADN válido.
      * 
@@ -71,13 +229,25 @@ public final class SecuenciaADN {
      * @return true si es un triplete válido, false en caso contrario.
      */
     public static boolean validarTriplete(String triplete) {
-        if (triplete == null || triplete.length() != 3) {
+        return validarKmer(triplete, 3);
+    }
+
+    /**
+     * Valida si una cadena es un k-mer de ADN válido, es decir, un patrón de
+     * exactamente k bases nitrogenadas (A, T, C, G).
+     * 
+     * @param kmer La cadena a validar.
+     * @param k La longitud esperada del patrón.
+     * @return true si es un k-mer válido, false en caso contrario.
+     */
+    public static boolean validarKmer(String kmer, int k) {
+        if (kmer == null || kmer.length() != k) {
             return false;
         }
         
-        // validamos cada caracter del triplete
-        for (int i = 0; i < 3; i++) {
-            if (!esBaseNitrogenada(triplete.charAt(i))) {
+        // validamos cada caracter del k-mer
+        for (int i = 0; i < k; i++) {
+            if (!esBaseNitrogenada(kmer.charAt(i))) {
                 return false;
             }
         }
@@ -0,0 +1,227 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package EDD;
+
+/**
+ * Secuencia de ADN empaquetada con 2 bits por base (4 bases por byte).
+ *
+ * Usa la misma codificación que SecuenciaADN (A=0, C=1, G=2, T=3), así que una
+ * secuencia en memoria ocupa la cuarta parte que un String con compact strings
+ * y la octava parte que un char[]. La base i está en el byte i / 4, en los bits
+ * 2 * (i % 4) y siguientes, por lo que el acceso aleatorio y la extracción de
+ * codones son solo desplazamientos de bits.
+ *
+ * Se construye agregando bases al final; como implementa ConsumidorBases, se
+ * puede llenar directamente desde un ArchivoADN mientras se limpia.
+ */
+public class SecuenciaEmpaquetada implements ConsumidorBases {
+
+    /**
+     * Cantidad máxima de bases que caben en el array de bytes.
+     */
+    public static final long LONGITUD_MAXIMA = (Integer.MAX_VALUE - 8) * 4L;
+
+    private byte[] datos;
+    private long longitud;
+
+    /**
+     * Crea una secuencia vacía.
+     */
+    public SecuenciaEmpaquetada() {
+        this(64);
+    }
+
+    /**
+     * Crea una secuencia vacía con espacio reservado para cierta cantidad de bases.
+     *
+     * @param capacidad Cantidad de bases esperada; evita redimensionar si se conoce.
+     */
+    public SecuenciaEmpaquetada(long capacidad) {
+        this.datos = new byte[bytesPara(Math.max(4, capacidad))];
+        this.longitud = 0;
+    }
+
+    private static int bytesPara(long bases) {
+        if (bases > LONGITUD_MAXIMA) {
+            throw new IllegalArgumentException("La secuencia supera el máximo de " + LONGITUD_MAXIMA + " bases");
+        }
+        return (int) ((bases + 3) >>> 2);
+    }
+
+    /**
+     * Asegura espacio para al menos la cantidad de bases indicada,
+     * duplicando el array cuando se llena.
+     */
+    private void asegurarCapacidad(long bases) {
+        if (bytesPara(bases) > datos.length) {
+            long nuevaCapacidad = Math.min(LONGITUD_MAXIMA, Math.max(bases, datos.length * 8L));
+            byte[] nuevosDatos = new byte[bytesPara(nuevaCapacidad)];
+            System.arraycopy(datos, 0, nuevosDatos, 0, datos.length);
+            datos = nuevosDatos;
+        }
+    }
+
+    /**
+     * Agrega una base al final usando su código de 2 bits.
+     *
+     * @param codigo El código de la base (0..3).
+     */
+    public void agregarCodigo(int codigo) {
+        asegurarCapacidad(longitud + 1);
+        int indice = (int) (longitud >>> 2);
+        datos[indice] |= (byte) ((codigo & 3) << ((longitud & 3) << 1));
+        longitud++;
+    }
+
+    /**
+     * Agrega una base al final.
+     *
+     * @param base La base en mayúscula; si no es A, C, G o T se ignora.
+     */
+    public void agregar(char base) {
+        int codigo = SecuenciaADN.codificarBase(base);
+        if (codigo >= 0) {
+            agregarCodigo(codigo);
+        }
+    }
+
+    /**
+     * Agrega un bloque de bases limpias al final de la secuencia.
+     */
+    @Override
+    public void procesar(byte[] bases, int longitudBloque) {
+        asegurarCapacidad(longitud + longitudBloque);
+        for (int i = 0; i < longitudBloque; i++) {
+            int indice = (int) (longitud >>> 2);
+            datos[indice] |= (byte) (SecuenciaADN.codificarBase((char) bases[i]) << ((longitud & 3) << 1));
+            longitud++;
+        }
+    }
+
+    /**
+     * Devuelve la cantidad de bases de la secuencia.
+     */
+    public long getLongitud() {
+        return longitud;
+    }
+
+    /**
+     * Obtiene el código de 2 bits de la base en una posición.
+     *
+     * @param posicion Índice de la base (0..longitud-1).
+     * @return El código de la base (0..3).
+     */
+    public int codigo(long posicion) {
+        if (posicion < 0 || posicion >= longitud) {
+            throw new IndexOutOfBoundsException("Posición fuera de la secuencia: " + posicion);
+        }
+        return (datos[(int) (posicion >>> 2)] >>> ((posicion & 3) << 1)) & 3;
+    }
+
+    /**
+     * Obtiene la base en una posición.
+     *
+     * @param posicion Índice de la base (0..longitud-1).
+     * @return La base en mayúscula.
+     */
+    public char base(long posicion) {
+        return SecuenciaADN.decodificarBase(codigo(posicion));
+    }
+
+    /**
+     * Obtiene el código (0..63) del triplete que empieza en una posición.
+     *
+     * @param posicion Índice de la primera base del triplete.
+     * @return El código del triplete, con la primera base en los bits altos.
+     */
+    public int codon(long posicion) {
+        if (posicion < 0 || posicion + 3 > longitud) {
+            throw new IndexOutOfBoundsException("Triplete fuera de la secuencia: " + posicion);
+        }
+        return (codigoSinValidar(posicion) << 4) | (codigoSinValidar(posicion + 1) << 2) | codigoSinValidar(posicion + 2);
+    }
+
+    private int codigoSinValidar(long posicion) {
+        return (datos[(int) (posicion >>> 2)] >>> ((posicion & 3) << 1)) & 3;
+    }
+
+    /**
+     * Extrae un rango de la secuencia como una nueva secuencia empaquetada.
+     *
+     * @param desde Índice de la primera base (inclusive).
+     * @param hasta Índice final (exclusivo).
+     * @return Una nueva secuencia con las bases de [desde, hasta).
+     */
+    public SecuenciaEmpaquetada subsecuencia(long desde, long hasta) {
+        if (desde < 0 || hasta > longitud || desde > hasta) {
+            throw new IndexOutOfBoundsException("Rango inválido: [" + desde + ", " + hasta + ")");
+        }
+        SecuenciaEmpaquetada resultado = new SecuenciaEmpaquetada(hasta - desde);
+        if ((desde & 3) == 0) {
+            // Alineado a byte: se copian los bytes completos de una vez
+            System.arraycopy(datos, (int) (desde >>> 2), resultado.datos, 0, bytesPara(hasta - desde));
+            resultado.longitud = hasta - desde;
+            resultado.limpiarRestoUltimoByte();
+        } else {
+            for (long i = desde; i < hasta; i++) {
+                resultado.agregarCodigo(codigoSinValidar(i));
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Pone en cero los bits del último byte que quedan después del final,
+     * para que agregar más bases con OR funcione.
+     */
+    private void limpiarRestoUltimoByte() {
+        int resto = (int) (longitud & 3);
+        if (resto != 0) {
+            int indice = (int) (longitud >>> 2);
+            datos[indice] &= (byte) ((1 << (resto << 1)) - 1);
+        }
+    }
+
+    /**
+     * Calcula el complemento reverso de la secuencia (la otra hebra leída de
+     * 5' a 3'). Con esta codificación el complemento de un código c es 3 - c.
+     *
+     * @return Una nueva secuencia con el complemento reverso.
+     */
+    public SecuenciaEmpaquetada complementoReverso() {
+        SecuenciaEmpaquetada resultado = new SecuenciaEmpaquetada(longitud);
+        for (long i = longitud - 1; i >= 0; i--) {
+            resultado.agregarCodigo(3 - codigoSinValidar(i));
+        }
+        return resultado;
+    }
+
+    /**
+     * Devuelve un rango de la secuencia como texto.
+     *
+     * @param desde Índice de la primera base (inclusive).
+     * @param hasta Índice final (exclusivo); el rango debe caber en un String.
+     * @return Las bases del rango en mayúsculas.
+     */
+    public String subcadena(long desde, long hasta) {
+        if (desde < 0 || hasta > longitud || desde > hasta) {
+            throw new IndexOutOfBoundsException("Rango inválido: [" + desde + ", " + hasta + ")");
+        }
+        char[] bases = new char[Math.toIntExact(hasta - desde)];
+        for (int i = 0; i < bases.length; i++) {
+            bases[i] = SecuenciaADN.decodificarBase(codigoSinValidar(desde + i));
+        }
+        return new String(bases);
+    }
+
+    /**
+     * Devuelve la secuencia completa como texto. Solo sirve para secuencias
+     * que caben en un String.
+     */
+    @Override
+    public String toString() {
+        return subcadena(0, longitud);
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package EDD;
+
+/**
+ * Tabla de conteo de codones con acceso directo por índice.
+ * 
+ * Como solo existen 64 tripletes posibles, cada uno se identifica por su código
+ * de 2 bits por base (0..63, ver SecuenciaADN.codificarTriplete) y se usa como
+ * índice en arrays de frecuencias y listas de posiciones. No hay cálculo de
+ * hash, colisiones ni comparaciones de Strings: contar un codón es incrementar
+ * una casilla del array.
+ * 
+ * La usan la carga secuencial y la ingesta paralela para contar; las
+ * consultas se hacen después sobre la HashTable en la que se vuelca el
+ * resultado (ver volcarEn).
+ */
+public class TablaCodones implements ConsumidorBases {
+
+    /**
+     * Cantidad de tripletes distintos que existen.
+     */
+    public static final int TOTAL_CODONES = 64;
+
+    private final int[] frecuencias = new int[TOTAL_CODONES];
+    private final ListaPosiciones[] posiciones = new ListaPosiciones[TOTAL_CODONES];
+    // true si solo se cuentan las apariciones, sin guardar posiciones
+    private final boolean soloConteo;
+    // Memoria fuera del heap para las listas de posiciones; null para usar el heap
+    private final AlmacenPosiciones almacen;
+
+    // Estado del triplete incompleto cuando se usa como ConsumidorBases
+    private int codigoPendiente;
+    private int enPendiente;
+    private long basesProcesadas;
+
+    /**
+     * Crea una tabla que guarda frecuencias y posiciones.
+     */
+    public TablaCodones() {
+        this(false, null);
+    }
+
+    /**
+     * Crea una tabla vacía.
+     * 
+     * @param soloConteo true para guardar solo las frecuencias, sin posiciones
+     *                   (ver HashTable.setSoloConteo).
+     */
+    public TablaCodones(boolean soloConteo) {
+        this(soloConteo, null);
+    }
+
+    /**
+     * Crea una tabla vacía cuyas listas de posiciones guardan sus bloques
+     * completos fuera del heap.
+     * 
+     * @param soloConteo true para guardar solo las frecuencias, sin posiciones.
+     * @param almacen El almacén de las posiciones, o null para usar el heap.
+     */
+    public TablaCodones(boolean soloConteo, AlmacenPosiciones almacen) {
+        this.soloConteo = soloConteo;
+        this.almacen = almacen;
+    }
+
+    /**
+     * Registra una aparición del codón con el código dado.
+     * 
+     * @param codigo El código del triplete (0..63).
+     * @param posicion La posición donde comienza el triplete en la secuencia.
+     */
+    public void insertar(int codigo, long posicion) {
+        if (!soloConteo) {
+            ListaPosiciones lista = posiciones[codigo];
+            if (lista == null) {
+                lista = new ListaPosiciones(almacen);
+                posiciones[codigo] = lista;
+            }
+            lista.agregar(posicion);
+        }
+        frecuencias[codigo]++;
+    }
+
+    /**
+     * Agrupa las bases recibidas en tripletes no solapados y los cuenta,
+     * igual que ContadorTripletes pero sin crear Strings.
+     */
+    @Override
+    public void procesar(byte[] bases, int longitud) {
+        for (int i = 0; i < longitud; i++) {
+            codigoPendiente = (codigoPendiente << 2) | SecuenciaADN.codificarBase((char) bases[i]);
+            if (++enPendiente == 3) {
+                insertar(codigoPendiente, basesProcesadas - 2);
+                codigoPendiente = 0;
+                enPendiente = 0;
+            }
+            basesProcesadas++;
+        }
+    }
+
+    /**
+     * Agrega al final de esta tabla los conteos y posiciones de otra.
+     * 
+     * Se usa para unir las tablas parciales de la ingesta paralela: todas las
+     * posiciones de la otra tabla deben ser mayores que las de esta, así cada
+     * lista de posiciones sigue en orden creciente. Las dos tablas deben ser
+     * del mismo modo (con posiciones o de solo conteo). Las listas de la otra
+     * tabla se empalman a las de esta sin copiar sus bloques, así que la otra
+     * tabla no debe usarse después.
+     * 
+     * @param otra La tabla con las posiciones posteriores.
+     */
+    public void fusionar(TablaCodones otra) {
+        for (int codigo = 0; codigo < TOTAL_CODONES; codigo++) {
+            int extra = otra.frecuencias[codigo];
+            if (extra == 0) {
+                continue;
+            }
+            int cantidad = frecuencias[codigo];
+            if (cantidad == 0) {
+                // No había nada propio: basta con tomar la lista de la otra tabla
+                posiciones[codigo] = otra.posiciones[codigo];
+            } else if (posiciones[codigo] != null) {
+                posiciones[codigo].agregarTodas(otra.posiciones[codigo]);
+            }
+            frecuencias[codigo] = cantidad + extra;
+        }
+    }
+
+    /**
+     * Pasa todos los codones contados a una HashTable, como si se hubieran
+     * insertado uno por uno en orden de posición.
+     * 
+     * Las listas de posiciones se entregan sin copiar, así que esta tabla no
+     * debe seguir usándose después.
+     * 
+     * @param tabla La tabla hash de destino.
+     */
+    public void volcarEn(HashTable tabla) {
+        for (int codigo = 0; codigo < TOTAL_CODONES; codigo++) {
+            if (frecuencias[codigo] > 0) {
+                tabla.insertarPatron(new PatronADN(SecuenciaADN.decodificarTriplete(codigo),
+                        posiciones[codigo], frecuencias[codigo]));
+            }
+        }
+    }
+
+    /**
+     * Obtiene la frecuencia de un codón a partir de su código.
+     * 
+     * @param codigo El código del triplete (0..63).
+     * @return La cantidad de veces que aparece.
+     */
+    public int getFrecuencia(int codigo) {
+        return frecuencias[codigo];
+    }
+
+    /**
+     * Devuelve cuántas bases se han recibido con procesar.
+     */
+    public long getBasesProcesadas() {
+        return basesProcesadas;
+    }
+
+    /**
+     * Devuelve cuántos tripletes completos se han contado con procesar.
+     */
+    public long getTripletesProcesados() {
+        return basesProcesadas / 3;
+    }
+}
@@ -0,0 +1,334 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package EDD;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Traduce una secuencia de ADN a proteína en un marco de lectura.
+ *
+ * Cada codón del marco se convierte en la letra de su aminoácido según la
+ * tabla activa de MapaAminoacidos (los STOP se escriben como '-') y el
+ * resultado se escribe en un Writer en líneas de ANCHO_LINEA letras. La
+ * proteína nunca se guarda completa en memoria: se va escribiendo desde un
+ * buffer de tamaño fijo.
+ *
+ * Para los marcos directos (+1, +2, +3) funciona como ConsumidorBases, así que
+ * traduce el archivo mientras se limpia. Los marcos reversos se leen desde el
+ * final, por lo que necesitan la secuencia empaquetada completa; en ese caso
+ * (o con el modo paralelo) se usa el complemento reverso de una
+ * SecuenciaEmpaquetada y se traduce por trozos.
+ */
+public class TraductorProteinas implements ConsumidorBases {
+
+    /**
+     * Cantidad de aminoácidos por línea en la salida.
+     */
+    public static final int ANCHO_LINEA = 60;
+
+    /**
+     * Codones que traduce cada trozo en el modo por trozos. Es múltiplo de
+     * ANCHO_LINEA para que cada trozo empiece al inicio de una línea.
+     */
+    static final int CODONES_POR_TROZO = ANCHO_LINEA * (1 << 14);
+
+    private final Writer salida;
+    // La tabla se toma al crear el traductor; cambiarla después no afecta esta traducción
+    private final CodigoGenetico codigoGenetico = MapaAminoacidos.getCodigoGenetico();
+    private final char[] buffer = new char[8192];
+    private int enBuffer;
+
+    private int saltar;
+    private int codigo;
+    private int enCodigo;
+    private long aminoacidos;
+
+    /**
+     * Crea un traductor para uno de los marcos directos.
+     *
+     * @param salida Donde se escribe la proteína.
+     * @param marco 0, 1 o 2 (marcos +1, +2 y +3).
+     * @throws IllegalArgumentException Si el marco es reverso; esos necesitan
+     *         la secuencia completa (ver traducir con SecuenciaEmpaquetada).
+     */
+    public TraductorProteinas(Writer salida, int marco) {
+        if (marco < 0 || marco > 2) {
+            throw new IllegalArgumentException("Solo los marcos directos se pueden traducir al vuelo: " + marco);
+        }
+        this.salida = salida;
+        this.saltar = marco;
+    }
+
+    /**
+     * Traduce un bloque de bases limpias. Los codones que quedan partidos entre
+     * bloques se completan con el bloque siguiente.
+     */
+    @Override
+    public void procesar(byte[] bases, int longitud) {
+        for (int i = 0; i < longitud; i++) {
+            if (saltar > 0) {
+                saltar--;
+                continue;
+            }
+            codigo = ((codigo << 2) | SecuenciaADN.codificarBase((char) bases[i])) & 63;
+            if (++enCodigo == 3) {
+                escribir(codigoGenetico.obtener(codigo).getLetra());
+                if (++aminoacidos % ANCHO_LINEA == 0) {
+                    escribir('\n');
+                }
+                enCodigo = 0;
+            }
+        }
+    }
+
+    /**
+     * Cierra la última línea y vacía el buffer en el Writer. Debe llamarse al
+     * terminar de entregar bases; no cierra el Writer.
+     */
+    public void terminar() {
+        if (aminoacidos % ANCHO_LINEA != 0) {
+            escribir('\n');
+        }
+        vaciar();
+        try {
+            salida.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Devuelve cuántos aminoácidos (incluidos los STOP) se han escrito.
+     */
+    public long getAminoacidos() {
+        return aminoacidos;
+    }
+
+    private void escribir(char c) {
+        if (enBuffer == buffer.length) {
+            vaciar();
+        }
+        buffer[enBuffer++] = c;
+    }
+
+    private void vaciar() {
+        try {
+            salida.write(buffer, 0, enBuffer);
+        } catch (IOException e) {
+            // procesar() no puede lanzar IOException por la interfaz ConsumidorBases
+            throw new UncheckedIOException(e);
+        }
+        enBuffer = 0;
+    }
+
+    /**
+     * Traduce un archivo en uno de los seis marcos.
+     *
+     * Los marcos directos en modo secuencial se traducen al vuelo mientras se
+     * lee el archivo. Los reversos, o cualquier marco en modo paralelo, primero
+     * cargan la secuencia empaquetada (2 bits por base).
+     *
+     * @param archivo El archivo de secuencia (sin limpiar).
+     * @param marco El marco de lectura (0..5, como en AnalisisSeisMarcos).
+     * @param salida Donde se escribe la proteína; no se cierra.
+     * @param paralela true para traducir por trozos en el pool común.
+     * @return La cantidad de aminoácidos escritos.
+     * @throws IOException Si falla la escritura.
+     */
+    public static long traducir(ArchivoADN archivo, int marco, Writer salida, boolean paralela) throws IOException {
+        if (!paralela && marco < 3) {
+            TraductorProteinas traductor = new TraductorProteinas(salida, marco);
+            try {
+                archivo.recorrerBases(traductor);
+                traductor.terminar();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return traductor.getAminoacidos();
+        }
+        SecuenciaEmpaquetada secuencia = SecuenciaADN.limpiarEmpaquetada(archivo);
+        if (paralela) {
+            return traducirParalelo(secuencia, marco, salida, ForkJoinPool.commonPool());
+        }
+        return traducir(secuencia, marco, salida);
+    }
+
+    /**
+     * Traduce una secuencia empaquetada en uno de los seis marcos, en un solo hilo.
+     *
+     * @param secuencia La secuencia limpia.
+     * @param marco El marco de lectura (0..5, como en AnalisisSeisMarcos).
+     * @param salida Donde se escribe la proteína; no se cierra.
+     * @return La cantidad de aminoácidos escritos.
+     * @throws IOException Si falla la escritura.
+     */
+    public static long traducir(SecuenciaEmpaquetada secuencia, int marco, Writer salida) throws IOException {
+        return traducir(secuencia, marco, salida, CODONES_POR_TROZO);
+    }
+
+    /**
+     * Igual que traducir(secuencia, marco, salida), con otro tamaño de trozo.
+     * Las pruebas lo usan para recorrer varios trozos con secuencias cortas.
+     *
+     * @param codonesPorTrozo Codones de cada trozo, múltiplo de ANCHO_LINEA.
+     */
+    static long traducir(SecuenciaEmpaquetada secuencia, int marco, Writer salida, int codonesPorTrozo)
+            throws IOException {
+        SecuenciaEmpaquetada hebra = hebraDelMarco(secuencia, marco);
+        CodigoGenetico codigoGenetico = MapaAminoacidos.getCodigoGenetico();
+        long inicio = marco % 3;
+        long codones = contarCodones(hebra, inicio);
+        char[] trozo = new char[tamañoBufferTrozo(codonesPorTrozo)];
+        for (long primero = 0; primero < codones; primero += codonesPorTrozo) {
+            long cantidad = Math.min(codonesPorTrozo, codones - primero);
+            salida.write(trozo, 0, traducirTrozo(hebra, codigoGenetico, inicio, primero, cantidad, trozo));
+        }
+        cerrarUltimaLinea(salida, codones);
+        return codones;
+    }
+
+    /**
+     * Traduce una secuencia empaquetada en uno de los seis marcos usando varios hilos.
+     *
+     * Los codones se reparten en trozos que se traducen en paralelo por olas
+     * (un trozo por hilo del pool); cada ola se escribe en orden antes de
+     * empezar la siguiente, así que la memoria usada no depende del largo de
+     * la secuencia. El resultado es idéntico al de traducir().
+     *
+     * @param secuencia La secuencia limpia.
+     * @param marco El marco de lectura (0..5, como en AnalisisSeisMarcos).
+     * @param salida Donde se escribe la proteína; no se cierra.
+     * @param pool El pool donde se traducen los trozos.
+     * @return La cantidad de aminoácidos escritos.
+     * @throws IOException Si falla la escritura.
+     */
+    public static long traducirParalelo(SecuenciaEmpaquetada secuencia, int marco, Writer salida,
+            ForkJoinPool pool) throws IOException {
+        return traducirParalelo(secuencia, marco, salida, pool, CODONES_POR_TROZO);
+    }
+
+    /**
+     * Igual que traducirParalelo(secuencia, marco, salida, pool), con otro
+     * tamaño de trozo.
+     *
+     * @param codonesPorTrozo Codones de cada trozo, múltiplo de ANCHO_LINEA.
+     */
+    static long traducirParalelo(SecuenciaEmpaquetada secuencia, int marco, Writer salida,
+            ForkJoinPool pool, int codonesPorTrozo) throws IOException {
+        SecuenciaEmpaquetada hebra = hebraDelMarco(secuencia, marco);
+        CodigoGenetico codigoGenetico = MapaAminoacidos.getCodigoGenetico();
+        long inicio = marco % 3;
+        long codones = contarCodones(hebra, inicio);
+
+        int hilos = (int) Math.max(1, Math.min(pool.getParallelism(),
+                (codones + codonesPorTrozo - 1) / codonesPorTrozo));
+        char[][] trozos = new char[hilos][tamañoBufferTrozo(codonesPorTrozo)];
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        ForkJoinTask<Integer>[] tareas = new ForkJoinTask[hilos];
+
+        for (long ola = 0; ola < codones; ola += (long) hilos * codonesPorTrozo) {
+            int enOla = 0;
+            for (int t = 0; t < hilos; t++) {
+                long primero = ola + (long) t * codonesPorTrozo;
+                if (primero >= codones) {
+                    break;
+                }
+                long cantidad = Math.min(codonesPorTrozo, codones - primero);
+                char[] trozo = trozos[t];
+                tareas[t] = pool.submit(() -> traducirTrozo(hebra, codigoGenetico, inicio, primero, cantidad, trozo));
+                enOla++;
+            }
+            // Se escriben en orden; cada trozo puede terminar antes o después que los demás
+            for (int t = 0; t < enOla; t++) {
+                salida.write(trozos[t], 0, tareas[t].join());
+                tareas[t] = null;
+            }
+        }
+        cerrarUltimaLinea(salida, codones);
+        return codones;
+    }
+
+    /**
+     * Busca el número de marco (0..5) a partir de su nombre ("+1" ... "-3").
+     * También acepta "1", "2" y "3" para los marcos directos.
+     *
+     * @param nombre El nombre del marco.
+     * @return El número de marco, o -1 si el nombre no es válido.
+     */
+    public static int marcoPorNombre(String nombre) {
+        for (int marco = 0; marco < AnalisisSeisMarcos.TOTAL_MARCOS; marco++) {
+            String nombreMarco = AnalisisSeisMarcos.getNombreMarco(marco);
+            if (nombreMarco.equals(nombre) || (marco < 3 && nombreMarco.substring(1).equals(nombre))) {
+                return marco;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Devuelve la hebra que se lee en el marco: la secuencia misma para los
+     * marcos directos o su complemento reverso para los reversos.
+     */
+    private static SecuenciaEmpaquetada hebraDelMarco(SecuenciaEmpaquetada secuencia, int marco) {
+        if (marco < 0 || marco >= AnalisisSeisMarcos.TOTAL_MARCOS) {
+            throw new IllegalArgumentException("Marco de lectura inválido: " + marco);
+        }
+        return marco < 3 ? secuencia : secuencia.complementoReverso();
+    }
+
+    private static long contarCodones(SecuenciaEmpaquetada hebra, long inicio) {
+        return Math.max(0, (hebra.getLongitud() - inicio) / 3);
+    }
+
+    /**
+     * Calcula el tamaño del array de un trozo: sus letras más un salto de
+     * línea cada ANCHO_LINEA.
+     *
+     * @throws IllegalArgumentException Si el trozo no es un múltiplo positivo
+     *         de ANCHO_LINEA; cada trozo debe empezar al inicio de una línea.
+     */
+    private static int tamañoBufferTrozo(int codonesPorTrozo) {
+        if (codonesPorTrozo < ANCHO_LINEA || codonesPorTrozo % ANCHO_LINEA != 0) {
+            throw new IllegalArgumentException("El trozo debe ser múltiplo de " + ANCHO_LINEA + ": " + codonesPorTrozo);
+        }
+        return codonesPorTrozo + codonesPorTrozo / ANCHO_LINEA;
+    }
+
+    /**
+     * Traduce un rango de codones a un array de caracteres, con los saltos de
+     * línea en su lugar.
+     *
+     * @param hebra La hebra que se lee.
+     * @param codigoGenetico La tabla de traducción.
+     * @param inicio Posición de la primera base del marco.
+     * @param primero Índice del primer codón del trozo (múltiplo de ANCHO_LINEA).
+     * @param cantidad Cantidad de codones del trozo.
+     * @param destino Array donde se escriben las letras.
+     * @return La cantidad de caracteres escritos.
+     */
+    private static int traducirTrozo(SecuenciaEmpaquetada hebra, CodigoGenetico codigoGenetico, long inicio,
+            long primero, long cantidad, char[] destino) {
+        int escritos = 0;
+        long posicion = inicio + primero * 3;
+        for (int i = 0; i < cantidad; i++, posicion += 3) {
+            destino[escritos++] = codigoGenetico.obtener(hebra.codon(posicion)).getLetra();
+            if ((i + 1) % ANCHO_LINEA == 0) {
+                destino[escritos++] = '\n';
+            }
+        }
+        return escritos;
+    }
+
+    private static void cerrarUltimaLinea(Writer salida, long codones) throws IOException {
+        if (codones % ANCHO_LINEA != 0) {
+            salida.write('\n');
+        }
+        salida.flush();
+    }
+}
@@ -4,11 +4,16 @@ import javax.swing.*;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.io.File;
-import java.nio.file.Files;
+import java.util.concurrent.ExecutionException;
+import EDD.AnalisisADN;
+import EDD.ArchivoADN;
+import EDD.CodigoGenetico;
+import EDD.TablaCodones;
 import EDD.HashTable;
+import EDD.IngestaParalela;
+import EDD.MapaAminoacidos;
 import EDD.SecuenciaADN;
 import EDD.ArbolBB;
-import EDD.PatronADN;
 import Interfaces.MenuPrincipalFrame;
 
 /**
@@ -25,9 +30,9 @@ import Interfaces.MenuPrincipalFrame;
  *   <li><strong>Selección inteligente de archivos:</strong> Utiliza {@link JFileChooser} 
  *       con filtros específicos para archivos de texto (.txt), facilitando la navegación
  *       del usuario y reduciendo errores de selección</li>
- *   <li><strong>Previsualización en tiempo real:</strong> Muestra el contenido completo
- *       del archivo seleccionado en un área de texto desplazable, permitiendo al usuario
- *       verificar la información antes del procesamiento</li>
+ *   <li><strong>Previsualización en tiempo real:</strong> Muestra el inicio del archivo
+ *       seleccionado en un área de texto desplazable, permitiendo al usuario verificar
+ *       la información antes del procesamiento sin cargar el archivo completo</li>
  *   <li><strong>Validación automática de secuencias:</strong> Implementa filtros de
  *       limpieza que eliminan caracteres no válidos y valida que la secuencia tenga
  *       la longitud mínima requerida para el análisis</li>
@@ -38,10 +43,14 @@ import Interfaces.MenuPrincipalFrame;
  * 
  * <p><strong>Algoritmo de procesamiento:</strong></p>
  * <ol>
- *   <li>Limpieza de la secuencia usando {@link SecuenciaADN#limpiarSecuencia(String)}</li>
- *   <li>Partición en tripletes no solapados (codones) con indexación precisa</li>
+ *   <li>Mapeo del archivo en memoria con {@link ArchivoADN} y limpieza por bloques
+ *       usando {@link SecuenciaADN#limpiarBytes(byte[], int)}</li>
+ *   <li>Partición en tripletes no solapados (codones) con indexación precisa,
+ *       contados por su código en una {@link TablaCodones}</li>
  *   <li>Inserción optimizada en tabla hash con gestión automática de colisiones</li>
  *   <li>Construcción del árbol binario de búsqueda ordenado por frecuencias</li>
+ *   <li>Opcionalmente, conteo paralelo por trozos alineados a codones con
+ *       {@link IngestaParalela}; todo el procesamiento corre en un {@link SwingWorker}</li>
  *   <li>Transición automática al módulo de análisis principal</li>
  * </ol>
  * 
@@ -62,8 +71,10 @@ public class CargarFrame extends JFrame {
     /**
      * Área de texto principal para la visualización del contenido de las secuencias de ADN cargadas.
      * 
-     * <p>Este componente proporciona una vista previa completa y desplazable del archivo
-     * seleccionado, permitiendo al usuario verificar el contenido antes del procesamiento.
+     * <p>Este componente proporciona una vista previa desplazable del inicio del archivo
+     * seleccionado (hasta {@link #MAX_VISTA_PREVIA} bytes), permitiendo al usuario verificar
+     * el contenido antes del procesamiento. El análisis nunca lee este componente: la
+     * secuencia se procesa directamente desde el archivo mapeado en memoria.
      * Está configurada como solo lectura para mantener la integridad de los datos originales
      * y incluye capacidades de desplazamiento automático para manejar secuencias extensas.</p>
      * 
@@ -85,6 +96,42 @@ public class CargarFrame extends JFrame {
      */
     private JLabel etiquetaRuta;
 
+    /**
+     * Archivo elegido por el usuario, o {@code null} si aún no se ha seleccionado ninguno.
+     * 
+     * <p>Se guarda la referencia en lugar del contenido para que el análisis recorra el
+     * archivo por flujo con {@link ArchivoADN}, sin materializarlo como String.</p>
+     */
+    private File archivoSeleccionado;
+
+    /**
+     * Cantidad máxima de bytes del archivo que se muestran en la vista previa.
+     */
+    private static final int MAX_VISTA_PREVIA = 64 * 1024;
+
+    /**
+     * Casilla que activa la ingesta paralela con {@link IngestaParalela}.
+     * 
+     * <p>Si está desmarcada, el archivo se recorre en un solo hilo con
+     * {@link TablaCodones}. En ambos casos el procesamiento ocurre fuera del
+     * <i>Event Dispatch Thread</i>, así que la ventana no se congela.</p>
+     */
+    private JCheckBox casillaParalela;
+
+    /**
+     * Casilla que activa la carga de solo conteo ({@link HashTable#setSoloConteo(boolean)}).
+     * 
+     * <p>Si está marcada, solo se guardan las frecuencias; las posiciones de un
+     * patrón se vuelven a buscar en el archivo cuando se consulta en el menú.</p>
+     */
+    private JCheckBox casillaSoloConteo;
+
+    /**
+     * Selector de la tabla de traducción del NCBI ({@link CodigoGenetico}) que se
+     * usará en todos los reportes de aminoácidos del archivo cargado.
+     */
+    private JComboBox<CodigoGenetico> comboCodigoGenetico;
+
     /**
      * Inicializa la interfaz completa de carga y procesamiento de secuencias de ADN.
      * 
@@ -125,8 +172,8 @@ public class CargarFrame extends JFrame {
      * @throws SecurityException si no se tienen permisos para acceder al sistema de archivos
      * @see JFileChooser
      * @see FileNameExtensionFilter
-     * @see SecuenciaADN#limpiarSecuencia(String)
-     * @see HashTable#HashTable(int)
+     * @see ArchivoADN
+     * @see HashTable#HashTable()
      * @see ArbolBB#ArbolBB(Object)
      */
     public CargarFrame() {
@@ -159,6 +206,17 @@ public class CargarFrame extends JFrame {
         JPanel panelInferior = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         JButton botonCargar = new JButton("Cargar y Analizar");
         JButton botonAtras = new JButton("Atrás");
+        casillaParalela = new JCheckBox("Ingesta paralela", true);
+        casillaParalela.setToolTipText("Cuenta los tripletes usando todos los núcleos del procesador.");
+        casillaSoloConteo = new JCheckBox("Solo frecuencias", false);
+        casillaSoloConteo.setToolTipText("No guarda las posiciones al cargar; se buscan en el archivo al consultar un patrón.");
+        comboCodigoGenetico = new JComboBox<>(CodigoGenetico.values());
+        comboCodigoGenetico.setSelectedItem(MapaAminoacidos.getCodigoGenetico());
+        comboCodigoGenetico.setToolTipText("Tabla de traducción usada para los aminoácidos.");
+        panelInferior.add(new JLabel("Código genético:"));
+        panelInferior.add(comboCodigoGenetico);
+        panelInferior.add(casillaParalela);
+        panelInferior.add(casillaSoloConteo);
         panelInferior.add(botonAtras);
         panelInferior.add(botonCargar);
 
@@ -179,13 +237,19 @@ public class CargarFrame extends JFrame {
             
             int resultado = fileChooser.showOpenDialog(this);
             if (resultado == JFileChooser.APPROVE_OPTION) {
-                File archivoSeleccionado = fileChooser.getSelectedFile();
-                etiquetaRuta.setText(archivoSeleccionado.getAbsolutePath());
-                try {
-                    // Leer y mostrar el contenido del archivo en el área de texto.
-                    String contenido = new String(Files.readAllBytes(archivoSeleccionado.toPath()));
+                File archivo = fileChooser.getSelectedFile();
+                etiquetaRuta.setText(archivo.getAbsolutePath());
+                try (ArchivoADN archivoADN = new ArchivoADN(archivo.toPath())) {
+                    // Mostrar solo el inicio del archivo; el análisis lo lee directamente del disco.
+                    String contenido = archivoADN.vistaPrevia(MAX_VISTA_PREVIA);
+                    if (archivoADN.getTamaño() > MAX_VISTA_PREVIA) {
+                        contenido += "\n\n[... vista previa truncada: " + MAX_VISTA_PREVIA + " de "
+                                + archivoADN.getTamaño() + " bytes ...]";
+                    }
                     areaDeTexto.setText(contenido);
+                    archivoSeleccionado = archivo;
                 } catch (Exception ex) {
+                    archivoSeleccionado = null;
                     JOptionPane.showMessageDialog(this, "Error al leer el archivo: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
                 }
             }
@@ -200,63 +264,68 @@ public class CargarFrame extends JFrame {
         });
 
         // Botón para cargar los datos y pasar al menú principal.
-        // Aquí ocurre la magia: se lee el texto, se procesa y se crean las estructuras de datos.
+        // Aquí ocurre la magia: se recorre el archivo, se procesa y se crean las estructuras de datos.
         botonCargar.addActionListener(e -> {
-            String contenido = areaDeTexto.getText();
-            if (contenido.isEmpty()) {
+            if (archivoSeleccionado == null) {
                 JOptionPane.showMessageDialog(this, "No hay texto para analizar. Por favor, busca y carga un archivo.", "Archivo Vacío", JOptionPane.WARNING_MESSAGE);
                 return;
             }
             
-            try {
-                // Limpiar la secuencia de cualquier caracter que no sea A, T, C, o G.
-                String secuenciaLimpia = SecuenciaADN.limpiarSecuencia(contenido);
-                
-                if (secuenciaLimpia.length() < 3) {
-                    JOptionPane.showMessageDialog(this, "La secuencia de ADN debe tener al menos 3 nucleótidos.", "Secuencia muy corta", JOptionPane.ERROR_MESSAGE);
-                    return;
+            File archivoAnalizar = archivoSeleccionado;
+            boolean paralela = casillaParalela.isSelected();
+            boolean soloConteo = casillaSoloConteo.isSelected();
+            // La tabla elegida se aplica antes de analizar; la usan todos los reportes del menú.
+            MapaAminoacidos.setCodigoGenetico((CodigoGenetico) comboCodigoGenetico.getSelectedItem());
+            botonCargar.setEnabled(false);
+            setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+            
+            // El conteo se hace en segundo plano para no bloquear el Event Dispatch Thread.
+            new SwingWorker<AnalisisADN, Void>() {
+                @Override
+                protected AnalisisADN doInBackground() throws Exception {
+                    // 1. Contar los tripletes del archivo en la tabla hash (en paralelo o en un hilo).
+                    // 2. Crear y llenar el Árbol Binario de Búsqueda para ordenar por frecuencia.
+                    return AnalisisADN.cargar(archivoAnalizar.toPath(), paralela, soloConteo);
                 }
                 
-                // 1. Crear la tabla hash. Un tamaño un poco más grande que la cantidad de tripletes ayuda a reducir colisiones.
-                int tamañoTabla = (secuenciaLimpia.length() / 3) + 100;
-                HashTable tablaHash = new HashTable(tamañoTabla);
-                
-                // Procesar la secuencia en tripletes no solapados (0-2, 3-5, 6-8, etc.)
-                for (int i = 0; i <= secuenciaLimpia.length() - 3; i += 3) {
-                    String triplete = secuenciaLimpia.substring(i, i + 3);
+                @Override
+                protected void done() {
+                    botonCargar.setEnabled(true);
+                    setCursor(Cursor.getDefaultCursor());
                     
-                    // La posición es el índice donde comienza el triplete.
-                    tablaHash.insertar(triplete, i);
-                }
-                
-                // 2. Ahora, crear y llenar el Árbol Binario de Búsqueda para ordenar por frecuencia.
-                ArbolBB arbolFrecuencias = new ArbolBB(null);
-                for (String triplete : tablaHash.obtenerTodosLosTripletes()) {
-                    PatronADN nodo = tablaHash.buscarTriplete(triplete);
-                    if (nodo != null) {
-                        arbolFrecuencias.insertar(nodo.getTriplete(), nodo.getFrecuencia());
+                    AnalisisADN analisis;
+                    try {
+                        analisis = get();
+                    } catch (ExecutionException ex) {
+                        JOptionPane.showMessageDialog(CargarFrame.this, "Ocurrió un error al procesar la secuencia: " + ex.getCause().getMessage(), "Error de Procesamiento", JOptionPane.ERROR_MESSAGE);
+                        return;
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    
+                    if (analisis.getNucleotidos() < 3) {
+                        analisis.liberar();
+                        JOptionPane.showMessageDialog(CargarFrame.this, "La secuencia de ADN debe tener al menos 3 nucleótidos.", "Secuencia muy corta", JOptionPane.ERROR_MESSAGE);
+                        return;
                     }
-                }
 
-                // Informar al usuario del éxito y la data procesada.
-                JOptionPane.showMessageDialog(this, 
-                    "¡Archivo cargado y procesado exitosamente!\n" +
-                    "Secuencia procesada: " + secuenciaLimpia.length() + " nucleótidos\n" +
-                    "Tripletes encontrados: " + (secuenciaLimpia.length() / 3), 
-                    "Carga exitosa", 
-                    JOptionPane.INFORMATION_MESSAGE);
-                
-                // 3. Cerrar esta ventana y abrir la ventana del menú principal con los datos
-                dispose();
-                SwingUtilities.invokeLater(() -> {
+                    // Informar al usuario del éxito y la data procesada.
+                    JOptionPane.showMessageDialog(CargarFrame.this, 
+                        "¡Archivo cargado y procesado exitosamente!\n" +
+                        "Secuencia procesada: " + analisis.getNucleotidos() + " nucleótidos\n" +
+                        "Tripletes encontrados: " + analisis.getTripletes(), 
+                        "Carga exitosa", 
+                        JOptionPane.INFORMATION_MESSAGE);
+                    
+                    // 3. Cerrar esta ventana y abrir la ventana del menú principal con los datos
+                    dispose();
                     MenuPrincipalFrame menuFrame = new MenuPrincipalFrame();
-                    menuFrame.setEstructurasDeDatos(tablaHash, arbolFrecuencias);
+                    menuFrame.setEstructurasDeDatos(analisis.getTablaHash(), analisis.getArbolFrecuencias());
+                    menuFrame.setArchivoFuente(archivoAnalizar.toPath());
                     menuFrame.setVisible(true);
-                });
-                
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(this, "Ocurrió un error al procesar la secuencia: " + ex.getMessage(), "Error de Procesamiento", JOptionPane.ERROR_MESSAGE);
-            }
+                }
+            }.execute();
         });
     }
 } 
\ No newline at end of file
@@ -3,15 +3,19 @@ package Interfaces;
 import EDD.HashTable;
 import javax.swing.*;
 import java.awt.*;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 import EDD.ArbolBB;
+import EDD.ArchivoADN;
+import EDD.BuscadorORF;
+import EDD.LocalizadorTripletes;
+import EDD.ListaPosiciones;
+import EDD.ORF;
 import EDD.MapaAminoacidos;
 import EDD.PatronADN;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Collections;
+import EDD.ReporteADN;
 
 /**
  * Centro de comando principal para el análisis computacional avanzado de secuencias de ADN.
@@ -36,8 +40,13 @@ import java.util.Collections;
  *       detallados sobre colisiones en la tabla hash para optimización del sistema</li>
  *   <li><strong>Clasificación por aminoácidos (Función F):</strong> Agrupación inteligente
  *       de tripletes según su codificación de aminoácidos, facilitando análisis proteómicos</li>
+ *   <li><strong>Marcos abiertos de lectura (Función G):</strong> Búsqueda en paralelo de
+ *       los ORF de los seis marcos sobre el archivo cargado ({@link BuscadorORF})</li>
  * </ul>
  * 
+ * <p>El texto de los reportes lo genera {@link ReporteADN}, que también usa el modo por
+ * lotes de la línea de comandos, de modo que ambos muestran exactamente lo mismo.</p>
+ * 
  * <p><strong>Arquitectura de datos:</strong></p>
  * <p>La ventana opera sobre dos estructuras de datos principales optimizadas para diferentes
  * tipos de consultas:</p>
@@ -106,6 +115,12 @@ public class MenuPrincipalFrame extends JFrame {
      */
     private JComboBox<String> comboPatrones;
 
+    /**
+     * Archivo del que salieron los datos, para los análisis que necesitan volver
+     * a leer la secuencia completa (como la búsqueda de ORF).
+     */
+    private transient Path archivoFuente;
+
     /**
      * Inicializa el centro de comando completo para análisis de secuencias de ADN.
      * 
@@ -192,6 +207,7 @@ public class MenuPrincipalFrame extends JFrame {
         JButton botonMasMenosFrecuente = new JButton("D. Identificar Patrón Más/Menos Frecuente");
         JButton botonReporteColisiones = new JButton("E. Reporte de Colisiones");
         JButton botonListaAminoacidos = new JButton("F. Listar por Aminoácido");
+        JButton botonBuscarORF = new JButton("G. Buscar Marcos Abiertos de Lectura (ORF)");
         JButton botonAtras = new JButton("Volver a Cargar Archivo");
 
         // Añadir todos los componentes al panel de contenido
@@ -201,6 +217,7 @@ public class MenuPrincipalFrame extends JFrame {
         panelContenido.add(botonMasMenosFrecuente);
         panelContenido.add(botonReporteColisiones);
         panelContenido.add(botonListaAminoacidos);
+        panelContenido.add(botonBuscarORF);
         panelContenido.add(Box.createVerticalStrut(20)); // Un espacio más grande
         panelContenido.add(botonAtras);
         
@@ -222,32 +239,11 @@ public class MenuPrincipalFrame extends JFrame {
                 return;
             }
 
-            // El recorrido in-orden del árbol nos da los patrones de menor a mayor frecuencia.
-            String reporteInOrden = arbolFrecuencias.inOrden();
-            
-            // Para mostrar de mayor a menor, simplemente invertimos el orden de las líneas.
-            String[] lineas = reporteInOrden.split("\n");
-            StringBuilder reporteInvertido = new StringBuilder("Lista de Patrones (ordenados de mayor a menor frecuencia):\n\n");
-            for (int i = lineas.length - 1; i >= 0; i--) {
-                // El reporte del árbol solo tiene el triplete y la frecuencia.
-                // Necesitamos buscar en la tabla hash para obtener las ubicaciones.
-                String[] partes = lineas[i].split(",");
-                if (partes.length > 0) {
-                    String tripleteConPrefijo = partes[0]; // Ej: "Triplete: TTT"
-                    String triplete = tripleteConPrefijo.replace("Triplete: ", "").trim();
-                    
-                    PatronADN nodo = tablaHash.buscarTriplete(triplete);
-                    if (nodo != null) {
-                        reporteInvertido.append("Patrón: ").append(nodo.getTriplete())
-                                      .append(", Frecuencia: ").append(nodo.getFrecuencia())
-                                      .append(", Ubicaciones: ").append(nodo.getPosicionesComoTexto())
-                                      .append("\n");
-                    }
-                }
-            }
+            // El reporte recorre el árbol de mayor a menor frecuencia y añade las ubicaciones.
+            String reporteInvertido = ReporteADN.listaPatrones(tablaHash, arbolFrecuencias);
             
             // Usar un JTextArea dentro de un JScrollPane para mostrar el reporte cómodamente.
-            JTextArea areaReporte = new JTextArea(reporteInvertido.toString());
+            JTextArea areaReporte = new JTextArea(reporteInvertido);
             areaReporte.setEditable(false);
             JScrollPane scrollPane = new JScrollPane(areaReporte);
             scrollPane.setPreferredSize(new Dimension(500, 400));
@@ -263,12 +259,7 @@ public class MenuPrincipalFrame extends JFrame {
             }
 
             // Estos métodos tienen complejidad O(log n) porque solo recorren una rama del árbol.
-            String masFrecuente = arbolFrecuencias.getMasFrecuente();
-            String menosFrecuente = arbolFrecuencias.getMenosFrecuente();
-
-            String reporte = "Análisis de Frecuencia:\n\n" +
-                             "Patrón MÁS frecuente: " + masFrecuente + "\n" +
-                             "Patrón MENOS frecuente: " + menosFrecuente;
+            String reporte = ReporteADN.masMenosFrecuente(arbolFrecuencias);
             
             JOptionPane.showMessageDialog(this, reporte, "Patrones Más y Menos Frecuentes", JOptionPane.INFORMATION_MESSAGE);
         });
@@ -297,7 +288,7 @@ public class MenuPrincipalFrame extends JFrame {
                 return;
             }
 
-            String reporte = generarReporteAminoacidos();
+            String reporte = ReporteADN.aminoacidos(tablaHash);
 
             JTextArea areaReporte = new JTextArea(reporte);
             areaReporte.setEditable(false);
@@ -307,6 +298,65 @@ public class MenuPrincipalFrame extends JFrame {
             JOptionPane.showMessageDialog(this, scrollPane, "Reporte de Aminoácidos", JOptionPane.INFORMATION_MESSAGE);
         });
 
+        // G. Botón para buscar los ORF en los seis marcos del archivo cargado.
+        botonBuscarORF.addActionListener(e -> {
+            if (archivoFuente == null) {
+                JOptionPane.showMessageDialog(this, "No se ha cargado ningún archivo de secuencia.", "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+
+            String respuesta = JOptionPane.showInputDialog(this, "Largo mínimo del ORF (en aminoácidos):",
+                    String.valueOf(BuscadorORF.MINIMO_PREDETERMINADO));
+            if (respuesta == null) {
+                return; // el usuario canceló
+            }
+            int minimo;
+            try {
+                minimo = Integer.parseInt(respuesta.trim());
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(this, "El largo mínimo debe ser un número entero.", "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+
+            Path archivo = archivoFuente;
+            botonBuscarORF.setEnabled(false);
+            setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+
+            // La búsqueda recorre la secuencia completa: se hace fuera del Event Dispatch Thread.
+            new SwingWorker<List<ORF>, Void>() {
+                @Override
+                protected List<ORF> doInBackground() throws Exception {
+                    try (ArchivoADN archivoADN = new ArchivoADN(archivo)) {
+                        return BuscadorORF.buscar(archivoADN, minimo, true);
+                    }
+                }
+
+                @Override
+                protected void done() {
+                    botonBuscarORF.setEnabled(true);
+                    setCursor(Cursor.getDefaultCursor());
+
+                    List<ORF> orfs;
+                    try {
+                        orfs = get();
+                    } catch (ExecutionException ex) {
+                        JOptionPane.showMessageDialog(MenuPrincipalFrame.this, "Ocurrió un error al buscar los ORF: " + ex.getCause().getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                        return;
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+
+                    JTextArea areaReporte = new JTextArea(ReporteADN.orfs(orfs, minimo));
+                    areaReporte.setEditable(false);
+                    JScrollPane scrollPane = new JScrollPane(areaReporte);
+                    scrollPane.setPreferredSize(new Dimension(600, 500));
+
+                    JOptionPane.showMessageDialog(MenuPrincipalFrame.this, scrollPane, "Marcos Abiertos de Lectura", JOptionPane.INFORMATION_MESSAGE);
+                }
+            }.execute();
+        });
+
         // C. Botón para buscar un patrón específico seleccionado del ComboBox.
         botonBuscarPatron.addActionListener(e -> {
             if (tablaHash == null) {
@@ -323,20 +373,51 @@ public class MenuPrincipalFrame extends JFrame {
             // La búsqueda en la tabla hash es O(1) en el caso promedio.
             PatronADN nodo = tablaHash.buscarTriplete(patronSeleccionado);
             
-            if (nodo != null) {
-                String info = "Información del Patrón '" + nodo.getTriplete() + "':\n\n" +
-                              "Frecuencia: " + nodo.getFrecuencia() + "\n" +
-                              "Ubicaciones: " + nodo.getPosicionesComoTexto();
-                
-                JOptionPane.showMessageDialog(this, info, "Resultado de la Búsqueda", JOptionPane.INFORMATION_MESSAGE);
+            if (nodo != null && !nodo.tienePosiciones() && archivoFuente != null) {
+                // Carga de solo conteo: las posiciones se buscan ahora en el archivo, fuera del EDT.
+                // El patrón solo se modifica en done(), en el EDT, porque los otros botones lo leen.
+                Path archivo = archivoFuente;
+                botonBuscarPatron.setEnabled(false);
+                setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+                new SwingWorker<ListaPosiciones, Void>() {
+                    @Override
+                    protected ListaPosiciones doInBackground() throws Exception {
+                        try (ArchivoADN archivoADN = new ArchivoADN(archivo)) {
+                            return LocalizadorTripletes.buscarPosiciones(nodo.getTriplete(), archivoADN);
+                        }
+                    }
+
+                    @Override
+                    protected void done() {
+                        botonBuscarPatron.setEnabled(true);
+                        setCursor(Cursor.getDefaultCursor());
+                        try {
+                            LocalizadorTripletes.asignarPosiciones(nodo, get());
+                        } catch (ExecutionException ex) {
+                            JOptionPane.showMessageDialog(MenuPrincipalFrame.this, "No se pudieron recuperar las posiciones: " + ex.getCause().getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                        } catch (IllegalStateException ex) {
+                            JOptionPane.showMessageDialog(MenuPrincipalFrame.this, "No se pudieron recuperar las posiciones: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        mostrarPatron(nodo);
+                    }
+                }.execute();
+            } else if (nodo != null) {
+                mostrarPatron(nodo);
             } else {
                 // Esto no debería pasar si el combo se llena desde la tabla, pero es una buena práctica manejarlo.
                 JOptionPane.showMessageDialog(this, "El patrón no fue encontrado.", "Error", JOptionPane.ERROR_MESSAGE);
             }
         });
 
-        // Botón para volver al panel de carga.
+        // Botón para volver al panel de carga. El conjunto de datos se descarta,
+        // así que la memoria fuera del heap de sus posiciones se libera de inmediato.
         botonAtras.addActionListener(e -> {
+            if (tablaHash != null) {
+                tablaHash.liberar();
+            }
             dispose();
             SwingUtilities.invokeLater(() -> {
                 new CargarFrame().setVisible(true);
@@ -344,6 +425,20 @@ public class MenuPrincipalFrame extends JFrame {
         });
     }
 
+    /**
+     * Muestra la frecuencia, el rango y las ubicaciones de un patrón buscado.
+     * 
+     * @param nodo el patrón encontrado en la tabla hash
+     */
+    private void mostrarPatron(PatronADN nodo) {
+        String info = "Información del Patrón '" + nodo.getTriplete() + "':\n\n" +
+                      "Frecuencia: " + nodo.getFrecuencia() + "\n" +
+                      (arbolFrecuencias != null ? ReporteADN.rangoYPercentil(arbolFrecuencias, nodo) + "\n" : "") +
+                      "Ubicaciones: " + nodo.getPosicionesComoTexto();
+        
+        JOptionPane.showMessageDialog(this, info, "Resultado de la Búsqueda", JOptionPane.INFORMATION_MESSAGE);
+    }
+
     /**
      * Configura las estructuras de datos procesadas e inicializa la interfaz de análisis.
      * 
@@ -408,110 +503,12 @@ public class MenuPrincipalFrame extends JFrame {
     }
 
     /**
-     * Genera un análisis proteómico completo que correlaciona tripletes con sus aminoácidos codificados.
-     * 
-     * <p>Este método implementa un algoritmo sofisticado de clasificación biológica que trasciende
-     * el simple análisis de secuencias para proporcionar insights sobre la función proteómica
-     * potencial de la secuencia analizada. El proceso combina análisis computacional con
-     * conocimiento biológico para generar reportes de valor científico.</p>
-     * 
-     * <p><strong>Algoritmo de procesamiento implementado:</strong></p>
-     * <ol>
-     *   <li><strong>Extracción sistemática:</strong> Recupera todos los tripletes únicos de la
-     *       tabla hash, asegurando cobertura completa de la secuencia procesada</li>
-     *   <li><strong>Clasificación biológica:</strong> Utiliza {@link MapaAminoacidos} para
-     *       mapear cada triplete a su aminoácido correspondiente, manejando apropiadamente
-     *       codones de parada y variaciones genéticas</li>
-     *   <li><strong>Agrupación inteligente:</strong> Emplea una estructura {@code Map<String, List<PatronADN>>}
-     *       optimizada para agrupar eficientemente patrones por su función biológica</li>
-     *   <li><strong>Ordenamiento multi-nivel:</strong> Aplica ordenamiento alfabético por
-     *       aminoácido y ordenamiento por frecuencia dentro de cada grupo para máxima utilidad</li>
-     *   <li><strong>Formateo profesional:</strong> Construye un reporte estructurado que incluye
-     *       nombres completos, abreviaciones estándar y estadísticas detalladas</li>
-     * </ol>
-     * 
-     * <p><strong>Información incluida en el reporte:</strong></p>
-     * <ul>
-     *   <li><strong>Identificación del aminoácido:</strong> Nombre completo, abreviación de
-     *       3 letras y código de 1 letra según estándares internacionales</li>
-     *   <li><strong>Estadísticas de frecuencia:</strong> Conteo exacto de apariciones para
-     *       cada triplete específico dentro del aminoácido</li>
-     *   <li><strong>Mapeo posicional:</strong> Ubicaciones precisas donde aparece cada
-     *       patrón en la secuencia original</li>
-     *   <li><strong>Ordenamiento por relevancia:</strong> Los tripletes más frecuentes
-     *       aparecen primero dentro de cada categoría de aminoácido</li>
-     * </ul>
+     * Indica el archivo del que salieron los datos, para los análisis que
+     * necesitan leer la secuencia completa otra vez (búsqueda de ORF).
      * 
-     * <p><strong>Complejidad computacional:</strong></p>
-     * <p>El algoritmo opera con complejidad O(n log n + m log m) donde n es el número total
-     * de tripletes únicos y m es el número promedio de tripletes por aminoácido. Esta
-     * eficiencia permite análisis en tiempo real incluso para secuencias genómicas extensas.</p>
-     * 
-     * <p><strong>Aplicaciones científicas:</strong></p>
-     * <p>Este reporte es particularmente valioso para análisis proteómicos, identificación
-     * de regiones codificantes potenciales, y estudios comparativos de uso de codones
-     * entre diferentes organismos o genes.</p>
-     * 
-     * @return un reporte detallado y estructurado que organiza todos los tripletes
-     *         identificados según su función biológica, incluyendo estadísticas
-     *         completas y referencias posicionales
-     * 
-     * @throws NullPointerException si la tabla hash no ha sido inicializada
-     * @see MapaAminoacidos#obtenerAminoacido(String)
-     * @see PatronADN#getTriplete()
-     * @see PatronADN#getFrecuencia()
-     * @see PatronADN#getPosicionesComoTexto()
-     * @see Collections#sort(List)
-     * @see HashMap
-     * @see ArrayList
+     * @param archivoFuente la ruta del archivo de secuencia cargado
      */
-    private String generarReporteAminoacidos() {
-        // Mapa para agrupar tripletes por aminoácido. La clave es el nombre del aminoácido.
-        // El valor es una lista de los nodos (PatronADN) que codifican para ese aminoácido.
-        Map<String, List<PatronADN>> aminoacidosMap = new HashMap<>();
-
-        // Recorrer toda la tabla hash para obtener los patrones.
-        for (String triplete : tablaHash.obtenerTodosLosTripletes()) {
-            PatronADN nodo = tablaHash.buscarTriplete(triplete);
-            if (nodo != null) {
-                String aminoacido = MapaAminoacidos.obtenerAminoacido(nodo.getTriplete());
-                
-                // Si el aminoácido no está en el mapa, se crea una nueva lista.
-                if (!aminoacidosMap.containsKey(aminoacido)) {
-                    aminoacidosMap.put(aminoacido, new ArrayList<>());
-                }
-                // Se añade el nodo a la lista correspondiente.
-                aminoacidosMap.get(aminoacido).add(nodo);
-            }
-        }
-
-        // Construir el string del reporte a partir del mapa.
-        StringBuilder reporte = new StringBuilder("=== Reporte por Aminoácidos ===\n\n");
-        
-        // Ordenar los nombres de los aminoácidos alfabéticamente para un reporte consistente.
-        List<String> nombresAminoacidos = new ArrayList<>(aminoacidosMap.keySet());
-        Collections.sort(nombresAminoacidos);
-
-        for (String nombreAminoacido : nombresAminoacidos) {
-            List<PatronADN> patrones = aminoacidosMap.get(nombreAminoacido);
-            // Ordenar los patrones por frecuencia de mayor a menor dentro de cada aminoácido.
-            patrones.sort((p1, p2) -> Integer.compare(p2.getFrecuencia(), p1.getFrecuencia()));
-
-            String abrev3 = patrones.get(0).getAbreviatura3();
-            String abrev1 = patrones.get(0).getAbreviatura1();
-            
-            reporte.append("--- Aminoácido: ").append(nombreAminoacido)
-                   .append(" (").append(abrev3).append(" / ").append(abrev1).append(") ---\n");
-
-            for (PatronADN patron : patrones) {
-                reporte.append("  - Patrón: ").append(patron.getTriplete())
-                       .append(" | Frecuencia: ").append(patron.getFrecuencia())
-                       .append(" | Ubicaciones: ").append(patron.getPosicionesComoTexto())
-                       .append("\n");
-            }
-            reporte.append("\n");
-        }
-
-        return reporte.toString();
+    public void setArchivoFuente(Path archivoFuente) {
+        this.archivoFuente = archivoFuente;
     }
-} 
\ No newline at end of file
+}
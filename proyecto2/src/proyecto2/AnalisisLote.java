@@ -0,0 +1,368 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package proyecto2;
+
+import EDD.AnalisisADN;
+import EDD.AnalisisSeisMarcos;
+import EDD.ArchivoADN;
+import EDD.BuscadorORF;
+import EDD.CodigoGenetico;
+import EDD.ContadorDeslizante;
+import EDD.ContadorKmers;
+import EDD.HashTable;
+import EDD.LocalizadorTripletes;
+import EDD.MapaAminoacidos;
+import EDD.PatronADN;
+import EDD.ReporteADN;
+import EDD.SecuenciaADN;
+import EDD.TraductorProteinas;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Modo por lotes (sin interfaz gráfica) para analizar archivos desde la línea de comandos.
+ * <p>
+ * Hace el mismo análisis que la interfaz gráfica ({@link AnalisisADN}) y escribe los
+ * mismos reportes ({@link ReporteADN}), pero sin inicializar AWT ni Swing, de modo que
+ * se puede ejecutar en servidores o dentro de un pipeline. Cada archivo se analiza por
+ * separado; si uno falla, se informa en la salida de error y se continúa con el resto.
+ * <p>
+ * Uso:
+ * <pre>
+ *   java -jar proyecto2.jar [opciones] archivo...
+ *
+ *   -o, --salida DIR   escribe un archivo "nombre.reporte.txt" por entrada en DIR
+ *                      (por defecto los reportes van a la salida estándar)
+ *   --secuencial       cuenta en un solo hilo en lugar de usar la ingesta paralela
+ *   --solo-conteo      guarda solo las frecuencias, sin las posiciones de cada patrón
+ *   --seis-marcos      añade el conteo de codones en los seis marcos de lectura
+ *   --traducir MARCO   traduce la secuencia a proteína en el marco indicado (+1..+3, -1..-3)
+ *   --orf MINIMO       añade los ORF de los seis marcos con al menos MINIMO aminoácidos
+ *   --seguidos A B N   añade las apariciones del triplete A seguidas de B a 1..N bases
+ *   --kmer K           añade el conteo de k-mers solapados de K bases (1..31)
+ *   --codigo N         usa la tabla de traducción N del NCBI (1, 2, 3, 4, 5 u 11; por defecto 1)
+ *   -h, --ayuda        muestra esta ayuda
+ * </pre>
+ */
+public final class AnalisisLote {
+
+    /**
+     * Código de salida cuando todos los archivos se analizaron correctamente.
+     */
+    public static final int EXITO = 0;
+
+    /**
+     * Código de salida cuando al menos un archivo no se pudo analizar.
+     */
+    public static final int ERROR_ARCHIVO = 1;
+
+    /**
+     * Código de salida cuando los argumentos no son válidos.
+     */
+    public static final int ERROR_USO = 2;
+
+    private final List<Path> archivos = new ArrayList<>();
+    private Path directorioSalida;
+    private boolean paralela = true;
+    private boolean soloConteo;
+    private boolean seisMarcos;
+    private int marcoTraduccion = -1;
+    private int minimoORF = -1;
+    private String seguidoPrimero;
+    private String seguidoSegundo;
+    private int distanciaSeguidos = -1;
+    private int largoKmer = -1;
+
+    private AnalisisLote() {
+    }
+
+    /**
+     * Interpreta los argumentos, analiza todos los archivos y devuelve el código de salida.
+     *
+     * @param args los argumentos de la línea de comandos.
+     * @return {@link #EXITO}, {@link #ERROR_ARCHIVO} o {@link #ERROR_USO}.
+     */
+    public static int ejecutar(String[] args) {
+        AnalisisLote lote = new AnalisisLote();
+        String error = lote.leerArgumentos(args);
+        if (error != null) {
+            if (!error.isEmpty()) {
+                System.err.println("Error: " + error);
+            }
+            imprimirUso(error.isEmpty() ? System.out : System.err);
+            return error.isEmpty() ? EXITO : ERROR_USO;
+        }
+        return lote.analizarTodos();
+    }
+
+    /**
+     * Lee las opciones y la lista de archivos.
+     *
+     * @return {@code null} si todo está bien, una cadena vacía si se pidió la ayuda,
+     *         o el mensaje de error en otro caso.
+     */
+    private String leerArgumentos(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-h":
+                case "--ayuda":
+                    return "";
+                case "-o":
+                case "--salida":
+                    if (i + 1 >= args.length) {
+                        return "falta el directorio después de " + args[i];
+                    }
+                    directorioSalida = Path.of(args[++i]);
+                    break;
+                case "--secuencial":
+                    paralela = false;
+                    break;
+                case "--solo-conteo":
+                    soloConteo = true;
+                    break;
+                case "--seis-marcos":
+                    seisMarcos = true;
+                    break;
+                case "--traducir":
+                    if (i + 1 >= args.length) {
+                        return "falta el marco después de " + args[i];
+                    }
+                    marcoTraduccion = TraductorProteinas.marcoPorNombre(args[++i]);
+                    if (marcoTraduccion < 0) {
+                        return "marco de lectura inválido: " + args[i];
+                    }
+                    break;
+                case "--codigo":
+                    if (i + 1 >= args.length) {
+                        return "falta el número de tabla después de " + args[i];
+                    }
+                    CodigoGenetico codigoGenetico = null;
+                    try {
+                        codigoGenetico = CodigoGenetico.porNumero(Integer.parseInt(args[++i]));
+                    } catch (NumberFormatException e) {
+                        // se informa abajo
+                    }
+                    if (codigoGenetico == null) {
+                        return "tabla de traducción no disponible: " + args[i];
+                    }
+                    MapaAminoacidos.setCodigoGenetico(codigoGenetico);
+                    break;
+                case "--orf":
+                    if (i + 1 >= args.length) {
+                        return "falta el largo mínimo después de " + args[i];
+                    }
+                    try {
+                        minimoORF = Integer.parseInt(args[++i]);
+                    } catch (NumberFormatException e) {
+                        minimoORF = -1;
+                    }
+                    if (minimoORF < 0) {
+                        return "largo mínimo de ORF inválido: " + args[i];
+                    }
+                    break;
+                case "--seguidos":
+                    if (i + 3 >= args.length) {
+                        return "faltan los dos tripletes y la distancia después de " + args[i];
+                    }
+                    seguidoPrimero = args[++i].toUpperCase();
+                    seguidoSegundo = args[++i].toUpperCase();
+                    if (SecuenciaADN.codificarTriplete(seguidoPrimero) < 0) {
+                        return "triplete inválido: " + seguidoPrimero;
+                    }
+                    if (SecuenciaADN.codificarTriplete(seguidoSegundo) < 0) {
+                        return "triplete inválido: " + seguidoSegundo;
+                    }
+                    try {
+                        distanciaSeguidos = Integer.parseInt(args[++i]);
+                    } catch (NumberFormatException e) {
+                        distanciaSeguidos = -1;
+                    }
+                    if (distanciaSeguidos < 1) {
+                        return "distancia inválida: " + args[i];
+                    }
+                    break;
+                case "--kmer":
+                    if (i + 1 >= args.length) {
+                        return "falta el largo del k-mer después de " + args[i];
+                    }
+                    try {
+                        largoKmer = Integer.parseInt(args[++i]);
+                    } catch (NumberFormatException e) {
+                        largoKmer = -1;
+                    }
+                    if (largoKmer < 1 || largoKmer > ContadorKmers.K_MAXIMO) {
+                        return "largo de k-mer inválido (1.." + ContadorKmers.K_MAXIMO + "): " + args[i];
+                    }
+                    break;
+                default:
+                    if (args[i].startsWith("-")) {
+                        return "opción desconocida: " + args[i];
+                    }
+                    archivos.add(Path.of(args[i]));
+            }
+        }
+        if (archivos.isEmpty()) {
+            return "no se indicó ningún archivo de secuencia";
+        }
+        return null;
+    }
+
+    /**
+     * Analiza cada archivo y escribe su reporte.
+     */
+    private int analizarTodos() {
+        if (directorioSalida != null) {
+            try {
+                Files.createDirectories(directorioSalida);
+            } catch (IOException e) {
+                System.err.println("Error: no se pudo crear " + directorioSalida + ": " + e.getMessage());
+                return ERROR_ARCHIVO;
+            }
+        }
+
+        int codigo = EXITO;
+        for (Path archivo : archivos) {
+            try {
+                AnalisisADN analisis = AnalisisADN.cargar(archivo, paralela, soloConteo);
+                String reporte = generarReporte(archivo, analisis);
+                if (distanciaSeguidos > 0 && analisis.getNucleotidos() >= 3) {
+                    reporte += generarSeguidos(archivo, analisis.getTablaHash()) + "\n";
+                }
+                // Las posiciones solo hacen falta para el reporte: se liberan antes del siguiente archivo
+                analisis.liberar();
+                if (seisMarcos) {
+                    try (ArchivoADN archivoADN = new ArchivoADN(archivo)) {
+                        reporte += ReporteADN.seisMarcos(AnalisisSeisMarcos.analizar(archivoADN));
+                    }
+                }
+                if (minimoORF >= 0) {
+                    try (ArchivoADN archivoADN = new ArchivoADN(archivo)) {
+                        reporte += ReporteADN.orfs(BuscadorORF.buscar(archivoADN, minimoORF, paralela), minimoORF) + "\n";
+                    }
+                }
+                if (largoKmer > 0) {
+                    reporte += contarKmers(archivo) + "\n";
+                }
+                
+                if (directorioSalida == null) {
+                    System.out.print(reporte);
+                    System.out.flush();
+                } else {
+                    Path destino = directorioSalida.resolve(archivo.getFileName() + ".reporte.txt");
+                    try (Writer salida = Files.newBufferedWriter(destino, StandardCharsets.UTF_8)) {
+                        salida.write(reporte);
+                    }
+                    System.err.println(archivo + " -> " + destino);
+                }
+                if (marcoTraduccion >= 0) {
+                    traducir(archivo);
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error al analizar " + archivo + ": " + e);
+                codigo = ERROR_ARCHIVO;
+            }
+        }
+        return codigo;
+    }
+
+    /**
+     * Escribe la proteína de un archivo en el marco pedido, como FASTA: en
+     * "nombre.proteina.MARCO.txt" dentro del directorio de salida, o en la
+     * salida estándar después del reporte.
+     */
+    private void traducir(Path archivo) throws IOException {
+        String marco = AnalisisSeisMarcos.getNombreMarco(marcoTraduccion);
+        String encabezado = ">" + archivo.getFileName() + " marco " + marco + "\n";
+        try (ArchivoADN archivoADN = new ArchivoADN(archivo)) {
+            if (directorioSalida == null) {
+                // No se cierra: cerrarlo cerraría System.out
+                Writer salida = new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
+                salida.write(encabezado);
+                TraductorProteinas.traducir(archivoADN, marcoTraduccion, salida, paralela);
+            } else {
+                Path destino = directorioSalida.resolve(archivo.getFileName() + ".proteina." + marco + ".txt");
+                try (Writer salida = Files.newBufferedWriter(destino, StandardCharsets.UTF_8)) {
+                    salida.write(encabezado);
+                    TraductorProteinas.traducir(archivoADN, marcoTraduccion, salida, paralela);
+                }
+                System.err.println(archivo + " -> " + destino);
+            }
+        }
+    }
+
+    /**
+     * Construye el reporte completo de un archivo con las mismas secciones del menú principal.
+     */
+    private static String generarReporte(Path archivo, AnalisisADN analisis) {
+        StringBuilder reporte = new StringBuilder();
+        reporte.append("##### Archivo: ").append(archivo).append(" #####\n");
+        reporte.append("Secuencia procesada: ").append(analisis.getNucleotidos()).append(" nucleótidos\n");
+        reporte.append("Tripletes encontrados: ").append(analisis.getTripletes()).append("\n\n");
+        if (analisis.getNucleotidos() < 3) {
+            reporte.append("La secuencia de ADN debe tener al menos 3 nucleótidos.\n\n");
+            return reporte.toString();
+        }
+        reporte.append(ReporteADN.listaPatrones(analisis.getTablaHash(), analisis.getArbolFrecuencias())).append("\n");
+        reporte.append(ReporteADN.masMenosFrecuente(analisis.getArbolFrecuencias())).append("\n\n");
+        reporte.append(analisis.getTablaHash().generarReporteColisiones()).append("\n\n");
+        reporte.append(ReporteADN.aminoacidos(analisis.getTablaHash())).append("\n");
+        return reporte.toString();
+    }
+
+    /**
+     * Construye el reporte de --seguidos. En una carga de solo conteo primero
+     * recupera, volviendo a leer el archivo, las posiciones de los dos tripletes.
+     */
+    private String generarSeguidos(Path archivo, HashTable tabla) throws IOException {
+        if (tabla.esSoloConteo()) {
+            try (ArchivoADN archivoADN = new ArchivoADN(archivo)) {
+                for (String triplete : new String[]{seguidoPrimero, seguidoSegundo}) {
+                    PatronADN patron = tabla.buscarTriplete(triplete);
+                    if (patron != null) {
+                        LocalizadorTripletes.completarPosiciones(patron, archivoADN);
+                    }
+                }
+            }
+        }
+        return ReporteADN.seguidos(tabla, seguidoPrimero, seguidoSegundo, distanciaSeguidos);
+    }
+
+    /**
+     * Construye el reporte de --kmer: cuenta las ventanas de largoKmer bases
+     * (paso 1) en una sola pasada sobre el archivo.
+     */
+    private String contarKmers(Path archivo) throws IOException {
+        ContadorKmers contador = new ContadorKmers(largoKmer);
+        ContadorDeslizante deslizante = new ContadorDeslizante(contador);
+        try (ArchivoADN archivoADN = new ArchivoADN(archivo)) {
+            archivoADN.recorrerBases(deslizante);
+        }
+        return ReporteADN.kmers(contador, deslizante.getVentanasProcesadas());
+    }
+
+    private static void imprimirUso(PrintStream salida) {
+        salida.println("Uso: java -jar proyecto2.jar [opciones] archivo...");
+        salida.println("Sin argumentos se abre la interfaz gráfica.");
+        salida.println();
+        salida.println("  -o, --salida DIR   escribe un archivo \"nombre.reporte.txt\" por entrada en DIR");
+        salida.println("                     (por defecto los reportes van a la salida estándar)");
+        salida.println("  --secuencial       cuenta en un solo hilo en lugar de usar la ingesta paralela");
+        salida.println("  --solo-conteo      guarda solo las frecuencias, sin las posiciones de cada patrón");
+        salida.println("  --seis-marcos      añade el conteo de codones en los seis marcos de lectura");
+        salida.println("  --traducir MARCO   traduce la secuencia a proteína en el marco indicado (+1..+3, -1..-3)");
+        salida.println("  --orf MINIMO       añade los ORF de los seis marcos con al menos MINIMO aminoácidos");
+        salida.println("  --seguidos A B N   añade las apariciones del triplete A seguidas de B a 1..N bases");
+        salida.println("  --kmer K           añade el conteo de k-mers solapados de K bases (1..31)");
+        salida.println("  --codigo N         usa la tabla de traducción N del NCBI (1, 2, 3, 4, 5 u 11; por defecto 1)");
+        salida.println("  -h, --ayuda        muestra esta ayuda");
+    }
+}
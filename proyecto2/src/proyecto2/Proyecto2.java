@@ -12,6 +12,8 @@ import javax.swing.UIManager;
  * <p>
  * Esta clase contiene el método {@code main}, que se encarga de configurar
  * el entorno gráfico de Swing y lanzar la ventana de bienvenida de la aplicación.
+ * Si se pasan argumentos, la aplicación se ejecuta en modo por lotes sin interfaz
+ * gráfica ({@link AnalisisLote}).
  * 
  * @author Luis
  */
@@ -30,10 +32,20 @@ public class Proyecto2 {
      *       <i>Event Dispatch Thread (EDT)</i> de Swing, que es la práctica
      *       recomendada para evitar problemas de concurrencia.</li>
      * </ol>
+     * Si hay argumentos, no se toca nada de lo anterior: se activa el modo
+     * {@code java.awt.headless} y se delega en {@link AnalisisLote}, que analiza
+     * los archivos indicados y termina con su código de salida.
      * 
-     * @param args los argumentos de la línea de comandos (no se utilizan en esta aplicación).
+     * @param args los argumentos de la línea de comandos; vacíos para abrir la interfaz
+     *             gráfica, o las opciones y archivos del modo por lotes.
      */
     public static void main(String[] args) {
+        if (args.length > 0) {
+            // Modo por lotes: no se inicializa AWT, así funciona en servidores sin pantalla.
+            System.setProperty("java.awt.headless", "true");
+            System.exit(AnalisisLote.ejecutar(args));
+        }
+        
         // Inicia la GUI en el Event Dispatch Thread (EDT) para seguridad en hilos.
         SwingUtilities.invokeLater(() -> {
             try {
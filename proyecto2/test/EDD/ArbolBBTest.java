@@ -0,0 +1,259 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/UnitTests/JUnit4TestClass.java to edit this template
+ */
+package EDD;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de ArbolBB contra una referencia ordenada.
+ *
+ * Después de cada tanda de inserciones, eliminaciones y cambios de frecuencia
+ * se revisa el árbol completo: el balance AVL, la altura y el tamaño guardados
+ * en cada nodo, el orden de los cursores y las consultas por rango, top-k y
+ * percentil.
+ */
+public class ArbolBBTest {
+
+    /**
+     * Ordena la referencia (patrón -> frecuencia) como el árbol: por
+     * frecuencia y, en un empate, alfabéticamente.
+     */
+    private static List<String> ordenAscendente(Map<String, Integer> referencia) {
+        List<String> orden = new ArrayList<>(referencia.keySet());
+        orden.sort((a, b) -> {
+            int frecuencia = Integer.compare(referencia.get(a), referencia.get(b));
+            return frecuencia != 0 ? frecuencia : a.compareTo(b);
+        });
+        return orden;
+    }
+
+    private static int altura(NodoArbolBB nodo) {
+        return nodo == null ? 0 : nodo.altura;
+    }
+
+    private static int tamaño(NodoArbolBB nodo) {
+        return nodo == null ? 0 : nodo.tamaño;
+    }
+
+    /**
+     * Revisa que el árbol tenga exactamente los patrones de la referencia, en
+     * orden, balanceado y con todas las consultas de acuerdo con ella.
+     */
+    private static void comprobarArbol(ArbolBB arbol, Map<String, Integer> referencia) {
+        List<String> orden = ordenAscendente(referencia);
+        int n = orden.size();
+        assertEquals(n, arbol.getTamaño());
+        // Un AVL de n nodos tiene altura menor que 1.4405 log2(n + 2)
+        assertTrue("altura " + arbol.getAltura() + " con " + n + " nodos",
+                arbol.getAltura() <= 1.4405 * Math.log(n + 2) / Math.log(2));
+
+        int i = 0;
+        for (NodoArbolBB nodo : arbol.ascendente()) {
+            String patron = orden.get(i++);
+            assertEquals(patron, nodo.getTriplete());
+            assertEquals(patron, (int) referencia.get(patron), nodo.getFrecuencia());
+            assertEquals(patron, 1 + Math.max(altura(nodo.izquierdo), altura(nodo.Derecho)), nodo.altura);
+            assertEquals(patron, 1 + tamaño(nodo.izquierdo) + tamaño(nodo.Derecho), nodo.tamaño);
+            assertTrue(patron, Math.abs(altura(nodo.izquierdo) - altura(nodo.Derecho)) <= 1);
+        }
+        assertEquals(n, i);
+
+        // De mayor a menor: el rango r es orden[n - r]
+        int rango = 1;
+        for (NodoArbolBB nodo : arbol.descendente()) {
+            String patron = orden.get(n - rango);
+            assertEquals(patron, nodo.getTriplete());
+            assertSame(nodo, arbol.getPorRango(rango));
+            assertEquals(patron, rango, arbol.getRango(patron, nodo.getFrecuencia()));
+            rango++;
+        }
+        assertEquals(n + 1, rango);
+        assertNull(arbol.getPorRango(0));
+        assertNull(arbol.getPorRango(n + 1));
+
+        for (int k : new int[] {0, 1, 5, n, n + 3}) {
+            NodoArbolBB[] top = arbol.topK(k);
+            assertEquals(Math.min(k, n), top.length);
+            for (int j = 0; j < top.length; j++) {
+                assertEquals(orden.get(n - 1 - j), top[j].getTriplete());
+            }
+        }
+
+        int maxima = n == 0 ? 0 : referencia.get(orden.get(n - 1));
+        int hasta = 0;
+        for (int frecuencia = -1; frecuencia <= maxima + 1; frecuencia++) {
+            while (hasta < n && referencia.get(orden.get(hasta)) <= frecuencia) {
+                hasta++;
+            }
+            assertEquals(hasta, arbol.contarHastaFrecuencia(frecuencia));
+            assertEquals(n == 0 ? 0 : 100.0 * hasta / n, arbol.percentil(frecuencia), 1e-9);
+        }
+
+        if (n == 0) {
+            assertEquals("", arbol.getMasFrecuente());
+            assertEquals("", arbol.getMenosFrecuente());
+        } else {
+            String mayor = orden.get(n - 1);
+            String menor = orden.get(0);
+            assertEquals(mayor + " (Frecuencia: " + referencia.get(mayor) + ")", arbol.getMasFrecuente());
+            assertEquals(menor + " (Frecuencia: " + referencia.get(menor) + ")", arbol.getMenosFrecuente());
+        }
+    }
+
+    private static String patronAlAzar(Random random, int largo) {
+        char[] bases = new char[largo];
+        for (int i = 0; i < largo; i++) {
+            bases[i] = "ACGT".charAt(random.nextInt(4));
+        }
+        return new String(bases);
+    }
+
+    /**
+     * Inserciones y eliminaciones al azar (también de patrones que no están)
+     * con frecuencias repetidas, para pasar por todos los casos de rotación
+     * y de eliminación con cero, uno y dos hijos.
+     */
+    @Test
+    public void testInsertarYEliminarAlAzar() {
+        Random random = new Random(12);
+        ArbolBB arbol = new ArbolBB(null);
+        Map<String, Integer> referencia = new HashMap<>();
+        for (int ronda = 0; ronda < 40; ronda++) {
+            for (int operacion = 0; operacion < 250; operacion++) {
+                String patron = patronAlAzar(random, 5);
+                Integer actual = referencia.get(patron);
+                if (actual == null && random.nextInt(3) != 0) {
+                    int frecuencia = random.nextInt(30);
+                    arbol.insertar(patron, frecuencia);
+                    referencia.put(patron, frecuencia);
+                } else if (actual != null) {
+                    assertTrue(patron, arbol.eliminar(patron, actual));
+                    referencia.remove(patron);
+                } else {
+                    assertFalse(patron, arbol.eliminar(patron, random.nextInt(30)));
+                }
+            }
+            comprobarArbol(arbol, referencia);
+        }
+        // Vaciar el árbol por completo
+        for (String patron : new ArrayList<>(referencia.keySet())) {
+            assertTrue(arbol.eliminar(patron, referencia.remove(patron)));
+        }
+        comprobarArbol(arbol, referencia);
+    }
+
+    /**
+     * Los patrones llegan ordenados (el caso que degeneraba el árbol sin
+     * balancear en una lista), en los dos sentidos.
+     */
+    @Test
+    public void testInsercionOrdenadaQuedaBalanceada() {
+        ArbolBB ascendente = new ArbolBB(null);
+        ArbolBB descendente = new ArbolBB(null);
+        Map<String, Integer> referencia = new TreeMap<>();
+        int n = 1 << 15;
+        for (int i = 0; i < n; i++) {
+            String patron = ContadorKmers.decodificar(i, 8);
+            ascendente.insertar(patron, i / 7);
+            descendente.insertar(ContadorKmers.decodificar(n - 1 - i, 8), (n - 1 - i) / 7);
+            referencia.put(patron, i / 7);
+        }
+        comprobarArbol(ascendente, referencia);
+        comprobarArbol(descendente, referencia);
+    }
+
+    /**
+     * actualizarFrecuencia desengancha y reinserta el mismo nodo, así que el
+     * patrón sigue apuntando a su nodo; un patrón eliminado se vuelve a insertar.
+     */
+    @Test
+    public void testActualizarFrecuencia() {
+        Random random = new Random(3);
+        ArbolBB arbol = new ArbolBB(null);
+        Map<String, Integer> referencia = new HashMap<>();
+        List<PatronADN> patrones = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            PatronADN patron = new PatronADN(ContadorKmers.decodificar(i, 6), 0);
+            patrones.add(patron);
+            arbol.insertar(patron);
+            referencia.put(patron.getTriplete(), 1);
+        }
+        comprobarArbol(arbol, referencia);
+
+        long posicion = 1;
+        for (int ronda = 0; ronda < 20; ronda++) {
+            for (int operacion = 0; operacion < 200; operacion++) {
+                PatronADN patron = patrones.get(random.nextInt(patrones.size()));
+                if (random.nextInt(10) == 0 && referencia.containsKey(patron.getTriplete())) {
+                    assertTrue(arbol.eliminar(patron.getTriplete(), patron.getFrecuencia()));
+                    assertNull(patron.nodoArbol);
+                    referencia.remove(patron.getTriplete());
+                    continue;
+                }
+                int veces = 1 + random.nextInt(3);
+                for (int v = 0; v < veces; v++) {
+                    patron.agregarPosicion(posicion++);
+                }
+                arbol.actualizarFrecuencia(patron);
+                referencia.put(patron.getTriplete(), patron.getFrecuencia());
+                assertSame(patron, patron.nodoArbol.getPatron());
+                assertEquals(patron.getFrecuencia(), patron.nodoArbol.getFrecuencia());
+            }
+            comprobarArbol(arbol, referencia);
+        }
+    }
+
+    /**
+     * actualizarDesde solo mueve los patrones que cambiaron desde la llamada
+     * anterior (cada uno una vez, aunque haya cambiado varias veces) e
+     * inserta los nuevos; el resultado es el mismo árbol que se armaría desde cero.
+     */
+    @Test
+    public void testActualizarDesdeHashTable() {
+        Random random = new Random(8);
+        HashTable tabla = new HashTable();
+        ArbolBB arbol = new ArbolBB(null);
+        Map<String, Integer> referencia = new HashMap<>();
+        long posicion = 0;
+        for (int tanda = 0; tanda < 30; tanda++) {
+            Set<String> cambiados = new HashSet<>();
+            int inserciones = tanda == 0 ? 2000 : random.nextInt(300);
+            for (int i = 0; i < inserciones; i++) {
+                // Tripletes y k-mers de 4 bases, con una distribución sesgada para que haya empates y saltos
+                String patron = random.nextBoolean()
+                        ? SecuenciaADN.decodificarTriplete(random.nextInt(64) & random.nextInt(64))
+                        : patronAlAzar(random, 4);
+                if (patron.length() == 3) {
+                    tabla.insertarCodigo(SecuenciaADN.codificarTriplete(patron), posicion);
+                } else {
+                    tabla.insertarKmer(ContadorKmers.codificar(patron), 4, posicion);
+                }
+                posicion += 3;
+                referencia.merge(patron, 1, Integer::sum);
+                cambiados.add(patron);
+            }
+            assertEquals(cambiados.size(), arbol.actualizarDesde(tabla));
+            assertEquals(0, arbol.actualizarDesde(tabla));
+            comprobarArbol(arbol, referencia);
+        }
+
+        // Los pendientes ya se entregaron: un árbol nuevo se arma con todos los patrones
+        ArbolBB nuevo = new ArbolBB(null);
+        assertEquals(0, nuevo.actualizarDesde(tabla));
+        for (PatronADN patron : tabla.obtenerPatrones()) {
+            nuevo.insertar(patron.getTriplete(), patron.getFrecuencia());
+        }
+        assertEquals(nuevo.inOrden(), arbol.inOrden());
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/UnitTests/JUnit4TestClass.java to edit this template
+ */
+package EDD;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de BuscadorORF contra un recorrido ingenuo de los seis marcos.
+ *
+ * El modo paralelo se prueba con trozos de pocos codones, así que casi todos
+ * los ORF empiezan en un trozo y se cierran varios trozos después, y muchos
+ * trozos no tienen ningún STOP o ningún ATG.
+ */
+public class BuscadorORFTest {
+
+    private static ForkJoinPool pool;
+    private static CodigoGenetico codigoAnterior;
+
+    @BeforeClass
+    public static void prepararCodigo() {
+        // El recorrido ingenuo usa los STOP de la tabla estándar
+        codigoAnterior = MapaAminoacidos.getCodigoGenetico();
+        MapaAminoacidos.setCodigoGenetico(CodigoGenetico.porNumero(1));
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterClass
+    public static void restaurarCodigo() {
+        MapaAminoacidos.setCodigoGenetico(codigoAnterior);
+        pool.shutdown();
+    }
+
+    /**
+     * Crea una secuencia al azar; con mas ATG sube la probabilidad de 'A',
+     * 'T' y 'G' para que haya más inicios.
+     */
+    private static String secuencia(Random random, int bases, boolean masATG) {
+        String alfabeto = masATG ? "AAATTTGGGC" : "ACGT";
+        char[] resultado = new char[bases];
+        for (int i = 0; i < bases; i++) {
+            resultado[i] = alfabeto.charAt(random.nextInt(alfabeto.length()));
+        }
+        return new String(resultado);
+    }
+
+    private static String complementoReverso(String secuencia) {
+        StringBuilder reversa = new StringBuilder(secuencia.length());
+        for (int i = secuencia.length() - 1; i >= 0; i--) {
+            reversa.append("TGCA".charAt("ACGT".indexOf(secuencia.charAt(i))));
+        }
+        return reversa.toString();
+    }
+
+    private static boolean esStop(String codon) {
+        return codon.equals("TAA") || codon.equals("TAG") || codon.equals("TGA");
+    }
+
+    /**
+     * Recorre los seis marcos codón por codón con substring y devuelve los ORF
+     * como texto (marco, inicio, fin y aminoácidos), en el orden del buscador.
+     */
+    private static List<String> buscarIngenuo(String secuencia, int minimo) {
+        String reversa = complementoReverso(secuencia);
+        int longitud = secuencia.length();
+        List<String> orfs = new ArrayList<>();
+        for (int marco = 0; marco < 6; marco++) {
+            String hebra = marco < 3 ? secuencia : reversa;
+            int abierto = -1;
+            for (int i = marco % 3; i + 3 <= longitud; i += 3) {
+                String codon = hebra.substring(i, i + 3);
+                if (esStop(codon)) {
+                    if (abierto >= 0 && (i - abierto) / 3 >= minimo) {
+                        int inicio = marco < 3 ? abierto : longitud - (i + 3);
+                        int fin = marco < 3 ? i + 3 : longitud - abierto;
+                        orfs.add(marco + " " + inicio + " " + fin + " " + (i - abierto) / 3);
+                    }
+                    abierto = -1;
+                } else if (codon.equals("ATG") && abierto < 0) {
+                    abierto = i;
+                }
+            }
+        }
+        // Mismo orden que el buscador: por marco y luego por inicio
+        orfs.sort((a, b) -> {
+            String[] x = a.split(" ");
+            String[] y = b.split(" ");
+            int marco = Integer.compare(Integer.parseInt(x[0]), Integer.parseInt(y[0]));
+            return marco != 0 ? marco : Long.compare(Long.parseLong(x[1]), Long.parseLong(y[1]));
+        });
+        return orfs;
+    }
+
+    private static List<String> comoTexto(List<ORF> orfs) {
+        List<String> texto = new ArrayList<>(orfs.size());
+        for (ORF orf : orfs) {
+            assertEquals(orf.getLongitud(), 3L * (orf.getAminoacidos() + 1));
+            texto.add(orf.getMarco() + " " + orf.getInicio() + " " + orf.getFin() + " " + orf.getAminoacidos());
+        }
+        return texto;
+    }
+
+    private void comprobar(String secuencia, int minimo, int codonesPorTrozo) {
+        List<String> esperados = buscarIngenuo(secuencia, minimo);
+        SecuenciaEmpaquetada empaquetada = SecuenciaADN.limpiarEmpaquetada(secuencia);
+        BuscadorORF buscador = new BuscadorORF(minimo, codonesPorTrozo);
+        String contexto = "largo " + secuencia.length() + ", mínimo " + minimo + ", trozo " + codonesPorTrozo;
+        assertEquals(contexto, esperados, comoTexto(buscador.buscar(empaquetada)));
+        assertEquals(contexto, esperados, comoTexto(buscador.buscarParalelo(empaquetada, pool)));
+    }
+
+    @Test
+    public void testTrozosDePocosCodones() {
+        Random random = new Random(1);
+        for (int ronda = 0; ronda < 40; ronda++) {
+            String secuencia = secuencia(random, 300 + random.nextInt(700), ronda % 2 == 0);
+            for (int trozo : new int[] {1, 2, 3, 5, 16}) {
+                comprobar(secuencia, 0, trozo);
+                comprobar(secuencia, 8, trozo);
+            }
+        }
+    }
+
+    /**
+     * ORF que cruzan decenas de trozos: un ATG, muchos codones sin STOP y un
+     * STOP, con otros ATG dentro que no deben abrir ORF nuevos.
+     */
+    @Test
+    public void testORFQueCruzaVariosTrozos() {
+        StringBuilder secuencia = new StringBuilder("CCATGA");
+        for (int i = 0; i < 3; i++) {
+            secuencia.append("ATG");
+            for (int j = 0; j < 60; j++) {
+                secuencia.append(j % 7 == 0 ? "ATG" : "GCC");
+            }
+            secuencia.append("TAA").append("CC");
+        }
+        for (int trozo : new int[] {1, 4, 7, 64}) {
+            comprobar(secuencia.toString(), 10, trozo);
+        }
+    }
+
+    /**
+     * Un ORF que llega al final de la secuencia sin STOP no se reporta, ni
+     * en un solo trozo ni repartido en varios.
+     */
+    @Test
+    public void testORFSinStopAlFinal() {
+        String secuencia = "ATGTAA" + "ATG" + "GCC".repeat(40);
+        for (int trozo : new int[] {1, 3, 100}) {
+            comprobar(secuencia, 0, trozo);
+        }
+        assertEquals(1, new BuscadorORF(0, 3).buscar(SecuenciaADN.limpiarEmpaquetada(secuencia)).size());
+    }
+
+    @Test
+    public void testSecuenciaCorta() {
+        for (String secuencia : new String[] {"", "A", "AT", "ATG", "TAA", "ATGTA"}) {
+            comprobar(secuencia, 0, 1);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTrozoVacio() {
+        new BuscadorORF(0, 0);
+    }
+}
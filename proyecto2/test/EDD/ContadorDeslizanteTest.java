@@ -0,0 +1,202 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/UnitTests/JUnit4TestClass.java to edit this template
+ */
+package EDD;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de ContadorDeslizante contra un conteo ingenuo con substring.
+ *
+ * La secuencia repite fragmentos de un conjunto pequeño para que haya k-mers
+ * largos con más de una aparición, y se entrega en bloques de tamaño al azar
+ * para que muchas ventanas queden partidas entre dos llamadas a procesar.
+ */
+public class ContadorDeslizanteTest {
+
+    private static final int BASES = 6000;
+
+    /**
+     * Arma una secuencia con fragmentos repetidos y bases sueltas al azar.
+     */
+    static String secuencia(long semilla) {
+        Random random = new Random(semilla);
+        String[] fragmentos = new String[8];
+        for (int i = 0; i < fragmentos.length; i++) {
+            fragmentos[i] = basesAlAzar(random, 20 + random.nextInt(40));
+        }
+        StringBuilder resultado = new StringBuilder();
+        while (resultado.length() < BASES) {
+            if (random.nextBoolean()) {
+                resultado.append(fragmentos[random.nextInt(fragmentos.length)]);
+            } else {
+                resultado.append(basesAlAzar(random, 1 + random.nextInt(30)));
+            }
+        }
+        return resultado.substring(0, BASES);
+    }
+
+    private static String basesAlAzar(Random random, int cantidad) {
+        char[] bases = new char[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            bases[i] = "ACGT".charAt(random.nextInt(4));
+        }
+        return new String(bases);
+    }
+
+    /**
+     * Cuenta cada ventana de k bases con substring: k-mer -> posiciones en orden.
+     */
+    static TreeMap<String, List<Long>> contarIngenuo(String secuencia, int k) {
+        TreeMap<String, List<Long>> conteo = new TreeMap<>();
+        for (int i = 0; i + k <= secuencia.length(); i++) {
+            conteo.computeIfAbsent(secuencia.substring(i, i + k), kmer -> new ArrayList<>()).add((long) i);
+        }
+        return conteo;
+    }
+
+    /**
+     * Entrega la secuencia al consumidor en bloques de 1 a 50 bases.
+     */
+    static void procesarEnBloques(ConsumidorBases consumidor, String secuencia, long semilla) {
+        Random random = new Random(semilla);
+        byte[] bases = secuencia.getBytes(StandardCharsets.ISO_8859_1);
+        int desde = 0;
+        while (desde < bases.length) {
+            int longitud = Math.min(1 + random.nextInt(50), bases.length - desde);
+            // procesar lee desde el inicio del array, como el búfer de ArchivoADN.recorrerBases
+            consumidor.procesar(Arrays.copyOfRange(bases, desde, desde + longitud), longitud);
+            desde += longitud;
+        }
+    }
+
+    static void comprobarPatron(String kmer, List<Long> esperadas, PatronADN patron) {
+        assertNotNull(kmer, patron);
+        assertEquals(kmer, patron.getTriplete());
+        assertEquals(kmer, esperadas.size(), patron.getFrecuencia());
+        ListaPosiciones.Cursor cursor = patron.getPosiciones().cursor();
+        for (long posicion : esperadas) {
+            assertEquals(kmer, posicion, cursor.nextLong());
+        }
+        assertFalse(kmer, cursor.hasNext());
+    }
+
+    private void comprobarEnHashTable(int k) {
+        String secuencia = secuencia(k);
+        TreeMap<String, List<Long>> esperado = contarIngenuo(secuencia, k);
+        HashTable tabla = new HashTable();
+        ContadorDeslizante contador = new ContadorDeslizante(tabla, k);
+        procesarEnBloques(contador, secuencia, k);
+
+        assertEquals(BASES, contador.getBasesProcesadas());
+        assertEquals(BASES - k + 1, contador.getVentanasProcesadas());
+        assertEquals(esperado.size(), tabla.getCantidad());
+        assertArrayEquals(esperado.keySet().toArray(new String[0]), tabla.obtenerTodosLosTripletes());
+        for (String kmer : esperado.keySet()) {
+            comprobarPatron(kmer, esperado.get(kmer), tabla.buscarTriplete(kmer));
+        }
+    }
+
+    private void comprobarEnContadorKmers(int k) {
+        String secuencia = secuencia(100 + k);
+        TreeMap<String, List<Long>> esperado = contarIngenuo(secuencia, k);
+        ContadorKmers kmers = new ContadorKmers(k);
+        ContadorDeslizante contador = new ContadorDeslizante(kmers);
+        procesarEnBloques(contador, secuencia, k);
+
+        assertEquals(k, contador.getK());
+        assertEquals(BASES - k + 1, contador.getVentanasProcesadas());
+        assertEquals(esperado.size(), kmers.getCantidad());
+        assertArrayEquals(esperado.keySet().toArray(new String[0]), kmers.obtenerTodosLosKmers());
+        for (String kmer : esperado.keySet()) {
+            assertEquals(kmer, esperado.get(kmer).size(), kmers.getFrecuencia(kmer));
+            comprobarPatron(kmer, esperado.get(kmer), kmers.buscarKmer(kmer));
+        }
+    }
+
+    @Test
+    public void testUnaBaseEnHashTable() {
+        comprobarEnHashTable(1);
+    }
+
+    /**
+     * Con k = 3 la tabla inserta por insertarCodigo, como ContadorTripletes.
+     */
+    @Test
+    public void testTripletesEnHashTable() {
+        comprobarEnHashTable(3);
+    }
+
+    @Test
+    public void testOnceBasesEnHashTable() {
+        comprobarEnHashTable(11);
+    }
+
+    @Test
+    public void testKMaximoEnHashTable() {
+        comprobarEnHashTable(ContadorKmers.K_MAXIMO);
+    }
+
+    @Test
+    public void testUnaBaseEnContadorKmers() {
+        comprobarEnContadorKmers(1);
+    }
+
+    @Test
+    public void testTripletesEnContadorKmers() {
+        comprobarEnContadorKmers(3);
+    }
+
+    @Test
+    public void testOnceBasesEnContadorKmers() {
+        comprobarEnContadorKmers(11);
+    }
+
+    @Test
+    public void testKMaximoEnContadorKmers() {
+        comprobarEnContadorKmers(ContadorKmers.K_MAXIMO);
+    }
+
+    /**
+     * Los k-mers de largos distintos que se empaquetan igual ("AC" y "AAC")
+     * no se confunden en la misma tabla.
+     */
+    @Test
+    public void testLargosDistintosEnLaMismaTabla() {
+        String secuencia = secuencia(7);
+        HashTable tabla = new HashTable();
+        procesarEnBloques(new ContadorDeslizante(tabla, 2), secuencia, 1);
+        procesarEnBloques(new ContadorDeslizante(tabla, 4), secuencia, 2);
+        TreeMap<String, List<Long>> dos = contarIngenuo(secuencia, 2);
+        TreeMap<String, List<Long>> cuatro = contarIngenuo(secuencia, 4);
+        assertEquals(dos.size() + cuatro.size(), tabla.getCantidad());
+        for (String kmer : dos.keySet()) {
+            comprobarPatron(kmer, dos.get(kmer), tabla.buscarTriplete(kmer));
+        }
+        for (String kmer : cuatro.keySet()) {
+            comprobarPatron(kmer, cuatro.get(kmer), tabla.buscarTriplete(kmer));
+        }
+    }
+
+    @Test
+    public void testSecuenciaMasCortaQueLaVentana() {
+        ContadorKmers kmers = new ContadorKmers(5);
+        ContadorDeslizante contador = new ContadorDeslizante(kmers);
+        contador.procesar("ACGT".getBytes(StandardCharsets.ISO_8859_1), 4);
+        assertEquals(0, contador.getVentanasProcesadas());
+        assertEquals(0, kmers.getCantidad());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testKFueraDeRango() {
+        new ContadorDeslizante(new HashTable(), ContadorKmers.K_MAXIMO + 1);
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/UnitTests/JUnit4TestClass.java to edit this template
+ */
+package EDD;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de ContadorKmers contra un conteo ingenuo con substring.
+ *
+ * Usa la secuencia y la entrega por bloques de ContadorDeslizanteTest; aquí
+ * se prueba el motor solo, con sus k-mers no solapados (procesar) y con
+ * claves agregadas directamente.
+ */
+public class ContadorKmersTest {
+
+    /**
+     * Cuenta los k-mers no solapados (0..k-1, k..2k-1, ...) con substring.
+     */
+    private static TreeMap<String, List<Long>> contarNoSolapados(String secuencia, int k) {
+        TreeMap<String, List<Long>> conteo = new TreeMap<>();
+        for (int i = 0; i + k <= secuencia.length(); i += k) {
+            conteo.computeIfAbsent(secuencia.substring(i, i + k), kmer -> new ArrayList<>()).add((long) i);
+        }
+        return conteo;
+    }
+
+    private static void comprobarConteo(TreeMap<String, List<Long>> esperado, ContadorKmers contador) {
+        assertEquals(esperado.size(), contador.getCantidad());
+        assertArrayEquals(esperado.keySet().toArray(new String[0]), contador.obtenerTodosLosKmers());
+        for (Map.Entry<String, List<Long>> entrada : esperado.entrySet()) {
+            assertEquals(entrada.getKey(), entrada.getValue().size(), contador.getFrecuencia(entrada.getKey()));
+            ContadorDeslizanteTest.comprobarPatron(entrada.getKey(), entrada.getValue(),
+                    contador.buscarKmer(entrada.getKey()));
+        }
+    }
+
+    private void comprobarProcesar(int k) {
+        String secuencia = ContadorDeslizanteTest.secuencia(200 + k);
+        ContadorKmers contador = new ContadorKmers(k);
+        ContadorDeslizanteTest.procesarEnBloques(contador, secuencia, k);
+        comprobarConteo(contarNoSolapados(secuencia, k), contador);
+    }
+
+    @Test
+    public void testProcesarUnaBase() {
+        comprobarProcesar(1);
+    }
+
+    @Test
+    public void testProcesarTripletes() {
+        comprobarProcesar(3);
+    }
+
+    @Test
+    public void testProcesarSieteBases() {
+        comprobarProcesar(7);
+    }
+
+    @Test
+    public void testProcesarKMaximo() {
+        comprobarProcesar(ContadorKmers.K_MAXIMO);
+    }
+
+    /**
+     * Muchas claves distintas obligan a la tabla a redimensionarse varias
+     * veces sin perder conteos ni posiciones.
+     */
+    @Test
+    public void testAgregarConRedimension() {
+        int k = 12;
+        Random random = new Random(5);
+        TreeMap<String, List<Long>> esperado = new TreeMap<>();
+        ContadorKmers contador = new ContadorKmers(k);
+        for (long posicion = 0; posicion < 50000; posicion++) {
+            long clave = random.nextInt(20000);
+            contador.agregar(clave, posicion);
+            esperado.computeIfAbsent(ContadorKmers.decodificar(clave, k), kmer -> new ArrayList<>()).add(posicion);
+        }
+        comprobarConteo(esperado, contador);
+    }
+
+    @Test
+    public void testInsertarIgnoraKmersInvalidos() {
+        ContadorKmers contador = new ContadorKmers(4);
+        contador.insertar("ACGT", 0);
+        contador.insertar("ACGN", 4);
+        contador.insertar("ACG", 8);
+        contador.insertar(null, 12);
+        contador.insertar("ACGT", 16);
+        assertEquals(1, contador.getCantidad());
+        assertEquals(2, contador.getFrecuencia("ACGT"));
+        assertEquals(0, contador.getFrecuencia("ACGN"));
+        assertNull(contador.buscarKmer("TTTT"));
+        assertNull(contador.buscarKmer("ACG"));
+    }
+
+    @Test
+    public void testCodificarYDecodificar() {
+        Random random = new Random(9);
+        for (int k = 1; k <= ContadorKmers.K_MAXIMO; k++) {
+            StringBuilder kmer = new StringBuilder();
+            for (int i = 0; i < k; i++) {
+                kmer.append("ACGT".charAt(random.nextInt(4)));
+            }
+            long clave = ContadorKmers.codificar(kmer.toString());
+            assertTrue(clave >= 0);
+            assertEquals(kmer.toString(), ContadorKmers.decodificar(clave, k));
+        }
+        assertEquals(0, ContadorKmers.codificar("AAAA"));
+        assertEquals(27, ContadorKmers.codificar("CGT"));
+        assertEquals(-1, ContadorKmers.codificar("ACNT"));
+        assertEquals(-1, ContadorKmers.codificar(""));
+        assertEquals(-1, ContadorKmers.codificar("A".repeat(ContadorKmers.K_MAXIMO + 1)));
+    }
+
+    /**
+     * construirArbol ordena por frecuencia y desempata alfabéticamente, igual
+     * que el árbol de los tripletes, y cada nodo lleva el k-mer con sus posiciones.
+     */
+    @Test
+    public void testConstruirArbol() {
+        int k = 5;
+        String secuencia = ContadorDeslizanteTest.secuencia(11);
+        ContadorKmers contador = new ContadorKmers(k);
+        new ContadorDeslizante(contador).procesar(
+                secuencia.getBytes(StandardCharsets.ISO_8859_1), secuencia.length());
+        TreeMap<String, List<Long>> esperado = ContadorDeslizanteTest.contarIngenuo(secuencia, k);
+
+        // Orden esperado de mayor a menor frecuencia; en un empate, el mayor alfabéticamente primero
+        List<String> ranking = new ArrayList<>(esperado.keySet());
+        ranking.sort((a, b) -> {
+            int frecuencia = Integer.compare(esperado.get(b).size(), esperado.get(a).size());
+            return frecuencia != 0 ? frecuencia : b.compareTo(a);
+        });
+
+        ArbolBB arbol = contador.construirArbol();
+        assertEquals(ranking.size(), arbol.getTamaño());
+        int rango = 1;
+        for (NodoArbolBB nodo : arbol.descendente()) {
+            String kmer = ranking.get(rango - 1);
+            assertEquals(kmer, nodo.getTriplete());
+            assertEquals(esperado.get(kmer).size(), nodo.getFrecuencia());
+            ContadorDeslizanteTest.comprobarPatron(kmer, esperado.get(kmer), nodo.getPatron());
+            assertEquals(rango, arbol.getRango(kmer, nodo.getFrecuencia()));
+            rango++;
+        }
+        NodoArbolBB[] top = arbol.topK(5);
+        for (int i = 0; i < top.length; i++) {
+            assertEquals(ranking.get(i), top[i].getTriplete());
+        }
+        assertEquals(ranking.get(0) + " (Frecuencia: " + esperado.get(ranking.get(0)).size() + ")",
+                arbol.getMasFrecuente());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testKCero() {
+        new ContadorKmers(0);
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/UnitTests/JUnit4TestClass.java to edit this template
+ */
+package EDD;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de IngestaParalela con posiciones fuera del heap.
+ *
+ * La secuencia es lo bastante larga para que la ingesta la parta en varios
+ * trozos (ver TAMAÑO_MINIMO_TROZO) y las tablas parciales se fusionen en
+ * varios niveles.
+ */
+public class IngestaParalelaTest {
+
+    private static final int BASES = 9 * IngestaParalela.TAMAÑO_MINIMO_TROZO + 7;
+
+    private static String secuencia;
+    private static ForkJoinPool pool;
+
+    @BeforeClass
+    public static void crearSecuencia() {
+        Random random = new Random(3);
+        char[] bases = new char[BASES];
+        for (int i = 0; i < BASES; i++) {
+            bases[i] = "ACGT".charAt(random.nextInt(4));
+        }
+        secuencia = new String(bases);
+        pool = new ForkJoinPool(16);
+    }
+
+    @AfterClass
+    public static void cerrarPool() {
+        pool.shutdown();
+    }
+
+    /**
+     * Cuenta la secuencia en un solo hilo, como AnalisisADN.cargar sin ingesta paralela.
+     */
+    private static HashTable contarSecuencial(AlmacenPosiciones almacen) {
+        HashTable tabla = new HashTable();
+        tabla.setAlmacen(almacen);
+        byte[] bases = secuencia.getBytes(StandardCharsets.ISO_8859_1);
+        new ContadorTripletes(tabla).procesar(bases, bases.length);
+        return tabla;
+    }
+
+    private static void comprobarIguales(HashTable esperada, HashTable tabla) {
+        assertEquals(esperada.getCantidad(), tabla.getCantidad());
+        for (String triplete : esperada.obtenerTodosLosTripletes()) {
+            PatronADN patron = esperada.buscarTriplete(triplete);
+            PatronADN otro = tabla.buscarTriplete(triplete);
+            assertEquals(triplete, patron.getFrecuencia(), otro.getFrecuencia());
+            ListaPosiciones.Cursor a = patron.getPosiciones().cursor();
+            ListaPosiciones.Cursor b = otro.getPosiciones().cursor();
+            while (a.hasNext()) {
+                assertEquals(triplete, a.nextLong(), b.nextLong());
+            }
+            assertFalse(b.hasNext());
+        }
+    }
+
+    /**
+     * Las tablas parciales se fusionan empalmando sus bloques, así que la
+     * ingesta paralela reserva lo mismo que la secuencial. Puede diferir en
+     * una página: en cada empalme el último bloque de la izquierda se guarda
+     * antes de completarse, y las páginas se llenan en otro orden.
+     */
+    private static void comprobarReservados(AlmacenPosiciones secuencial, AlmacenPosiciones paralelo) {
+        long diferencia = Math.abs(paralelo.getBytesReservados() - secuencial.getBytesReservados());
+        assertTrue("secuencial " + secuencial.getBytesReservados() + ", paralela " + paralelo.getBytesReservados(),
+                diferencia <= AlmacenPosiciones.TAMAÑO_PAGINA);
+    }
+
+    @Test
+    public void testTextoReservaLoMismoQueSecuencial() {
+        try (AlmacenPosiciones secuencial = new AlmacenPosiciones();
+                AlmacenPosiciones paralelo = new AlmacenPosiciones()) {
+            HashTable esperada = contarSecuencial(secuencial);
+            IngestaParalela ingesta = new IngestaParalela(pool);
+            ingesta.setAlmacen(paralelo);
+            HashTable tabla = ingesta.contar(secuencia);
+
+            comprobarIguales(esperada, tabla);
+            comprobarReservados(secuencial, paralelo);
+        }
+    }
+
+    @Test
+    public void testArchivoReservaLoMismoQueSecuencial() throws IOException {
+        Path ruta = Files.createTempFile("ingesta", ".txt");
+        try (AlmacenPosiciones secuencial = new AlmacenPosiciones();
+                AlmacenPosiciones paralelo = new AlmacenPosiciones()) {
+            Files.writeString(ruta, secuencia, StandardCharsets.ISO_8859_1);
+            HashTable esperada = contarSecuencial(secuencial);
+            HashTable tabla;
+            try (ArchivoADN archivo = new ArchivoADN(ruta)) {
+                IngestaParalela ingesta = new IngestaParalela(pool);
+                ingesta.setAlmacen(paralelo);
+                tabla = ingesta.contar(archivo);
+            }
+
+            comprobarIguales(esperada, tabla);
+            comprobarReservados(secuencial, paralelo);
+        } finally {
+            Files.delete(ruta);
+        }
+    }
+
+    /**
+     * La carga secuencial de AnalisisADN cuenta en una TablaCodones y la
+     * vuelca en la tabla hash: debe dar lo mismo que insertar cada triplete
+     * en la HashTable y que la carga paralela, también en solo conteo.
+     */
+    @Test
+    public void testCargaSecuencialIgualQueParalela() throws IOException {
+        Path ruta = Files.createTempFile("carga", ".txt");
+        try {
+            Files.writeString(ruta, secuencia, StandardCharsets.ISO_8859_1);
+            HashTable esperada = contarSecuencial(null);
+            for (boolean soloConteo : new boolean[] {false, true}) {
+                AnalisisADN secuencial = AnalisisADN.cargar(ruta, false, soloConteo);
+                AnalisisADN paralela = AnalisisADN.cargar(ruta, true, soloConteo);
+                try {
+                    assertEquals(BASES, secuencial.getNucleotidos());
+                    assertEquals(BASES / 3, secuencial.getTripletes());
+                    assertEquals(paralela.getTripletes(), secuencial.getTripletes());
+                    assertEquals(soloConteo, secuencial.getTablaHash().esSoloConteo());
+                    assertEquals(esperada.getCantidad(), secuencial.getArbolFrecuencias().getTamaño());
+                    if (soloConteo) {
+                        for (String triplete : esperada.obtenerTodosLosTripletes()) {
+                            int frecuencia = esperada.buscarTriplete(triplete).getFrecuencia();
+                            assertEquals(triplete, frecuencia, secuencial.getTablaHash().buscarTriplete(triplete).getFrecuencia());
+                            assertEquals(triplete, frecuencia, paralela.getTablaHash().buscarTriplete(triplete).getFrecuencia());
+                        }
+                    } else {
+                        comprobarIguales(esperada, secuencial.getTablaHash());
+                        comprobarIguales(esperada, paralela.getTablaHash());
+                    }
+                } finally {
+                    secuencial.liberar();
+                    paralela.liberar();
+                }
+            }
+        } finally {
+            Files.delete(ruta);
+        }
+    }
+}
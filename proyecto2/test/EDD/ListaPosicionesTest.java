@@ -0,0 +1,260 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/UnitTests/JUnit4TestClass.java to edit this template
+ */
+package EDD;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de ListaPosiciones, en el heap y con un AlmacenPosiciones.
+ *
+ * Cada prueba compara la lista con un long[] ordenado que tiene las mismas
+ * posiciones. Los tamaños elegidos caen justo antes, en y después de los
+ * bordes de bloque (POSICIONES_POR_BLOQUE = 128).
+ */
+public class ListaPosicionesTest {
+
+    private static final int BLOQUE = ListaPosiciones.POSICIONES_POR_BLOQUE;
+    private static final int[] TAMAÑOS = {0, 1, 2, BLOQUE - 1, BLOQUE, BLOQUE + 1,
+        2 * BLOQUE - 1, 2 * BLOQUE, 2 * BLOQUE + 1, 1000, 5000};
+
+    /**
+     * Crea posiciones crecientes con repetidas, saltos chicos y saltos
+     * grandes (que necesitan varios bytes y pasan de 2^31).
+     */
+    private static long[] posiciones(int cantidad, long semilla) {
+        Random random = new Random(semilla);
+        long[] resultado = new long[cantidad];
+        long actual = random.nextInt(1000);
+        for (int i = 0; i < cantidad; i++) {
+            int tipo = random.nextInt(10);
+            if (tipo == 0) {
+                // repetida
+            } else if (tipo == 1) {
+                actual += 1L << (20 + random.nextInt(16));
+            } else {
+                actual += 1 + random.nextInt(200);
+            }
+            resultado[i] = actual;
+        }
+        return resultado;
+    }
+
+    private static ListaPosiciones crear(long[] valores, AlmacenPosiciones almacen) {
+        ListaPosiciones lista = new ListaPosiciones(almacen);
+        for (long valor : valores) {
+            lista.agregar(valor);
+        }
+        return lista;
+    }
+
+    /**
+     * Índice de la primera posición mayor o igual, buscado recorriendo el array.
+     */
+    private static int primeraMayorOIgual(long[] valores, long posicion) {
+        int i = 0;
+        while (i < valores.length && valores[i] < posicion) {
+            i++;
+        }
+        return i;
+    }
+
+    private static long[] recorrer(ListaPosiciones lista) {
+        long[] resultado = new long[lista.getCantidad()];
+        ListaPosiciones.Cursor cursor = lista.cursor();
+        for (int i = 0; i < resultado.length; i++) {
+            assertTrue(cursor.hasNext());
+            resultado[i] = cursor.nextLong();
+        }
+        assertFalse(cursor.hasNext());
+        return resultado;
+    }
+
+    /**
+     * Compara recorrido, obtener, indiceDe, contiene y avanzarHasta de una
+     * lista con las posiciones esperadas.
+     */
+    private static void comprobarLista(long[] esperadas, ListaPosiciones lista) {
+        int tamaño = esperadas.length;
+        assertEquals(tamaño, lista.getCantidad());
+        assertArrayEquals("tamaño " + tamaño, esperadas, recorrer(lista));
+        for (int i = 0; i < tamaño; i++) {
+            assertEquals("obtener(" + i + ") con " + tamaño, esperadas[i], lista.obtener(i));
+        }
+        if (tamaño > 0) {
+            assertEquals(esperadas[tamaño - 1], lista.getUltima());
+        }
+
+        long[] buscadas = new long[3 * tamaño + 2];
+        for (int i = 0; i < tamaño; i++) {
+            buscadas[3 * i] = esperadas[i] - 1;
+            buscadas[3 * i + 1] = esperadas[i];
+            buscadas[3 * i + 2] = esperadas[i] + 1;
+        }
+        buscadas[3 * tamaño] = -1;
+        buscadas[3 * tamaño + 1] = Long.MAX_VALUE;
+        for (long buscada : buscadas) {
+            int indice = primeraMayorOIgual(esperadas, buscada);
+            assertEquals("indiceDe(" + buscada + ") con " + tamaño, indice, lista.indiceDe(buscada));
+            assertEquals(Arrays.binarySearch(esperadas, buscada) >= 0, lista.contiene(buscada));
+        }
+
+        Random random = new Random(tamaño);
+        ListaPosiciones.Cursor cursor = lista.cursor();
+        int indice = 0;
+        while (indice < tamaño) {
+            // Saltos de distinto largo, algunos dentro del mismo bloque y otros a bloques lejanos
+            int salto = random.nextInt(4) == 0 ? random.nextInt(3 * BLOQUE) : random.nextInt(3);
+            long destino = esperadas[Math.min(tamaño - 1, indice + salto)] + random.nextInt(2);
+            cursor.avanzarHasta(destino);
+            indice = Math.max(indice, primeraMayorOIgual(esperadas, destino));
+            assertEquals(indice, cursor.getIndice());
+            if (indice < tamaño) {
+                assertEquals(esperadas[indice], cursor.nextLong());
+                indice++;
+            }
+        }
+        assertFalse(cursor.hasNext());
+    }
+
+    private static void comprobarAgregar(AlmacenPosiciones almacen) {
+        for (int tamaño : TAMAÑOS) {
+            long[] esperadas = posiciones(tamaño, tamaño);
+            comprobarLista(esperadas, crear(esperadas, almacen));
+        }
+    }
+
+    /**
+     * Arma la lista empalmando trozos con agregarTodas, con cortes que dejan
+     * bloques incompletos de distintos tamaños, y sigue agregando después.
+     */
+    private static void comprobarEmpalmes(AlmacenPosiciones almacen) {
+        int[] cortes = {0, 1, 2, BLOQUE - 1, BLOQUE, BLOQUE + 1, 200, 3 * BLOQUE, 500};
+        for (int tamaño : TAMAÑOS) {
+            long[] esperadas = posiciones(tamaño, 13 * tamaño);
+            int fin = tamaño - Math.min(tamaño, 40);
+            ListaPosiciones lista = new ListaPosiciones(almacen);
+            int desde = 0;
+            for (int i = 0; desde < fin; i++) {
+                int hasta = Math.min(fin, desde + cortes[i % cortes.length]);
+                lista.agregarTodas(crear(Arrays.copyOfRange(esperadas, desde, hasta), almacen));
+                desde = hasta;
+            }
+            for (int i = fin; i < tamaño; i++) {
+                lista.agregar(esperadas[i]);
+            }
+            comprobarLista(esperadas, lista);
+        }
+    }
+
+    @Test
+    public void testAgregarEnHeap() {
+        comprobarAgregar(null);
+    }
+
+    @Test
+    public void testAgregarConAlmacen() {
+        try (AlmacenPosiciones almacen = new AlmacenPosiciones()) {
+            comprobarAgregar(almacen);
+        }
+    }
+
+    @Test
+    public void testEmpalmesEnHeap() {
+        comprobarEmpalmes(null);
+    }
+
+    @Test
+    public void testEmpalmesConAlmacen() {
+        try (AlmacenPosiciones almacen = new AlmacenPosiciones()) {
+            comprobarEmpalmes(almacen);
+        }
+    }
+
+    @Test
+    public void testAgregarTodasDeOtroAlmacen() {
+        long[] esperadas = posiciones(5 * BLOQUE + 7, 17);
+        int corte = 2 * BLOQUE + 3;
+        try (AlmacenPosiciones almacen = new AlmacenPosiciones()) {
+            ListaPosiciones lista = crear(Arrays.copyOfRange(esperadas, 0, corte), almacen);
+            // Con distinto almacén no se pueden compartir bloques: se copian uno a uno
+            lista.agregarTodas(crear(Arrays.copyOfRange(esperadas, corte, esperadas.length), null));
+            comprobarLista(esperadas, lista);
+        }
+    }
+
+    @Test
+    public void testEmpalmarNoVuelveACopiarAlAlmacen() {
+        // Suficientes posiciones para que la mitad derecha ocupe varias páginas del almacén
+        long[] esperadas = posiciones(1 << 22, 23);
+        int mitad = esperadas.length / 2;
+        try (AlmacenPosiciones almacen = new AlmacenPosiciones()) {
+            ListaPosiciones izquierda = crear(Arrays.copyOfRange(esperadas, 0, mitad), almacen);
+            ListaPosiciones derecha = crear(Arrays.copyOfRange(esperadas, mitad, esperadas.length), almacen);
+            long reservados = almacen.getBytesReservados();
+            assertTrue(reservados > 2L * AlmacenPosiciones.TAMAÑO_PAGINA);
+            izquierda.agregarTodas(derecha);
+            // Solo se guarda el último bloque de la izquierda, que cabe en una página
+            assertTrue(almacen.getBytesReservados() <= reservados + AlmacenPosiciones.TAMAÑO_PAGINA);
+            assertArrayEquals(esperadas, recorrer(izquierda));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAgregarTodasDecrecienteFalla() {
+        ListaPosiciones lista = crear(new long[]{5, 10}, null);
+        lista.agregarTodas(crear(new long[]{9, 20}, null));
+    }
+
+    @Test
+    public void testCursorNoRetrocede() {
+        long[] esperadas = posiciones(3 * BLOQUE, 5);
+        ListaPosiciones.Cursor cursor = crear(esperadas, null).cursor();
+        cursor.avanzarHasta(esperadas[2 * BLOQUE]);
+        cursor.avanzarHasta(esperadas[10]);
+        assertEquals(esperadas[2 * BLOQUE], cursor.nextLong());
+    }
+
+    @Test
+    public void testBloquesCompletosSalenDelHeap() {
+        long[] esperadas = posiciones(100 * BLOQUE, 11);
+        ListaPosiciones enHeap = crear(esperadas, null);
+        try (AlmacenPosiciones almacen = new AlmacenPosiciones()) {
+            ListaPosiciones externa = crear(esperadas, almacen);
+            assertTrue(almacen.getBytesReservados() > 0);
+            assertTrue(externa.getBytesEnHeap() < enHeap.getBytesEnHeap());
+            assertArrayEquals(esperadas, recorrer(externa));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAgregarDecrecienteFalla() {
+        ListaPosiciones lista = new ListaPosiciones();
+        lista.agregar(10);
+        lista.agregar(9);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testObtenerFueraDeRango() {
+        crear(posiciones(BLOQUE, 1), null).obtener(BLOQUE);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testUltimaDeListaVacia() {
+        new ListaPosiciones().getUltima();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testLeerDespuesDeLiberar() {
+        AlmacenPosiciones almacen = new AlmacenPosiciones();
+        ListaPosiciones lista = crear(posiciones(2 * BLOQUE, 2), almacen);
+        almacen.liberar();
+        // La primera de cada bloque está en el índice del heap; la segunda ya no
+        lista.obtener(1);
+    }
+}
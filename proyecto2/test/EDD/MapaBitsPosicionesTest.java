@@ -0,0 +1,193 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/UnitTests/JUnit4TestClass.java to edit this template
+ */
+package EDD;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de MapaBitsPosiciones contra un TreeSet con las mismas posiciones.
+ *
+ * Los conjuntos mezclan tramos dispersos (contenedores de arreglo) y tramos
+ * con más de MAXIMO_ARREGLO posiciones (mapas de bits), y ponen posiciones
+ * cerca de los bordes de tramo (múltiplos de 65536).
+ */
+public class MapaBitsPosicionesTest {
+
+    private static final long TRAMO = 1 << 16;
+
+    /**
+     * Crea posiciones al azar: algunos tramos densos, otros dispersos, y
+     * valores pegados al inicio y al final de cada tramo.
+     */
+    private static TreeSet<Long> posiciones(long semilla) {
+        Random random = new Random(semilla);
+        TreeSet<Long> resultado = new TreeSet<>();
+        for (int tramo = 0; tramo < 6; tramo++) {
+            if (random.nextInt(3) == 0) {
+                continue;
+            }
+            long base = tramo * TRAMO;
+            int cantidad = random.nextBoolean() ? 10 + random.nextInt(200) : 5000 + random.nextInt(20000);
+            for (int i = 0; i < cantidad; i++) {
+                resultado.add(base + random.nextInt((int) TRAMO));
+            }
+            if (random.nextBoolean()) {
+                resultado.add(base);
+                resultado.add(base + TRAMO - 1 - random.nextInt(3));
+            }
+        }
+        return resultado;
+    }
+
+    private static MapaBitsPosiciones crear(TreeSet<Long> valores) {
+        MapaBitsPosiciones mapa = new MapaBitsPosiciones();
+        for (long valor : valores) {
+            mapa.agregar(valor);
+        }
+        return mapa;
+    }
+
+    private static void comprobarIgual(TreeSet<Long> esperado, MapaBitsPosiciones mapa) {
+        assertEquals(esperado.size(), mapa.getCantidad());
+        MapaBitsPosiciones.Cursor cursor = mapa.cursor();
+        for (long valor : esperado) {
+            assertTrue(cursor.hasNext());
+            assertEquals(valor, cursor.nextLong());
+        }
+        assertFalse(cursor.hasNext());
+    }
+
+    /**
+     * Las posiciones de a que tienen alguna de b a distancia 1..distancia,
+     * buscadas comparando cada par.
+     */
+    private static TreeSet<Long> seguidasPor(TreeSet<Long> a, TreeSet<Long> b, int distancia) {
+        TreeSet<Long> resultado = new TreeSet<>();
+        for (long valor : a) {
+            Long siguiente = b.higher(valor);
+            if (siguiente != null && siguiente - valor <= distancia) {
+                resultado.add(valor);
+            }
+        }
+        return resultado;
+    }
+
+    @Test
+    public void testAgregarEnDesordenYRecorrer() {
+        TreeSet<Long> esperado = posiciones(1);
+        Long[] valores = esperado.toArray(new Long[0]);
+        Random random = new Random(2);
+        for (int i = valores.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Long temporal = valores[i];
+            valores[i] = valores[j];
+            valores[j] = temporal;
+        }
+        MapaBitsPosiciones mapa = new MapaBitsPosiciones();
+        for (Long valor : valores) {
+            assertTrue(mapa.agregar(valor));
+        }
+        assertFalse(mapa.agregar(valores[0]));
+        comprobarIgual(esperado, mapa);
+    }
+
+    @Test
+    public void testContieneRangoYSiguiente() {
+        for (long semilla = 0; semilla < 5; semilla++) {
+            TreeSet<Long> esperado = posiciones(semilla);
+            MapaBitsPosiciones mapa = crear(esperado);
+            long[] ordenadas = esperado.stream().mapToLong(Long::longValue).toArray();
+            Random random = new Random(semilla);
+            for (int i = 0; i < 3000; i++) {
+                long posicion = random.nextInt(8) == 0 ? -1 + random.nextInt(3) : random.nextInt((int) (7 * TRAMO));
+                assertEquals(esperado.contains(posicion), mapa.contiene(posicion));
+                int indice = Arrays.binarySearch(ordenadas, posicion);
+                long menoresOIguales = indice >= 0 ? indice + 1 : -indice - 1;
+                assertEquals(menoresOIguales, mapa.rango(posicion));
+                Long siguiente = esperado.ceiling(posicion);
+                assertEquals(siguiente == null ? -1 : siguiente, mapa.siguienteDesde(posicion));
+            }
+        }
+    }
+
+    @Test
+    public void testRangoDespuesDeAgregarEnMedio() {
+        MapaBitsPosiciones mapa = new MapaBitsPosiciones();
+        mapa.agregar(5 * TRAMO);
+        mapa.agregar(TRAMO + 3);
+        assertEquals(2, mapa.rango(5 * TRAMO));
+        // Cambia un tramo anterior: los acumulados de los siguientes deben rehacerse
+        mapa.agregar(TRAMO + 4);
+        mapa.agregar(3);
+        assertEquals(4, mapa.rango(5 * TRAMO));
+        assertEquals(3, mapa.rango(2 * TRAMO));
+        assertEquals(4, mapa.rango(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testUnionEInterseccion() {
+        for (long semilla = 0; semilla < 6; semilla++) {
+            TreeSet<Long> a = posiciones(semilla);
+            TreeSet<Long> b = posiciones(semilla + 100);
+            TreeSet<Long> union = new TreeSet<>(a);
+            union.addAll(b);
+            TreeSet<Long> interseccion = new TreeSet<>(a);
+            interseccion.retainAll(b);
+            comprobarIgual(union, MapaBitsPosiciones.union(crear(a), crear(b)));
+            comprobarIgual(interseccion, MapaBitsPosiciones.interseccion(crear(a), crear(b)));
+        }
+    }
+
+    @Test
+    public void testSeguidasPor() {
+        int[] distancias = {1, 2, 3, 63, 64, 65, 100, 1000, 65535, 65536, 200000};
+        for (long semilla = 0; semilla < 4; semilla++) {
+            TreeSet<Long> a = posiciones(semilla);
+            TreeSet<Long> b = posiciones(semilla + 50);
+            MapaBitsPosiciones mapaA = crear(a);
+            MapaBitsPosiciones mapaB = crear(b);
+            for (int distancia : distancias) {
+                comprobarIgual(seguidasPor(a, b, distancia), mapaA.seguidasPor(mapaB, distancia));
+            }
+        }
+    }
+
+    @Test
+    public void testSeguidasPorEntreTramos() {
+        TreeSet<Long> a = new TreeSet<>();
+        TreeSet<Long> b = new TreeSet<>();
+        a.add(TRAMO - 2);
+        a.add(TRAMO - 1);
+        a.add(3 * TRAMO - 10);
+        b.add(TRAMO + 1);
+        b.add(5 * TRAMO);
+        for (int distancia : new int[]{1, 2, 3, 4, 2 * (int) TRAMO + 10, 2 * (int) TRAMO + 11}) {
+            comprobarIgual(seguidasPor(a, b, distancia), crear(a).seguidasPor(crear(b), distancia));
+        }
+        assertEquals(0, crear(a).seguidasPor(crear(b), 0).getCantidad());
+    }
+
+    @Test
+    public void testBuscarSeguidosEnTabla() {
+        HashTable tabla = new HashTable();
+        String secuencia = "ATGCCCTAAATGTAAGGGATGAAACCCTAA";
+        for (int i = 0; i + 3 <= secuencia.length(); i += 3) {
+            tabla.insertar(secuencia.substring(i, i + 3), i);
+        }
+        // ATG en 0, 9 y 18; TAA en 6, 12 y 27
+        assertEquals("[0, 9]", tabla.buscarSeguidos("ATG", "TAA", 6).toString());
+        assertEquals("[0, 9, 18]", tabla.buscarSeguidos("ATG", "TAA", 9).toString());
+        assertEquals("[]", tabla.buscarSeguidos("ATG", "TTT", 100).toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPosicionNegativaFalla() {
+        new MapaBitsPosiciones().agregar(-1);
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/UnitTests/JUnit4TestClass.java to edit this template
+ */
+package EDD;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de TraductorProteinas: la traducción al vuelo, la de una secuencia
+ * empaquetada y la paralela deben escribir exactamente el mismo texto.
+ *
+ * Los trozos se achican a una o dos líneas (ANCHO_LINEA codones) para que
+ * secuencias de pocos miles de bases pasen por varias olas de trozos.
+ */
+public class TraductorProteinasTest {
+
+    private static final int ANCHO = TraductorProteinas.ANCHO_LINEA;
+
+    private static ForkJoinPool pool;
+    private static CodigoGenetico codigoAnterior;
+
+    @BeforeClass
+    public static void prepararCodigo() {
+        codigoAnterior = MapaAminoacidos.getCodigoGenetico();
+        MapaAminoacidos.setCodigoGenetico(CodigoGenetico.porNumero(1));
+        pool = new ForkJoinPool(3);
+    }
+
+    @AfterClass
+    public static void restaurarCodigo() {
+        MapaAminoacidos.setCodigoGenetico(codigoAnterior);
+        pool.shutdown();
+    }
+
+    private static String secuencia(long semilla, int bases) {
+        Random random = new Random(semilla);
+        char[] resultado = new char[bases];
+        for (int i = 0; i < bases; i++) {
+            resultado[i] = "ACGT".charAt(random.nextInt(4));
+        }
+        return new String(resultado);
+    }
+
+    /**
+     * Traduce codón por codón con substring y arma las líneas a mano.
+     */
+    private static String traducirIngenuo(String secuencia, int marco) {
+        StringBuilder hebra = new StringBuilder(secuencia);
+        if (marco >= 3) {
+            hebra.reverse();
+            for (int i = 0; i < hebra.length(); i++) {
+                hebra.setCharAt(i, "TGCA".charAt("ACGT".indexOf(hebra.charAt(i))));
+            }
+        }
+        StringBuilder proteina = new StringBuilder();
+        int codones = 0;
+        for (int i = marco % 3; i + 3 <= hebra.length(); i += 3) {
+            proteina.append(MapaAminoacidos.obtener(hebra.substring(i, i + 3)).getLetra());
+            if (++codones % ANCHO == 0) {
+                proteina.append('\n');
+            }
+        }
+        if (codones % ANCHO != 0) {
+            proteina.append('\n');
+        }
+        return proteina.toString();
+    }
+
+    /**
+     * Traduce al vuelo entregando las bases en bloques de 1 a 40.
+     */
+    private static String traducirAlVuelo(String secuencia, int marco, long semilla) {
+        StringWriter salida = new StringWriter();
+        TraductorProteinas traductor = new TraductorProteinas(salida, marco);
+        byte[] bases = secuencia.getBytes(StandardCharsets.ISO_8859_1);
+        Random random = new Random(semilla);
+        int desde = 0;
+        while (desde < bases.length) {
+            int longitud = Math.min(1 + random.nextInt(40), bases.length - desde);
+            traductor.procesar(Arrays.copyOfRange(bases, desde, desde + longitud), longitud);
+            desde += longitud;
+        }
+        traductor.terminar();
+        assertEquals(Math.max(0, (secuencia.length() - marco) / 3), traductor.getAminoacidos());
+        return salida.toString();
+    }
+
+    private static String traducirEmpaquetada(String secuencia, int marco, int codonesPorTrozo) throws IOException {
+        StringWriter salida = new StringWriter();
+        TraductorProteinas.traducir(SecuenciaADN.limpiarEmpaquetada(secuencia), marco, salida, codonesPorTrozo);
+        return salida.toString();
+    }
+
+    private static String traducirParalelo(String secuencia, int marco, int codonesPorTrozo) throws IOException {
+        StringWriter salida = new StringWriter();
+        long codones = TraductorProteinas.traducirParalelo(SecuenciaADN.limpiarEmpaquetada(secuencia), marco,
+                salida, pool, codonesPorTrozo);
+        assertEquals(Math.max(0, (secuencia.length() - marco % 3) / 3), codones);
+        return salida.toString();
+    }
+
+    @Test
+    public void testAlVueloIgualQueEmpaquetada() throws IOException {
+        for (int ronda = 0; ronda < 10; ronda++) {
+            String secuencia = secuencia(ronda, 500 + ronda * 97);
+            for (int marco = 0; marco < 3; marco++) {
+                String esperada = traducirEmpaquetada(secuencia, marco, TraductorProteinas.CODONES_POR_TROZO);
+                assertEquals(esperada, traducirAlVuelo(secuencia, marco, ronda));
+                assertEquals(traducirIngenuo(secuencia, marco), esperada);
+            }
+        }
+    }
+
+    /**
+     * Con trozos de 60 y 120 codones y un pool de 3 hilos, una secuencia de
+     * unos 10 000 codones pasa por decenas de trozos y varias olas.
+     */
+    @Test
+    public void testParaleloIgualQueSecuencial() throws IOException {
+        String secuencia = secuencia(42, 30_000 + 17);
+        for (int marco = 0; marco < AnalisisSeisMarcos.TOTAL_MARCOS; marco++) {
+            String esperada = traducirIngenuo(secuencia, marco);
+            for (int trozo : new int[] {ANCHO, 2 * ANCHO, 7 * ANCHO}) {
+                assertEquals("marco " + marco + ", trozo " + trozo, esperada, traducirEmpaquetada(secuencia, marco, trozo));
+                assertEquals("marco " + marco + ", trozo " + trozo, esperada, traducirParalelo(secuencia, marco, trozo));
+            }
+        }
+    }
+
+    /**
+     * Con una cantidad de codones múltiplo de ANCHO_LINEA no queda una línea
+     * vacía al final; con una más, la última línea tiene un solo aminoácido.
+     */
+    @Test
+    public void testSaltosDeLinea() throws IOException {
+        for (int codones : new int[] {0, 1, ANCHO - 1, ANCHO, ANCHO + 1, 2 * ANCHO, 2 * ANCHO + 1}) {
+            String secuencia = secuencia(codones, codones * 3);
+            String esperada = traducirIngenuo(secuencia, 0);
+            String[] lineas = esperada.isEmpty() ? new String[0] : esperada.split("\n", -1);
+            assertEquals(codones == 0 ? 0 : (codones + ANCHO - 1) / ANCHO + 1, lineas.length);
+            for (int i = 0; i + 2 < lineas.length; i++) {
+                assertEquals(ANCHO, lineas[i].length());
+            }
+            if (lineas.length > 0) {
+                assertEquals("", lineas[lineas.length - 1]);
+                assertEquals(codones % ANCHO == 0 ? ANCHO : codones % ANCHO, lineas[lineas.length - 2].length());
+            }
+
+            assertEquals(esperada, traducirAlVuelo(secuencia, 0, codones));
+            assertEquals(esperada, traducirEmpaquetada(secuencia, 0, ANCHO));
+            assertEquals(esperada, traducirParalelo(secuencia, 0, ANCHO));
+        }
+    }
+
+    @Test
+    public void testMarcoPorNombre() {
+        assertEquals(0, TraductorProteinas.marcoPorNombre("+1"));
+        assertEquals(2, TraductorProteinas.marcoPorNombre("3"));
+        assertEquals(5, TraductorProteinas.marcoPorNombre("-3"));
+        assertEquals(-1, TraductorProteinas.marcoPorNombre("4"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMarcoReversoAlVuelo() {
+        new TraductorProteinas(new StringWriter(), 3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTrozoQueNoEsMultiploDeLaLinea() throws IOException {
+        traducirEmpaquetada("ACGTACGT", 0, ANCHO + 1);
+    }
+}